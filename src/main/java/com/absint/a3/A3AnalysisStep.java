@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.structs.describable.DescribableModel;
+import org.jenkinsci.plugins.structs.describable.UninstantiatedDescribable;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.StaplerRequest2;
+
+/**
+ * Pipeline step <tt>a3Analysis</tt>, running an a³ analysis like the {@link A3Builder} build step.
+ * <br>
+ * The step runs asynchronously, a³ is launched detached on the build node and survives a controller
+ * restart, after which the step reattaches to the running analysis (see {@link A3AnalysisStepExecution}).
+ * The options are the ones of the build step: the step is configured by an {@link A3Builder}, its arguments
+ * (e.g. <tt>a3Analysis project_file: 'project.apx', analysis_ids: 'wcet_main'</tt>) are the ones of the build step.
+ */
+public class A3AnalysisStep extends Step {
+
+    private final A3Builder analysis;
+
+    /**
+     * Constructor
+     * @param analysis build step with the configuration of the analysis run
+     */
+    public A3AnalysisStep(A3Builder analysis) {
+        this.analysis = analysis;
+    }
+
+    /**
+     * Returns the build step with the configuration of the analysis run
+     * @return A3Builder
+     */
+    public A3Builder getAnalysis() {
+        return analysis;
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new A3AnalysisStepExecution(context, analysis);
+    }
+
+    /**
+     * Descriptor for {@link A3AnalysisStep}
+     */
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            Set<Class<?>> context = new HashSet<Class<?>>();
+            Collections.addAll(context, Run.class, FilePath.class, EnvVars.class, Launcher.class, TaskListener.class);
+            return Collections.unmodifiableSet(context);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "a3Analysis";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "a³ Analysis Run";
+        }
+
+        /* The arguments of the step are the ones of the build step */
+
+        @Override
+        public Step newInstance(Map<String, Object> arguments) throws Exception {
+            return new A3AnalysisStep(new DescribableModel<A3Builder>(A3Builder.class).instantiate(arguments));
+        }
+
+        @Override
+        public Step newInstance(StaplerRequest2 req, JSONObject formData) throws FormException {
+            return new A3AnalysisStep(req.bindJSON(A3Builder.class, formData));
+        }
+
+        @Override
+        public UninstantiatedDescribable uninstantiate(Step step) throws UnsupportedOperationException {
+            return new DescribableModel<A3Builder>(A3Builder.class).uninstantiate2(((A3AnalysisStep) step).getAnalysis());
+        }
+    }
+}
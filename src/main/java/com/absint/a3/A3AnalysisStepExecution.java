@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+/**
+ * Asynchronous execution of the {@link A3AnalysisStep}. The analysis runs on a thread of the plugin, the
+ * Pipeline (CPS) thread is not blocked. a³ is launched detached on the build node, the invocations are recorded in
+ * the {@link A3DurableRunAction} of the build.
+ * <br>
+ * After a controller restart the analysis is performed again: the preparation (project file, tool, version check)
+ * is repeated, the a³ invocations recorded before the restart are reattached to instead of being launched again.
+ * While a³ runs, the analysis thread is parked until the poll task of the invocation ({@link A3DetachedProc}) completes
+ * it: the poll task passes the output on, samples the processes and checks the time budgets, the thread is neither
+ * woken up nor does it call the build node.
+ * <br>
+ * The step returns the evaluated results (see {@link #toStepResult(A3Builder.RunOutcome)}), so that Pipelines can branch on them
+ * without reading and parsing the XML result file in Groovy.
+ */
+public class A3AnalysisStepExecution extends StepExecution {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newCachedThreadPool(new NamingThreadFactory(new DaemonThreadFactory(), "A3AnalysisStep"));
+
+    private final A3Builder analysis;
+
+    /* Identifies the invocations of this execution in the journal of the build, also after a restart */
+    private final String id = UUID.randomUUID().toString();
+
+    /* The step is completed either by the analysis or by stop(), whichever comes first */
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private transient volatile Future<?> task;
+
+    A3AnalysisStepExecution(StepContext context, A3Builder analysis) {
+        super(context);
+        this.analysis = analysis;
+    }
+
+    @Override
+    public boolean start() throws Exception {
+        Run<?, ?> run = getContext().get(Run.class);
+        if (run.getAction(A3DurableRunAction.class) == null) {
+            run.addAction(new A3DurableRunAction());
+        }
+        task = EXECUTOR.submit(() -> perform(false));
+        return false;
+    }
+
+    @Override
+    public void onResume() {
+        task = EXECUTOR.submit(() -> perform(true));
+    }
+
+    @Override
+    public void stop(Throwable cause) throws Exception {
+        Future<?> t = task;
+        if (t != null) {
+            t.cancel(true); // interrupts the analysis, which terminates the a³ processes
+        }
+        if (completed.compareAndSet(false, true)) {
+            getContext().onFailure(cause);
+        }
+    }
+
+    @Override
+    public String getStatus() {
+        Future<?> t = task;
+        return (t == null ? "not running" : t.isDone() ? "finished" : "a³ analysis running");
+    }
+
+    /**
+     * Converts the outcome of an analysis run into the result of the step:
+     * <pre>
+     * [failed: false,
+     *  items: [&lt;Analysis ID&gt;: [type: 'aiT', status: 'success', time: 12.5, cycles: 4711, warnings: 0, errors: 0, result: '...'],
+     *          &lt;Analysis ID&gt;: [type: 'Stack', status: 'expectation', stack: [&lt;name&gt;: 1024], ...]]]
+     * </pre>
+     * Only maps, strings and numbers are used: the result is small in the Pipeline program state and can be used by
+     * sandboxed Pipelines without script approval.
+     * @param outcome outcome of the analysis run
+     * @return Map
+     */
+    static Map<String, Object> toStepResult(A3Builder.RunOutcome outcome) {
+        LinkedHashMap<String, Object> items = new LinkedHashMap<String, Object>();
+        for (AnalysisItemResult r : outcome.getResults().values()) {
+            LinkedHashMap<String, Object> item = new LinkedHashMap<String, Object>();
+            item.put("type", r.getType());
+            item.put("status", r.getStatus());
+            item.put("time", (r.getAnalysisSeconds() >= 0 ? r.getAnalysisSeconds() : null));
+            if (r.getCycles() != null) {
+                item.put("cycles", r.getCycles());
+            }
+            if (r.getStackMaxima() != null) {
+                item.put("stack", new LinkedHashMap<String, Long>(r.getStackMaxima()));
+            }
+            item.put("warnings", r.getWarningCount());
+            item.put("errors", r.getErrorCount());
+            item.put("result", r.getResult());
+            items.put(r.getId(), item);
+        }
+        LinkedHashMap<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("failed", outcome.isFailed());
+        result.put("items", items);
+        return result;
+    }
+
+    private void perform(boolean resumed) {
+        StepContext context = getContext();
+        try {
+            Run<?, ?> run = context.get(Run.class);
+            FilePath workspace = context.get(FilePath.class);
+            EnvVars env = context.get(EnvVars.class);
+            Launcher launcher = context.get(Launcher.class);
+            TaskListener listener = context.get(TaskListener.class);
+            if (resumed) {
+                listener.getLogger().println("[A3 Builder Note:] Controller restarted, resuming the a³ analysis run.");
+            }
+
+            A3DurableRunAction.Journal journal = run.getAction(A3DurableRunAction.class).journal(id);
+            A3Builder.RunOutcome outcome = analysis.run(run, workspace, env, launcher, listener, journal);
+            if (Thread.currentThread().isInterrupted()) {
+                return; // stopped, the context has been completed by stop()
+            }
+
+            journal.clear(run);
+            if (completed.compareAndSet(false, true)) {
+                context.onSuccess(toStepResult(outcome));
+            }
+        } catch (Exception e) {
+            if (completed.compareAndSet(false, true)) {
+                context.onFailure(e);
+            }
+        }
+    }
+}
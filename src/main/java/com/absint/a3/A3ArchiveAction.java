@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.model.Run;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletResponse;
+import jenkins.model.RunAction2;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+
+/**
+ * Files of a build archived in the {@link A3ArchiveStore}, served at <tt>a3-archive/&lt;name&gt;</tt>.
+ */
+public class A3ArchiveAction implements RunAction2 {
+
+    private final LinkedHashMap<String, A3ArchiveStore.Entry> files = new LinkedHashMap<String, A3ArchiveStore.Entry>();
+    private transient Run<?, ?> run;
+
+    public String getIconFileName() {
+        return "symbol-archive";
+    }
+
+    public String getDisplayName() {
+        return "a³ Archive";
+    }
+
+    public String getUrlName() {
+        return "a3-archive";
+    }
+
+    public void onAttached(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public void onLoad(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public synchronized Map<String, A3ArchiveStore.Entry> getFiles() {
+        return Collections.unmodifiableMap(new LinkedHashMap<String, A3ArchiveStore.Entry>(files));
+    }
+
+    /**
+     * Returns an archived file
+     * @param name name of the file
+     * @return Entry of the file, null if there is no such file
+     */
+    public synchronized A3ArchiveStore.Entry getFile(String name) {
+        return files.get(name);
+    }
+
+    /**
+     * Archives a file of the build
+     * @param name name under which the file is archived
+     * @param src  file to be archived
+     * @return Entry of the archived file
+     */
+    public A3ArchiveStore.Entry archive(String name, FilePath src) throws IOException, InterruptedException {
+        A3ArchiveStore.Entry entry = A3ArchiveStore.archive(src, run.getExternalizableId());
+        synchronized (this) {
+            files.put(name, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Serves <tt>a3-archive/&lt;name&gt;</tt>
+     */
+    public void doDynamic(StaplerRequest2 req, StaplerResponse2 rsp) throws IOException {
+        run.checkPermission(Run.ARTIFACTS);
+
+        String name = req.getRestOfPath();
+        if (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+        A3ArchiveStore.Entry entry = getFile(name);
+        if (entry == null) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND, "No archived file " + name);
+            return;
+        }
+
+        if (name.endsWith(".html")) {
+            // The reports are generated content, do not let them run scripts in the Jenkins context
+            rsp.setHeader("Content-Security-Policy", "sandbox; default-src 'none'; img-src 'self' data:; style-src 'self' 'unsafe-inline';");
+            rsp.setContentType("text/html;charset=UTF-8");
+        } else if (name.endsWith(".xml")) {
+            rsp.setContentType("application/xml;charset=UTF-8");
+        } else if (name.endsWith(".txt")) {
+            rsp.setContentType("text/plain;charset=UTF-8");
+        } else {
+            rsp.setContentType("application/octet-stream");
+            rsp.setHeader("Content-Disposition", "attachment; filename=\"" + name.replace("\"", "") + "\"");
+        }
+        rsp.setContentLengthLong(entry.getSize());
+        try (InputStream in = A3ArchiveStore.open(entry.getDigest());
+                OutputStream out = rsp.getOutputStream()) {
+            in.transferTo(out);
+        }
+    }
+}
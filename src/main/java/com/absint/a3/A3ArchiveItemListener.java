@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the references of the {@link A3ArchiveStore} consistent with the jobs. The references name the
+ * builds by their externalizable ID, which contains the full name of the job: they are rewritten when a job
+ * or folder is renamed or moved, and released when it is deleted (its builds are deleted without a
+ * {@link A3ArchiveRunListener#onDeleted} notification).
+ */
+@Extension
+public class A3ArchiveItemListener extends ItemListener {
+
+    private static final Logger LOGGER = Logger.getLogger(A3ArchiveItemListener.class.getName());
+
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        try {
+            int count = A3ArchiveStore.relocate(oldFullName, newFullName);
+            LOGGER.log(Level.FINE, "Moved {0} a³ archive reference(s) from {1} to {2}", new Object[] {count, oldFullName, newFullName});
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "The a³ archive references of " + oldFullName + " could not be moved to " + newFullName, e);
+        }
+    }
+
+    @Override
+    public void onDeleted(Item item) {
+        try {
+            long reclaimed = A3ArchiveStore.releaseItem(item.getFullName());
+            LOGGER.log(Level.FINE, "Released the a³ archive of {0}, {1} bytes reclaimed", new Object[] {item.getFullName(), reclaimed});
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "The a³ archive of " + item.getFullName() + " could not be released", e);
+        }
+    }
+}
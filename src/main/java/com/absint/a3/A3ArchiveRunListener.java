@@ -0,0 +1,59 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Releases the archived files of deleted builds, e.g. builds removed by the build discarder of a job,
+ * so that the {@link A3ArchiveStore} only keeps the content still referenced by a build.
+ */
+@Extension
+public class A3ArchiveRunListener extends RunListener<Run<?, ?>> {
+
+    private static final Logger LOGGER = Logger.getLogger(A3ArchiveRunListener.class.getName());
+
+    @Override
+    public void onDeleted(Run<?, ?> run) {
+        A3ArchiveAction archive = run.getAction(A3ArchiveAction.class);
+        if (archive == null) {
+            return;
+        }
+        try {
+            long reclaimed = A3ArchiveStore.release(
+                    run.getExternalizableId(),
+                    A3ArchiveStore.digests(archive.getFiles().values()));
+            LOGGER.log(Level.FINE, "Released the a³ archive of {0}, {1} bytes reclaimed", new Object[] {run, reclaimed});
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "The a³ archive of " + run + " could not be released", e);
+        }
+    }
+}
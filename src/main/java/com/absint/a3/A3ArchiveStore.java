@@ -0,0 +1,360 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.model.Jenkins;
+
+/**
+ * Content-addressed store for the files archived by a³ builds (reports, XML results, exported workspaces).
+ * <p>
+ * Every file is stored once, gzip compressed, under the SHA-256 digest of its content in
+ * <tt>$JENKINS_HOME/absint-a3-archive</tt>. The digest is computed on the build node first, so a file
+ * that is already stored is not transferred at all. For every blob, a reference file lists the builds
+ * using it by its externalizable ID (<tt>&lt;job full name&gt;#&lt;number&gt;</tt>); the blob is deleted with
+ * the last build referencing it (see {@link A3ArchiveRunListener}). The references follow renamed, moved and
+ * deleted jobs and folders (see {@link A3ArchiveItemListener}).
+ */
+public final class A3ArchiveStore {
+
+    private static final Object LOCK = new Object();
+
+    private A3ArchiveStore() {}
+
+    /**
+     * Reference of a build to an archived file
+     */
+    public static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String digest;
+        private final long size;
+        private transient boolean fresh;
+
+        public Entry(String digest, long size) {
+            this.digest = digest;
+            this.size = size;
+        }
+
+        /**
+         * Checks if the content has been added to the store by this archiving (not persisted)
+         * @return true if the content was not stored before
+         */
+        public boolean isNew() {
+            return fresh;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        /**
+         * Returns the uncompressed size of the file
+         * @return size in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * Computes the SHA-256 digest and size of a file on the build node
+     */
+    private static class Fingerprint extends MasterToSlaveFileCallable<Entry> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Entry invoke(File f, VirtualChannel channel) throws IOException {
+            MessageDigest md = sha256();
+            try (InputStream in = new DigestInputStream(new FileInputStream(f), md)) {
+                byte[] buffer = new byte[65536];
+                while (in.read(buffer) != -1) {
+                    // digest only
+                }
+            }
+            return new Entry(toHex(md.digest()), f.length());
+        }
+    }
+
+    /**
+     * Computes the SHA-256 digest and size of a file on its node, without transferring it
+     * @param file file to be fingerprinted
+     * @return Entry with the digest and size of the file (not stored)
+     */
+    public static Entry fingerprint(FilePath file) throws IOException, InterruptedException {
+        return file.act(new Fingerprint());
+    }
+
+    public static File getRoot() {
+        return new File(Jenkins.get().getRootDir(), "absint-a3-archive");
+    }
+
+    private static File blobFile(String digest) {
+        return new File(new File(getRoot(), digest.substring(0, 2)), digest + ".gz");
+    }
+
+    private static File refsFile(String digest) {
+        return new File(new File(getRoot(), digest.substring(0, 2)), digest + ".refs");
+    }
+
+    /**
+     * Archives a file of a build. If a file with the same content is stored already, only a
+     * reference is added.
+     * @param src     file to be archived
+     * @param buildId externalizable ID of the build
+     * @return Entry referencing the stored content
+     */
+    public static Entry archive(FilePath src, String buildId) throws IOException, InterruptedException {
+        Entry entry = fingerprint(src);
+        synchronized (LOCK) {
+            if (blobFile(entry.getDigest()).exists()) {
+                addReference(entry.getDigest(), buildId);
+                return entry;
+            }
+        }
+
+        // Transfer and compress outside of the lock, the content is verified before it is published
+        File root = getRoot();
+        Files.createDirectories(root.toPath());
+        File tmp = File.createTempFile("blob", ".tmp", root);
+        try {
+            MessageDigest md = sha256();
+            try (InputStream in = new DigestInputStream(src.read(), md);
+                    OutputStream out = new GZIPOutputStream(new FileOutputStream(tmp))) {
+                in.transferTo(out);
+            }
+            String digest = toHex(md.digest());
+            if (!digest.equals(entry.getDigest())) {
+                throw new IOException(src + " has been changed while it was archived");
+            }
+            synchronized (LOCK) {
+                File blob = blobFile(digest);
+                if (!blob.exists()) {
+                    Files.createDirectories(blob.getParentFile().toPath());
+                    Files.move(tmp.toPath(), blob.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    entry.fresh = true;
+                }
+                addReference(digest, buildId);
+            }
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        return entry;
+    }
+
+    /**
+     * Opens an archived file
+     * @param digest digest of the content
+     * @return InputStream of the uncompressed content
+     */
+    public static InputStream open(String digest) throws IOException {
+        return new GZIPInputStream(new FileInputStream(blobFile(digest)));
+    }
+
+    /**
+     * Removes the references of a deleted build and deletes the blobs no other build refers to
+     * @param buildId externalizable ID of the build
+     * @param digests digests of the files archived by the build
+     * @return number of bytes reclaimed on disk
+     */
+    public static long release(String buildId, Collection<String> digests) throws IOException {
+        long reclaimed = 0;
+        synchronized (LOCK) {
+            for (String digest : new LinkedHashSet<String>(digests)) {
+                Set<String> refs = readReferences(digest);
+                refs.remove(buildId);
+                if (refs.isEmpty()) {
+                    File blob = blobFile(digest);
+                    reclaimed += blob.length();
+                    Files.deleteIfExists(blob.toPath());
+                    Files.deleteIfExists(refsFile(digest).toPath());
+                } else {
+                    Files.write(refsFile(digest).toPath(), refs, StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Rewrites the references of the builds of a renamed or moved job, or of the jobs in a renamed or moved folder
+     * @param oldFullName previous full name of the item
+     * @param newFullName new full name of the item
+     * @return number of rewritten references
+     */
+    public static int relocate(String oldFullName, String newFullName) throws IOException {
+        int count = 0;
+        synchronized (LOCK) {
+            for (File refsFile : referenceFiles()) {
+                Set<String> refs = new LinkedHashSet<String>();
+                int before = count;
+                for (String ref : readReferences(refsFile)) {
+                    if (belongsTo(ref, oldFullName)) {
+                        ref = newFullName + ref.substring(oldFullName.length());
+                        count++;
+                    }
+                    refs.add(ref);
+                }
+                if (count != before) {
+                    Files.write(refsFile.toPath(), refs, StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes the references of all builds of a deleted job, or of the jobs in a deleted folder, and deletes
+     * the blobs no other build refers to
+     * @param fullName full name of the deleted item
+     * @return number of bytes reclaimed on disk
+     */
+    public static long releaseItem(String fullName) throws IOException {
+        long reclaimed = 0;
+        synchronized (LOCK) {
+            for (File refsFile : referenceFiles()) {
+                Set<String> refs = readReferences(refsFile);
+                if (!refs.removeIf(ref -> belongsTo(ref, fullName))) {
+                    continue;
+                }
+                if (refs.isEmpty()) {
+                    String name = refsFile.getName();
+                    File blob = blobFile(name.substring(0, name.length() - ".refs".length()));
+                    reclaimed += blob.length();
+                    Files.deleteIfExists(blob.toPath());
+                    Files.deleteIfExists(refsFile.toPath());
+                } else {
+                    Files.write(refsFile.toPath(), refs, StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Checks if a reference is one of a build of the given job or of a job in the given folder
+     */
+    static boolean belongsTo(String buildId, String fullName) {
+        if (buildId.length() <= fullName.length() || !buildId.startsWith(fullName)) {
+            return false;
+        }
+        char separator = buildId.charAt(fullName.length());
+        return separator == '#' || separator == '/';
+    }
+
+    private static List<File> referenceFiles() {
+        List<File> result = new ArrayList<File>();
+        File[] dirs = getRoot().listFiles(File::isDirectory);
+        if (dirs == null) {
+            return result;
+        }
+        for (File dir : dirs) {
+            File[] refs = dir.listFiles((d, name) -> name.endsWith(".refs"));
+            if (refs != null) {
+                result.addAll(Arrays.asList(refs));
+            }
+        }
+        return result;
+    }
+
+    private static void addReference(String digest, String buildId) throws IOException {
+        Set<String> refs = readReferences(digest);
+        if (refs.add(buildId)) {
+            Files.write(
+                    refsFile(digest).toPath(),
+                    (buildId + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+
+    private static Set<String> readReferences(String digest) throws IOException {
+        return readReferences(refsFile(digest));
+    }
+
+    private static Set<String> readReferences(File refs) throws IOException {
+        Set<String> result = new LinkedHashSet<String>();
+        if (refs.exists()) {
+            for (String line : Files.readAllLines(refs.toPath(), StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) result.add(line);
+            }
+        }
+        return result;
+    }
+
+    static MessageDigest sha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the digests of all entries
+     * @param entries archived files
+     * @return list of digests
+     */
+    static Collection<String> digests(Collection<Entry> entries) {
+        Collection<String> digests = new ArrayList<String>();
+        for (Entry entry : entries) {
+            digests.add(entry.getDigest());
+        }
+        return digests;
+    }
+}
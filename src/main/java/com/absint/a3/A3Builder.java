@@ -27,11 +27,14 @@
 package com.absint.a3;
 import hudson.Proc;
 import hudson.Launcher;
+import hudson.EnvVars;
 import hudson.Launcher.ProcStarter;
 import hudson.Extension;
 import hudson.FilePath;
+import hudson.util.ArgumentListBuilder;
 import hudson.util.FormValidation;
 import hudson.model.AbstractProject;
+import hudson.model.Computer;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.tasks.Builder;
@@ -40,6 +43,7 @@ import jenkins.tasks.SimpleBuildStep;
 import net.sf.json.JSONObject;
 
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.StaplerRequest2;
 
 import com.absint.a3.A3ToolInstaller.OS;
@@ -48,22 +52,67 @@ import org.kohsuke.stapler.QueryParameter;
 import jakarta.servlet.ServletException;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * @author AbsInt Angewandte Informatik GmbH
  */
-public class A3Builder extends Builder implements SimpleBuildStep {
+public class A3Builder extends Builder implements SimpleBuildStep, Serializable {
+    /* Serializable: kept in the program state of Pipelines running the a3Analysis step */
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = Logger.getLogger(A3Builder.class.getName());
+
     private static final String PLUGIN_NAME = "AbsInt a³ Jenkins PlugIn";
     private static final String BUILD_NR    = "1.2.0";
 
     //private String project_file, analysis_ids, pedantic_level, a3toolmode, export_a3apxworkspace;
     private String project_file, analysis_ids, pedantic_level, export_a3apxworkspace, concurrency;
     private boolean copy_report_file, copy_result_file, skip_a3_analysis;
+    private String item_order;
+    private int max_ids_per_run;
+    private String license_pool;
+    private int run_timeout, item_timeout;
+    private int retry_failed_items;
+    private boolean archive_files;
+    private int keep_build_dirs, keep_build_dirs_days;
+    private boolean compress_apz;
+    private String console_output;
+
+    /* Compiled analysis ID selection, built once per configuration */
+    private transient AnalysisIDSelector idSelector;
+
+    /* CreateProcess() limits Windows command lines to 32767 characters, keep some margin */
+    private static final int MAX_WINDOWS_CMDLINE_LENGTH = 32000;
+
+    /* Delay before the first retry after a license checkout failure, doubled for each further retry up to the maximum */
+    private static final long LICENSE_RETRY_DELAY_SEC =
+            Long.getLong(A3Builder.class.getName() + ".licenseRetryDelaySec", 30);
+    private static final long MAX_LICENSE_RETRY_DELAY_SEC =
+            Long.getLong(A3Builder.class.getName() + ".maxLicenseRetryDelaySec", 600);
+
+    /* Time an aborted a3 run gets to terminate before its processes are killed forcibly */
+    private static final long KILL_GRACE_PERIOD_SEC = 10;
+
+    /* Interval in which the watchdog checks the time budgets of a running a3 */
+    private static final long WATCHDOG_INTERVAL_MS = 1000;
+
+    /* Interval of the CPU/memory sampling of the a3 processes */
+    private static final long SAMPLE_INTERVAL_MS = 5000;
+
+    /* Every n-th sample scans all processes of the node for the a3 processes, the others follow the known PIDs */
+    private static final int SAMPLE_RESCAN = 12;
+
+    /* Delay before the first retry of failed analysis items, doubled for each further retry */
+    private static final long ITEM_RETRY_DELAY_SEC = 60;
     
-    private String toolpath;
-    private String project_file_expanded;
+
+    /* Environment variable reference ${VAR_NAME} in the configuration */
+    private static final Pattern ENV_VAR = Pattern.compile("\\$\\{([A-Za-z_][A-Za-z0-9_]*)\\}");
     
     // Fields in config.jelly must match the parameter names in the "DataBoundConstructor"
     @DataBoundConstructor
@@ -80,6 +129,16 @@ public class A3Builder extends Builder implements SimpleBuildStep {
         this.skip_a3_analysis = skip_a3_analysis;
     }
 
+    /**
+     * Sets the order in which the analysis items are passed to a³.
+     *
+     * @param item_order "config" (as given in the configuration) or "history" (based on previous builds)
+     */
+    @DataBoundSetter
+    public void setItem_order(String item_order) {
+        this.item_order = item_order;
+    }
+
     /*
      * Interface to <tt>config.jelly</tt>.
      */
@@ -140,6 +199,205 @@ public class A3Builder extends Builder implements SimpleBuildStep {
     }
 
 
+    /**
+     * Sets the maximal number of analysis items passed to a single a³ invocation.
+     *
+     * @param max_ids_per_run maximal number of items per invocation, 0 for no limit
+     */
+    @DataBoundSetter
+    public void setMax_ids_per_run(int max_ids_per_run) {
+        this.max_ids_per_run = Math.max(0, max_ids_per_run);
+    }
+
+    /**
+     * Returns the maximal number of analysis items passed to a single a³ invocation.
+     *
+     * @return int (0 means no limit)
+     */
+    public int getMax_ids_per_run() {
+        return max_ids_per_run;
+    }
+
+    /**
+     * Sets the license seat pool the analysis run belongs to.
+     *
+     * @param license_pool pool name as configured globally, empty to use the a³ target of the project
+     */
+    @DataBoundSetter
+    public void setLicense_pool(String license_pool) {
+        this.license_pool = (license_pool == null ? null : license_pool.trim());
+    }
+
+    /**
+     * Returns the license seat pool the analysis run belongs to.
+     *
+     * @return java.lang.String (empty if the a³ target of the project is used)
+     */
+    public String getLicense_pool() {
+        return (license_pool == null ? "" : license_pool);
+    }
+
+    /**
+     * Sets the time budget of the whole analysis run.
+     *
+     * @param run_timeout budget in minutes, 0 for no limit
+     */
+    @DataBoundSetter
+    public void setRun_timeout(int run_timeout) {
+        this.run_timeout = Math.max(0, run_timeout);
+    }
+
+    /**
+     * Returns the time budget of the whole analysis run.
+     *
+     * @return int (minutes, 0 means no limit)
+     */
+    public int getRun_timeout() {
+        return run_timeout;
+    }
+
+    /**
+     * Sets the time budget of a single analysis item.
+     *
+     * @param item_timeout budget in minutes, 0 for no limit
+     */
+    @DataBoundSetter
+    public void setItem_timeout(int item_timeout) {
+        this.item_timeout = Math.max(0, item_timeout);
+    }
+
+    /**
+     * Returns the time budget of a single analysis item.
+     *
+     * @return int (minutes, 0 means no limit)
+     */
+    public int getItem_timeout() {
+        return item_timeout;
+    }
+
+    /**
+     * Sets the number of retries for analysis items failed because of infrastructure errors.
+     *
+     * @param retry_failed_items number of retries, 0 to disable retries
+     */
+    @DataBoundSetter
+    public void setRetry_failed_items(int retry_failed_items) {
+        this.retry_failed_items = Math.max(0, retry_failed_items);
+    }
+
+    /**
+     * Returns the number of retries for analysis items failed because of infrastructure errors.
+     *
+     * @return int (0 means no retries)
+     */
+    public int getRetry_failed_items() {
+        return retry_failed_items;
+    }
+
+    /**
+     * Sets if the report, XML result, HTML report and exported workspace files are archived on the controller.
+     *
+     * @param archive_files true to archive the files
+     */
+    @DataBoundSetter
+    public void setArchive_files(boolean archive_files) {
+        this.archive_files = archive_files;
+    }
+
+    /**
+     * Checks if the report, XML result, HTML report and exported workspace files are archived on the controller.
+     *
+     * @return boolean
+     */
+    public boolean isArchive_files() {
+        return archive_files;
+    }
+
+    /**
+     * Sets the number of <tt>absint-a3-b&lt;N&gt;</tt> directories kept in the workspace.
+     *
+     * @param keep_build_dirs number of directories of the newest builds, 0 for no limit
+     */
+    @DataBoundSetter
+    public void setKeep_build_dirs(int keep_build_dirs) {
+        this.keep_build_dirs = Math.max(0, keep_build_dirs);
+    }
+
+    /**
+     * Returns the number of <tt>absint-a3-b&lt;N&gt;</tt> directories kept in the workspace.
+     *
+     * @return int (0 means no limit)
+     */
+    public int getKeep_build_dirs() {
+        return keep_build_dirs;
+    }
+
+    /**
+     * Sets the age up to which <tt>absint-a3-b&lt;N&gt;</tt> directories are kept in the workspace.
+     *
+     * @param keep_build_dirs_days age in days, 0 for no limit
+     */
+    @DataBoundSetter
+    public void setKeep_build_dirs_days(int keep_build_dirs_days) {
+        this.keep_build_dirs_days = Math.max(0, keep_build_dirs_days);
+    }
+
+    /**
+     * Returns the age up to which <tt>absint-a3-b&lt;N&gt;</tt> directories are kept in the workspace.
+     *
+     * @return int (days, 0 means no limit)
+     */
+    public int getKeep_build_dirs_days() {
+        return keep_build_dirs_days;
+    }
+
+    /**
+     * Sets if the exported a³ workspace is compressed after the verdict of the build.
+     *
+     * @param compress_apz true to compress the exported workspace
+     */
+    @DataBoundSetter
+    public void setCompress_apz(boolean compress_apz) {
+        this.compress_apz = compress_apz;
+    }
+
+    /**
+     * Checks if the exported a³ workspace is compressed after the verdict of the build.
+     *
+     * @return boolean
+     */
+    public boolean isCompress_apz() {
+        return compress_apz;
+    }
+
+    /**
+     * Sets which a³ output is written to the console.
+     *
+     * @param console_output "full" (all output) or "filtered" (important lines, complete output in a compressed log)
+     */
+    @DataBoundSetter
+    public void setConsole_output(String console_output) {
+        this.console_output = console_output;
+    }
+
+    /**
+     * Returns which a³ output is written to the console.
+     *
+     * @return java.lang.String
+     */
+    public String getConsole_output() {
+        return (console_output == null ? "full" : console_output);
+    }
+
+    /**
+     * Returns the order in which the analysis items are passed to a³.
+     *
+     * @return java.lang.String
+     */
+    public String getItem_order() {
+        return (item_order == null ? "config" : item_order);
+    }
+
     /**
      * Checks if "Copy Report File to Jenkins Workspace" option is set
      *
@@ -186,38 +444,415 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 
 
     /**
-     *
-     * @param reportFile Report File Name
-     * @param resultFile XML Result File Name
-     * @param apxWorkspacePath a3 Workspace Path Name
-     * @return String CommandLine String
+     * Returns the compiled analysis ID selection.
+     * @return AnalysisIDSelector
+     * @throws IllegalArgumentException if the specification is invalid (the form validation only warns,
+     *         configurations from Pipeline, Job DSL or config.xml are not validated at all)
      */
-    public String builda3CmdLine(String reportFile, String resultFile, String apxWorkspacePath) {
-    	//File alauncherObj = new File(a3installer.getPathToAlauncher());
-    	String batch_param = "-b";
-    	String pedanticLevel = (!this.pedantic_level.equals("apx") ? "--pedantic-level " + this.pedantic_level : "");
-    	String apxWorkspacePath_param = (!apxWorkspacePath.equals("") ? "--export-workspace " + apxWorkspacePath : "");
-    	String concurrency_param = (!this.concurrency.equals("default") ? "-j " + this.concurrency: "");
-    	StringBuffer cmd_buf = new StringBuffer(this.toolpath + " " + this.project_file_expanded + " " + batch_param + " " + reportFile + " " + resultFile + " " + pedanticLevel + " " + apxWorkspacePath_param + " " + concurrency_param + " ");
-    	
-    	// The Formvalidator guarantees a correct naming of the IDs
-    	String[] analyses = analysis_ids.split(",");
-    	for (String id: analyses) {
-    		if(!id.trim().equals("")) cmd_buf.append("-i " + id + " ");
+    private synchronized AnalysisIDSelector getAnalysisIDSelector() {
+    	if (idSelector == null) {
+    		idSelector = new AnalysisIDSelector(analysis_ids);
+    	}
+    	return idSelector;
+    }
+
+    /**
+     * Resolves the configured analysis ID selectors against the analysis items of the APX project
+     * @param selector compiled analysis ID selection
+     * @param apx      APX project
+     * @param listener TaskListener for Output in Jenkins Console
+     * @return List of the selected Analysis IDs, empty if all items shall be analysed
+     */
+    private List<String> resolveAnalysisIDs(AnalysisIDSelector selector, APXFileHandler apx, TaskListener listener) {
+    	if (selector.isLiteral()) {
+    		return selector.getLiterals();
+    	}
+    	List<String> unmatched = new ArrayList<String>();
+    	List<String> ids = selector.resolve(apx.getAnalysisAttributes(), unmatched);
+    	for (String s: unmatched) {
+    		listener.getLogger().println("[A3 Builder Warning:] Analysis ID selector '" + s + "' does not match any analysis item in the a³ project.");
+    	}
+    	listener.getLogger().println("[A3 Builder Note:] Analysis ID selection '" + analysis_ids + "' expands to " + ids.size() + " analysis items: " + String.join(", ", ids));
+    	return ids;
+    }
+
+    /**
+     * Splits the analysis items into chunks that are analysed by separate a3 invocations.
+     * A chunk contains at most max_ids_per_run items. On Windows nodes a chunk is split further
+     * until its command line fits into the Windows command line length limit.
+     * @param ids              Analysis IDs in the order they shall be analysed
+     * @param command          Command line template of the a3 runs
+     * @param reportFile       Report File, null if given by the project file
+     * @param resultFile       XML Result File, null if given by the project file
+     * @param apxWorkspacePath a3 Workspace Path Name, null if no workspace is exported
+     * @param nodeOS           UNIX or WINDOWS or MACOS
+     * @return List of chunks, contains exactly one (possibly empty) chunk if no split is needed
+     */
+    private List<List<String>> splitAnalysisIDs(List<String> ids, A3CommandTemplate command, String reportFile, String resultFile, String apxWorkspacePath, A3ToolInstaller.OS nodeOS) {
+    	List<List<String>> chunks = new ArrayList<List<String>>();
+    	int chunkSize = (max_ids_per_run > 0 ? max_ids_per_run : Math.max(1, ids.size()));
+    	for (int i = 0; i < ids.size(); i += chunkSize) {
+    		chunks.add(ids.subList(i, Math.min(i + chunkSize, ids.size())));
+    	}
+    	if (chunks.isEmpty()) {
+    		chunks.add(ids);
+    		return chunks;
+    	}
+
+    	if (nodeOS == OS.WINDOWS) {
+    		List<List<String>> fitting = new ArrayList<List<String>>();
+    		Deque<List<String>> pending = new ArrayDeque<List<String>>(chunks);
+    		while (!pending.isEmpty()) {
+    			List<String> chunk = pending.pollFirst();
+    			if (chunk.size() > 1 && command.windowsLength(reportFile, resultFile, apxWorkspacePath, chunk) > MAX_WINDOWS_CMDLINE_LENGTH) {
+    				int half = chunk.size() / 2;
+    				pending.addFirst(chunk.subList(half, chunk.size()));
+    				pending.addFirst(chunk.subList(0, half));
+    			} else {
+    				fitting.add(chunk);
+    			}
+    		}
+    		chunks = fitting;
+    	}
+    	return chunks;
+    }
+
+    /**
+     * Concatenates the report files of several a3 invocations
+     * @param parts    Report files of the single invocations
+     * @param merged   Report file to be written
+     * @param listener TaskListener for Output in Jenkins Console
+     */
+    private void mergeReportFiles(List<FilePath> parts, FilePath merged, TaskListener listener) {
+    	try (OutputStream out = merged.write()) {
+    		for (FilePath part: parts) {
+    			if (part.exists()) {
+    				part.copyTo(out);
+    			}
+    		}
+    	} catch (IOException | InterruptedException e) {
+    		listener.getLogger().println("[A3 Builder Warning:] Report file " + merged + " could not be written!");
+    	}
+    }
+
+    /**
+     * Launches a3 with the given command line and waits for it to finish
+     * A license seat of the given pool is occupied during the run. If a3 fails because
+     * of a license checkout failure, the run is repeated with increasing delay.
+     * @param cmd         a3 command line arguments
+     * @param env         Environment for the a3 process
+     * @param build       current build
+     * @param workspace   Working directory
+     * @param licensePool License seat pool of the run
+     * @param ids         Analysis IDs of the run (empty for all items of the project)
+     * @param watchdog    Watchdog enforcing the time budgets, null if there are none
+     * @param infraItems  Set collecting the items affected by infrastructure errors, null if not needed
+     * @param fullLog     Log receiving the complete output while the console shows the important lines only, null for full console output
+     * @param usage       Resource usage of the build, sampled while a3 runs
+     * @param journal     Journal of the Pipeline step running a3 detached from the controller, null to launch a3 through the launcher
+     * @param launcher    Launcher of the build node
+     * @param listener    TaskListener for Output in Jenkins Console
+     * @return a3 exit code
+     */
+    private int launchA3(ArgumentListBuilder cmd, Map<String,String> env, Run<?,?> build, FilePath workspace, String licensePool, List<String> ids, A3Watchdog watchdog, Set<String> infraItems, OutputStream fullLog, A3ResourceUsageAction usage, A3DurableRunAction.Journal journal, Launcher launcher, TaskListener listener) throws IOException, InterruptedException {
+    	Computer computer = workspace.toComputer();
+    	int retries = getDescriptor().getLicenseRetryCount();
+
+    	for (int attempt = 0; ; attempt++) {
+    		// Mark all processes of this run, so that the whole process tree can be found on abort
+    		String cookie = UUID.randomUUID().toString();
+    		Map<String,String> procEnv = new HashMap<String,String>(env);
+    		procEnv.put(A3ProcessTreeKiller.COOKIE_VAR, cookie);
+
+    		A3OutputMonitor monitor = new A3OutputMonitor(listener.getLogger(), ids);
+    		monitor.setFullLog(fullLog);
+    		ProcStarter procstarter = launcher.new ProcStarter();
+    			procstarter.cmds(cmd);
+    			procstarter.envs(procEnv);
+    			procstarter.stdout(monitor);
+    			procstarter.pwd(workspace);
+
+    		int exitCode;
+    		boolean aborted = false;
+    		A3NodeResourceGovernor.Reservation reservation = null;
+    		try {
+    			// Reserve the node resources for the a3 run, if configured
+    			if (getDescriptor().isLimit_node_resources()) {
+    				int workers = (this.concurrency.equals("default") ? 1 : Integer.parseInt(this.concurrency));
+    				long memoryMB = A3ResourceUsageAction.estimateMemoryMB(build, ids);
+    				if (memoryMB > 0) {
+    					listener.getLogger().println("[A3 Builder Note:] Reserving " + memoryMB + " MB node memory (measured peak of the analysis items in previous builds).");
+    				} else {
+    					memoryMB = workers * getDescriptor().getA3memoryPerWorkerMB();
+    				}
+    				reservation = A3NodeResourceGovernor.acquire(computer, build.getFullDisplayName(),
+    															 workers, memoryMB, listener);
+    			}
+    			// The license seat is taken only when the node resources are available, so it is not held while waiting for them
+    			A3LicenseSeats.acquire(licensePool, A3LicenseSeats.reservationKeys(build), listener);
+    			try {
+    				Proc proc;
+    				if (journal != null) {
+    					// Launched by the Pipeline step: run a3 detached from the controller, so that the step can reattach after a restart
+    					A3DetachedProc detached = A3DetachedProc.launch(build, journal, cmd.toList(), procEnv, workspace, cookie, monitor, launcher, listener);
+    					cookie = detached.getCookie(); // differs after reattaching
+    					proc = detached;
+    				} else {
+    					proc = launcher.launch(procstarter);
+    				}
+    				usage.beginInvocation();
+    				try {
+    					if (watchdog != null) {
+    						watchdog.invocationStarted(); // waits for license seats and node resources do not count
+    					}
+    					if (proc instanceof A3DetachedProc) {
+    						// The poll task of the invocation samples it and checks the time budgets, this thread only waits for its end
+    						Proc running = proc;
+    						String runCookie = cookie;
+    						((A3DetachedProc) proc).supervise((p, sample) -> {
+    							if (sample != null) {
+    								usage.record(sample);
+    							}
+    							String exceeded = (watchdog != null && !watchdog.isInvocationKilled() ? watchdog.check(monitor, ids) : null);
+    							if (exceeded != null) {
+    								// Not on the timer thread, the termination waits for the grace period
+    								watchdog.setInvocationKilled(true);
+    								Computer.threadPoolForRemoting.submit(() -> terminateA3(running, runCookie, "a³ run stopped: " + exceeded, launcher, listener));
+    							}
+    						}, SAMPLE_INTERVAL_MS, SAMPLE_RESCAN);
+    					} else {
+    						long nextSample = 0;
+    						int samples = 0;
+    						List<Long> knownPids = Collections.emptyList();
+    						while (proc.isAlive()) {
+    							Thread.sleep(WATCHDOG_INTERVAL_MS);
+    							if (System.currentTimeMillis() >= nextSample) {
+    								// Follow the processes found before, scan all processes of the node only now and then
+    								if (samples++ % SAMPLE_RESCAN == 0) {
+    									knownPids = Collections.emptyList();
+    								}
+    								knownPids = sampleA3(usage, cookie, knownPids, launcher);
+    								nextSample = System.currentTimeMillis() + SAMPLE_INTERVAL_MS;
+    							}
+    							String exceeded = (watchdog != null ? watchdog.check(monitor, ids) : null);
+    							if (exceeded != null) {
+    								terminateA3(proc, cookie, "a³ run stopped: " + exceeded, launcher, listener);
+    								watchdog.setInvocationKilled(true);
+    								break;
+    							}
+    						}
+    					}
+    					exitCode = proc.join();          // wait for a3 to finish
+    				} catch (InterruptedException e) {
+    					// Build aborted: do not leave the a3 processes running on the node
+    					aborted = true;
+    					terminateA3(proc, cookie, "Build aborted", launcher, listener);
+    					throw e;
+    				} finally {
+    					if (watchdog != null) {
+    						watchdog.invocationEnded();
+    					}
+    				}
+    				monitor.close();
+    				if (fullLog != null && monitor.getSuppressedLines() > 0) {
+    					listener.getLogger().println("[A3 Builder Note:] " + monitor.getSuppressedLines() + " further line(s) of a³ output written to the complete output log only.");
+    				}
+    				if (infraItems != null) {
+    					infraItems.addAll(monitor.getInfrastructureErrorItems());
+    				}
+    			} finally {
+    				usage.endInvocation(ids);
+    				A3LicenseSeats.release(licensePool);
+    				if (aborted) {
+    					listener.getLogger().println("[A3 Builder Note:] License seat of pool '" + licensePool + "' released ("
+    												 + A3LicenseSeats.getInUse(licensePool) + " seat(s) of the pool still in use).");
+    				}
+    			}
+    		} finally {
+    			A3NodeResourceGovernor.release(reservation);
+    		}
+
+    		if (exitCode == 0 || !monitor.isLicenseFailure() || attempt >= retries || (watchdog != null && watchdog.isInvocationKilled())) {
+    			return exitCode;
+    		}
+    		long delay = Math.min(LICENSE_RETRY_DELAY_SEC << Math.min(attempt, 20), MAX_LICENSE_RETRY_DELAY_SEC);
+    		listener.getLogger().println("[A3 Builder Warning:] a³ license checkout failed. Retrying in " + delay + " sec (retry " + (attempt+1) + " of " + retries + ") ...");
+    		Thread.sleep(delay * 1000);
+    	}
+    }
+
+    /**
+     * Analyses the items that failed because of infrastructure errors (license checkout failures,
+     * memory shortage, lost connections) or did not produce any result again, up to
+     * <tt>retry_failed_items</tt> times with increasing delay.
+     * Failed expectations and items stopped by the watchdog are not retried.
+     * The results of the retries replace the original results in the XML result file.
+     * @param ids         Analysis IDs of the run
+     * @param infraItems  Items affected by infrastructure errors so far
+     * @param watchdog    Watchdog of the run, null if there is none
+     * @param fullLog     Log receiving the complete output, null for full console output
+     * @param usage       Resource usage of the build, sampled while a3 runs
+     * @param journal     Journal of the Pipeline step running a3 detached, null for none
+     * @param exitCode    a3 exit code of the run
+     * @param env         Environment for the a3 process
+     * @param build       current build
+     * @param workspace   Working directory
+     * @param licensePool License seat pool of the run
+     * @param a3dir       Jenkins a3workspace directory
+     * @param reportfile  Report file of the run
+     * @param resultfile  XML result file of the run
+     * @param command     Command line template of the a3 runs
+     * @param launcher    Launcher of the build node
+     * @param listener    TaskListener for Output in Jenkins Console
+     * @return a3 exit code of the run after the retries
+     */
+    private int retryFailedItems(List<String> ids, Set<String> infraItems, A3Watchdog watchdog, OutputStream fullLog, A3ResourceUsageAction usage, A3DurableRunAction.Journal journal, int exitCode, Map<String,String> env,
+    							 Run<?,?> build, FilePath workspace, String licensePool, FilePath a3dir, FilePath reportfile,
+    							 FilePath resultfile, A3CommandTemplate command, Launcher launcher, TaskListener listener) throws IOException, InterruptedException {
+    	int retryExitCode = -1;
+    	for (int attempt = 1; ; attempt++) {
+    		LinkedHashMap<String, String> status = new XMLResultFileHandler(resultfile, build.getNumber(), listener).getItemStatus();
+    		List<String> retry = new ArrayList<String>();
+    		for (String id: ids) {
+    			if (watchdog != null && watchdog.getTimedOut().contains(id)) {
+    				continue; // stopped on purpose
+    			}
+    			String itemStatus = status.get(id);
+    			if (itemStatus == null || (itemStatus.equals("analysis") && infraItems.contains(id))) {
+    				retry.add(id);
+    			}
+    		}
+    		if (retry.isEmpty()) {
+    			if (retryExitCode == 0 && !status.containsValue("analysis") && !status.containsValue("expectation")) {
+    				exitCode = 0; // all failures have been resolved by the retries
+    			}
+    			return exitCode;
+    		}
+    		if (attempt > getRetry_failed_items() || (watchdog != null && watchdog.isRunTimeout())) {
+    			listener.getLogger().println("[A3 Builder Warning:] " + retry.size() + " analysis item(s) still failed after " + (attempt-1) + " retries.");
+    			return exitCode;
+    		}
+
+    		long delay = ITEM_RETRY_DELAY_SEC << (attempt - 1);
+    		listener.getLogger().println("[A3 Builder Note:] " + retry.size() + " analysis item(s) failed because of infrastructure errors: " + String.join(", ", retry));
+    		listener.getLogger().println("[A3 Builder Note:] Retrying them in " + delay + " sec (retry " + attempt + " of " + getRetry_failed_items() + ") ...");
+    		Thread.sleep(delay * 1000);
+
+    		FilePath retryReport = new FilePath(a3dir, "a3-report-b" + build.getNumber() + "-retry" + attempt + ".txt");
+    		FilePath retryResult = new FilePath(a3dir, "a3-xml-result-b" + build.getNumber() + "-retry" + attempt + ".xml");
+    		ArgumentListBuilder cmd = command.build(retryReport.getRemote(), retryResult.getRemote(), null, retry);
+    		infraItems.removeAll(retry);
+    		retryExitCode = launchA3(cmd, env, build, workspace, licensePool, retry, watchdog, infraItems, fullLog, usage, journal, launcher, listener);
+
+    		if (retryResult.exists() && XMLResultFileHandler.replaceResults(resultfile, retryResult, listener)) {
+    			// Append the report of the retry to the report of the run
+    			FilePath original = a3dir.createTempFile("report", null);
+    			reportfile.copyTo(original);
+    			mergeReportFiles(Arrays.asList(original, retryReport), reportfile, listener);
+    			original.delete();
+    		}
+    		discard(retryReport, journal);
+    		discard(retryResult, journal);
+    	}
+    }
+
+    /**
+     * Samples CPU time and memory of the processes of a running a3 invocation on the build node.
+     * Sampling failures are ignored, they must not affect the analysis.
+     * @param usage    Resource usage of the build
+     * @param cookie    value of the cookie environment variable of the run
+     * @param knownPids PIDs of the previous sample, empty to find the processes by the cookie
+     * @param launcher  Launcher of the build node
+     * @return PIDs of the sampled processes
+     */
+    private List<Long> sampleA3(A3ResourceUsageAction usage, String cookie, List<Long> knownPids, Launcher launcher) throws InterruptedException {
+    	try {
+    		A3ProcessSampler.Sample sample = launcher.getChannel().call(new A3ProcessSampler(cookie, knownPids));
+    		usage.record(sample);
+    		return sample.getPids();
+    	} catch (IOException e) {
+    		return Collections.emptyList(); // the processes may just have terminated
+    	}
+    }
+
+    /**
+     * Deletes an intermediate report or XML result file of the a3 invocations. For the Pipeline step it is deleted
+     * only when the step has finished, as a step resumed after a controller restart reattaches to the invocations
+     * and merges their files again (see {@link A3DurableRunAction.Journal#discard(FilePath)}).
+     * @param file    the file
+     * @param journal Journal of the Pipeline step running a3 detached, null for none
+     */
+    private static void discard(FilePath file, A3DurableRunAction.Journal journal) throws IOException, InterruptedException {
+    	if (journal != null) {
+    		journal.discard(file);
+    	} else {
+    		file.delete();
+    	}
+    }
+
+    /**
+     * Terminates the process tree of an aborted a3 run. The processes get a grace period
+     * to terminate (and to return their license seats) before they are killed forcibly.
+     * @param proc     the aborted a3 process
+     * @param cookie   value of the cookie environment variable of the run
+     * @param reason   reason for the termination
+     * @param launcher Launcher of the build node
+     * @param listener TaskListener for Output in Jenkins Console
+     */
+    private void terminateA3(Proc proc, String cookie, String reason, Launcher launcher, TaskListener listener) {
+    	long start = System.nanoTime();
+    	listener.getLogger().println("[A3 Builder Note:] " + reason + ". Terminating the a³ processes (grace period " + KILL_GRACE_PERIOD_SEC + " sec) ...");
+    	try {
+    		int[] killed = launcher.getChannel().call(new A3ProcessTreeKiller(cookie, KILL_GRACE_PERIOD_SEC));
+    		// Kill whatever is left of the process started by Jenkins itself
+    		proc.kill();
+    		launcher.kill(Collections.singletonMap(A3ProcessTreeKiller.COOKIE_VAR, cookie));
+    		listener.getLogger().println("[A3 Builder Note:] " + killed[0] + " a³ process(es) terminated, " + killed[1] + " of them forcibly"
+    									 + (killed[2] > 0 ? ", " + killed[2] + " still alive" : "") + ". Cleanup took "
+    									 + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+    	} catch (IOException | InterruptedException e) {
+    		listener.getLogger().println("[A3 Builder Warning:] a³ processes could not be terminated: " + e);
+    	}
+    }
+
+    /**
+     * Orders the analysis items according to the item history of previous builds:
+     * Recently failed items first, then the remaining items longest first.
+     * @param build    current build
+     * @param ids      Analysis IDs in the configured order
+     * @param listener TaskListener for Output in Jenkins Console
+     * @return List of the reordered Analysis IDs
+     */
+    private List<String> orderAnalysisItems(Run<?,?> build, List<String> ids, TaskListener listener) {
+    	AnalysisItemScheduler scheduler = new AnalysisItemScheduler(build);
+    	if (!scheduler.hasHistory()) {
+    		listener.getLogger().println("[A3 Builder Note:] No analysis item history available. Keeping the configured item order.");
+    		return ids;
+    	}
+    	List<String> ordered = scheduler.order(ids);
+    	int workers = (this.concurrency.equals("default") ? 1 : Integer.parseInt(this.concurrency));
+
+    	listener.getLogger().println("[A3 Builder Note:] Analysis item order based on the last " + AnalysisItemScheduler.HISTORY_DEPTH + " builds:");
+    	for (String id: ordered) {
+    		listener.getLogger().format("                   %-35s  %9.1f sec%s%n", id, scheduler.getExpectedSeconds(id), (scheduler.failedRecently(id) ? "  (failed recently)" : ""));
     	}
-    	return cmd_buf.toString();
+    	listener.getLogger().format("                   Expected makespan: %.1f sec (%.1f sec in configured order), assuming %d parallel worker(s)%n",
+    								scheduler.estimateMakespan(ordered, workers), scheduler.estimateMakespan(ids, workers), workers);
+    	return ordered;
     }
 
 
 
 	/**
      * Builds the command line for invocation of a3 interactively and limited to just the problematic Items
+     * @param toolpath - quoted a3 tool path
+     * @param projectFile - quoted a3 project file
      * @param failedItems - Vector<String> of failed items from XML Result File
      * @return String CommandLine String
      */
-    private String builda3CmdLineInteractive(Vector<String> failedItems) {
+    private String builda3CmdLineInteractive(String toolpath, String projectFile, Vector<String> failedItems) {
     	//File alauncherObj = new File(a3installer.getPathToAlauncher());
-    	StringBuffer cmd_buf = new StringBuffer(this.toolpath + " " + this.project_file_expanded);
+    	StringBuffer cmd_buf = new StringBuffer(toolpath + " " + projectFile);
     	if (failedItems.size() > 0) {
     		String batch_param = "-B";
         	String pedanticHigh = "--pedantic-level warning";
@@ -232,11 +867,25 @@ public class A3Builder extends Builder implements SimpleBuildStep {
     
 	/**
      * Builds the command line for invocation of a3 interactively opening an a3 workspace
+     * If the workspace may be compressed after the build, the command line decompresses it first unless it has been kept uncompressed.
+     * @param toolpath - quoted a3 tool path
      * @param apzWorkspacePath_str - Workspace Path String 
+     * @param apzWorkspaceFile - Workspace File
+     * @param nodeOS - OS of the build node
      * @return String CommandLine String
      */
-    private String builda3CmdLineWorkspace(String apzWorkspacePath_str) {
-    	String cmd = this.toolpath + " " + apzWorkspacePath_str;
+    private String builda3CmdLineWorkspace(String toolpath, String apzWorkspacePath_str, FilePath apzWorkspaceFile, A3ToolInstaller.OS nodeOS) {
+    	String cmd = toolpath + " " + apzWorkspacePath_str;
+    	if (isCompress_apz() && apzWorkspaceFile != null) {
+    		String apz = apzWorkspaceFile.getRemote();
+    		String gz = apz + A3WorkspaceCompressor.SUFFIX;
+    		if (nodeOS == A3ToolInstaller.OS.WINDOWS) {
+    			cmd = "powershell -NoProfile -Command \"if (!(Test-Path '" + apz + "')) { $i=[IO.File]::OpenRead('" + gz + "'); $o=[IO.File]::Create('" + apz + "'); "
+    				+ "$z=New-Object IO.Compression.GZipStream($i,[IO.Compression.CompressionMode]::Decompress); $z.CopyTo($o); $o.Close(); $z.Close() }\" && " + cmd;
+    		} else {
+    			cmd = "{ [ -f '" + apz + "' ] || gunzip -k '" + gz + "'; } && " + cmd;
+    		}
+    	}
 		return cmd;
 	}
     
@@ -253,24 +902,21 @@ public class A3Builder extends Builder implements SimpleBuildStep {
      *                    and their current values
      * @return the input String with environment variables expanded to their current value
      */
-     private static final String expandEnvironmentVarsHelper(
+     static final String expandEnvironmentVarsHelper(
                                     String cmdln, Map<String,String> envMap, A3ToolInstaller.OS nodeOS ) {
     	if (cmdln == null) return ""; // null safe
-        final String pattern = "\\$\\{([A-Za-z_][A-Za-z0-9_]*)\\}";
-        final Pattern expr = Pattern.compile(pattern);
-        Matcher matcher = expr.matcher(cmdln);
-        String  envValue;
-        Pattern subexpr;
-        while (matcher.find()) {
-           envValue = envMap.get(matcher.group(1).toUpperCase());
-           if (envValue == null) {
-              envValue = "";
-           } else {
-             envValue = envValue.replace("\\", "\\\\");
-           }
-           subexpr = Pattern.compile(Pattern.quote(matcher.group(0)));
-           cmdln = subexpr.matcher(cmdln).replaceAll(envValue);
-        } 
+        Matcher matcher = ENV_VAR.matcher(cmdln);
+        if (matcher.find()) {
+            // Expand all variables in one pass, the values are inserted literally
+            StringBuilder expanded = new StringBuilder(cmdln.length() + 64);
+            int last = 0;
+            do {
+                String envValue = envMap.get(matcher.group(1).toUpperCase());
+                expanded.append(cmdln, last, matcher.start()).append(envValue == null ? "" : envValue);
+                last = matcher.end();
+            } while (matcher.find());
+            cmdln = expanded.append(cmdln, last, cmdln.length()).toString();
+        }
         
         if(nodeOS == A3ToolInstaller.OS.UNIX || nodeOS == A3ToolInstaller.OS.MACOS) {
             return cmdln.replace('\\','/');
@@ -303,14 +949,35 @@ public class A3Builder extends Builder implements SimpleBuildStep {
      
     
     @Override
-    public void perform(Run<?,?> build, FilePath workspace, Launcher launcher, TaskListener listener) {
+    public void perform(Run<?,?> build, FilePath workspace, EnvVars env, Launcher launcher, TaskListener listener) {
+    	run(build, workspace, env, launcher, listener, null);
+    }
+
+    /**
+     * Performs the analysis run of the build step
+     * @param build     current build
+     * @param workspace Jenkins workspace
+     * @param buildEnv  Environment of the build step (in Pipelines including the one of <tt>withEnv</tt> blocks)
+     * @param launcher  Launcher of the build node
+     * @param listener  TaskListener for Output in Jenkins Console
+     * @param journal   Journal of the Pipeline step running a3 detached from the controller, null to launch a3 through the launcher
+     * @return the outcome of the run, which is not kept by the (shared) build step
+     */
+    RunOutcome run(Run<?,?> build, FilePath workspace, EnvVars buildEnv, Launcher launcher, TaskListener listener, A3DurableRunAction.Journal journal) {
+    	RunOutcome outcome = new RunOutcome();
     	// Analysis run started. ID plugin in Jenkins output.
         listener.getLogger().println("\nThis is " + PLUGIN_NAME + " in version " + BUILD_NR);
+        OutputStream fullLog = null;
+        FilePath fullLogFile = null;
+        String fullLogNode = "";
+        A3PhaseTimer timer = new A3PhaseTimer();
+        A3ResourceUsageAction usage = new A3ResourceUsageAction();
         // Perform some preliminary checks
         if(this.skip_a3_analysis) {
         	listener.getLogger().println("[A3 Builder Note:] a³ analysis run has been (temporarily) deactivated. Skipping analysis run.\n");
-        	return; // nothing to do, exit method.
+        	return outcome; // nothing to do, exit method.
         }
+        outcome.failed = true; // until the analysis run has succeeded
          
         try {
         	
@@ -319,18 +986,23 @@ public class A3Builder extends Builder implements SimpleBuildStep {
         	 *  ********************************
         	 */
             
-            // The actual environment is in local variable "env"
-            Map<String,String> env = build.getEnvironment(listener);
+            // The actual environment is in local variable "env", a copy as it is extended below
+            Map<String,String> env = new EnvVars(buildEnv);
 
-            /* The plugin currently can distinguish node architectures Unix or not Unix. 
-               This is insufficient for macOS nodes. 
-               => Important Convention: macOS Nodes must have a NODE_LABEL defined containing the string "macos" !
+            /* The node OS is taken from the capabilities probed when the node came online (A3NodeProbe).
+               Without them, the plugin can only distinguish Unix or not Unix, which is insufficient for macOS nodes.
+               => Convention for this fall back: macOS Nodes must have a NODE_LABEL defined containing the string "macos" !
             */
 
+            Computer computer = workspace.toComputer();
+            A3NodeCapabilities capabilities = A3NodeCapabilities.of(computer);
+
             A3ToolInstaller.OS nodeOS = null;
-            if (!launcher.isUnix())
+            if (capabilities != null)
+                   nodeOS = capabilities.getOS();
+            else if (!launcher.isUnix())
                    nodeOS = OS.WINDOWS;
-            else if (env.get("NODE_LABELS").toLowerCase().contains("macos"))
+            else if (env.getOrDefault("NODE_LABELS", "").toLowerCase().contains("macos"))
                    nodeOS = OS.MACOS;
             else 
                    nodeOS = OS.UNIX;
@@ -357,11 +1029,22 @@ public class A3Builder extends Builder implements SimpleBuildStep {
              }	 
        	
         	
+        	// Check the analysis ID selection before anything is prepared
+        	AnalysisIDSelector selector;
+        	try {
+        		selector = getAnalysisIDSelector();
+        	} catch (IllegalArgumentException e) {
+        		listener.getLogger().println("[A3 Builder Error:] Invalid analysis ID selection '" + analysis_ids + "': " + e.getMessage()
+        									 + "\nCheck your project configuration 'Configure -> a³ Analysis Run -> Basic Settings -> Analysis IDs'.\nAborting Build.\n");
+        		build.setResult(hudson.model.Result.FAILURE);
+        		return outcome;
+        	}
+
         	/*  **********************************
         	 *   APX Project File Handling
         	 *  **********************************
         	 */
-        	project_file_expanded = expandEnvironmentVarsHelper(project_file, env, nodeOS);   				// String expanded_project_file !
+        	String project_file_expanded = expandEnvironmentVarsHelper(project_file, env, nodeOS);   				// String expanded_project_file !
         	FilePath fpproject_file = new FilePath(workspace.getChannel(), project_file_expanded);
         	project_file_expanded = quoteIt(fpproject_file.toString(), nodeOS);
             
@@ -369,11 +1052,13 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 	        listener.getLogger().println("[A3 Builder Note:] a³ Project File     : " + fpproject_file);
 	        APXFileHandler apx;
 			try {
+				A3PhaseTimer.Running parse = timer.start("APX parse");
 				apx = new APXFileHandler(fpproject_file, listener);
+				parse.stop(fpproject_file.length());
 			} catch (IOException e) {
 	        	listener.getLogger().println("[A3 Builder Error:] IOException while accessing a³ .apx Project File. Check your project configuration 'Configure -> a³ Analysis Run -> Basic Settings -> Project File (APX).\nAborting Build.\n");
 	        	build.setResult(hudson.model.Result.FAILURE);
-	         	return;
+	         	return outcome;
 			}
 	        
 			// Extract Target Architecture from APX file
@@ -403,14 +1088,16 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 			
 			//finally set the right toolpath
 			FilePath fptoolpath = a3installer.getToolFilePath();
+			timer.addAll(a3installer.getPhaseTimer());
 			
 //			if (!fptoolpath.exists()) {
 //				listener.getLogger().println("[A3 Builder Error:] " + fptoolpath + " does not exist!\n         Check a³ Configuration in Jenkins Configuration.");
 //	         	build.setResult(hudson.model.Result.FAILURE);
-//	         	return;
+//	         	return outcome;
 //			}
 			
-			this.toolpath = quoteIt(fptoolpath.toString(), nodeOS); // surround the tool path by "..." for the case there are empty spaces in the path
+			String toolpath = quoteIt(fptoolpath.toString(), nodeOS); // surround the tool path by "..." for the case there are empty spaces in the path
+			A3CommandTemplate a3command = new A3CommandTemplate(fptoolpath.getRemote(), fpproject_file.getRemote(), this.pedantic_level, this.concurrency);
 					
 	        // Generate an absint_a3 subdirectory in the Jenkins workspace
 	        FilePath absint_a3_dir = new FilePath(workspace, "absint-a3-b" + build.getNumber());
@@ -433,19 +1120,21 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 	            FilePath a3versionFileInfo = new FilePath(absint_a3_dir, "a3-"+target+"-version-b"+build.getNumber()+".info");
 	            listener.getLogger().println("[A3 Builder Note:] Perform a³ Compatibility Check ... ");
 	          
-	            String checkcmd = toolpath + " -b " + target + " --version-file \"" + a3versionFileInfo + "\"";
+	            ArgumentListBuilder checkcmd = new ArgumentListBuilder(fptoolpath.getRemote(), "-b", target, "--version-file", a3versionFileInfo.getRemote());
 
 	            // Prepare start of the analysis process for version checking
 	            ProcStarter procstarter = launcher.new ProcStarter();
-		            procstarter.cmdAsSingleString(checkcmd);
+		            procstarter.cmds(checkcmd);
 		            procstarter.envs(env);
 		            procstarter.stdout(listener.getLogger());
 		            procstarter.pwd(workspace);
 		            
+		        A3PhaseTimer.Running versionCheck = timer.start("Version check");
 		        Proc check = launcher.launch(procstarter);
 		        check.join();          // wait for alauncher to finish
 		        
 		        extractedBuild = extractBuildNrFromVersionFile(a3versionFileInfo); 
+		        versionCheck.stop();
 	        } else {
 	        	// the easy way, take it from the installer package file name :)
 	        	listener.getLogger().println("[A3 Builder Note:] Extract a³ version info from installer package name");
@@ -459,7 +1148,7 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 	        								 + "Please contact support@absint.com to request an updated a³ for " + target + " version.");
 	        	listener.getLogger().println("\na³ Compatibility check failed.");
 	         	build.setResult(hudson.model.Result.FAILURE);
-	         	return;        	 
+	         	return outcome;
 	        } else {
 	        	listener.getLogger().println("[A3 Builder Note:] Compatibility Check OK, using an a³ for " + target + " Build: " + extractedBuild);
 	        }
@@ -472,24 +1161,18 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 	        
 			// Get the report/XML result file locations
 			FilePath reportfile, resultfile;
-			String reportfileParam, resultfileParam, reportfile_str, resultfile_str ;
+			String reportfileParam = null, resultfileParam = null; // null: as given in the apx
 			reportfile  = apx.getReportFile();
 			resultfile  = apx.getResultFile();
 	
 			//Generate temporary report/result file only if no report/result file entry in apx found
 			if (reportfile == null) {
 				reportfile = new FilePath(absint_a3_dir, "a3-report-b" + build.getNumber()+".txt");
-				reportfile_str = quoteIt(reportfile.toString(), nodeOS); 
-				reportfileParam = "--report-file " + reportfile_str;
-			} else {
-				reportfileParam = "";
+				reportfileParam = reportfile.getRemote();
 			}
 			if (resultfile == null) {
 				resultfile = new FilePath(absint_a3_dir, "a3-xml-result-b" + build.getNumber()+".xml");
-				resultfile_str = quoteIt(resultfile.toString(), nodeOS); 
-				resultfileParam = "--xml-result-file " + resultfile_str;
-			} else {
-				resultfileParam = "";
+				resultfileParam = resultfile.getRemote();
 			}
 			
 			listener.getLogger().println("                   Textual Report File : " + reportfile);
@@ -498,12 +1181,15 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 			
 			/* Determine the directory where to store a3 apx workspace, if any shall be exported */
 			String apzWorkspacePath_str = (apx.getAPXFile().getBaseName()) + "-workspace-jb" + build.getNumber() + ".apz";
+			FilePath apzWorkspaceFile = null;
 			switch(this.export_a3apxworkspace) {
 				case ("apx_dir"): 
-					apzWorkspacePath_str = quoteIt(new FilePath(apx.getAPXFile().getParent(), apzWorkspacePath_str).toString(), nodeOS);
+					apzWorkspaceFile = new FilePath(apx.getAPXFile().getParent(), apzWorkspacePath_str);
+					apzWorkspacePath_str = quoteIt(apzWorkspaceFile.toString(), nodeOS);
 					break;
 				case ("jenkins_workspace"):
-					apzWorkspacePath_str = quoteIt(new FilePath(absint_a3_dir, apzWorkspacePath_str).toString(), nodeOS);
+					apzWorkspaceFile = new FilePath(absint_a3_dir, apzWorkspacePath_str);
+					apzWorkspacePath_str = quoteIt(apzWorkspaceFile.toString(), nodeOS);
 					break;
 				default: // disabled case
 					apzWorkspacePath_str = ""; 
@@ -522,53 +1208,169 @@ public class A3Builder extends Builder implements SimpleBuildStep {
         	 *  ***************************************************
         	 */
 			
+
+			/* Determine the analysis items and their order */
+			List<String> analysisIDs = resolveAnalysisIDs(selector, apx, listener);
+			if (analysisIDs.isEmpty() && !selector.isLiteral()) {
+				// An empty list would make a3 analyse all items of the project
+				listener.getLogger().println("[A3 Builder Error:] The analysis ID selection does not select any analysis item.\nAborting Build.\n");
+				build.setResult(hudson.model.Result.FAILURE);
+				return outcome;
+			}
+			if (getItem_order().equals("history")) {
+				if (analysisIDs.isEmpty()) {
+					// Pass all items of the project explicitly, otherwise a3 would use the order of the apx
+					analysisIDs = apx.getAnalysisIDs();
+				}
+				analysisIDs = orderAnalysisItems(build, analysisIDs, listener);
+			}
+
 			int exitCode = -1;
-			String cmd = builda3CmdLine(reportfileParam, resultfileParam, apzWorkspacePath_str);
-            //listener.getLogger().println("[A3 Builder Note:] DEBUG cmd line: " + cmd);
-            
-            // Prepare start of the analysis process
-            ProcStarter procstarter = launcher.new ProcStarter();
-	            procstarter.cmdAsSingleString(cmd);
-	            procstarter.envs(env);
-	            procstarter.stdout(listener.getLogger());
-	            procstarter.pwd(workspace);
-			
+			String cmd;
+			String licensePool = (getLicense_pool().equals("") ? target : getLicense_pool());
+			if (A3LicenseSeats.getSeats(licensePool) >= 0) {
+				// Lets the queue hold back the next builds of the job (e.g. Pipelines) while the pool is exhausted
+				A3LicensePoolAction.record(build, licensePool);
+			}
+
+			A3Watchdog watchdog = null;
+			if (getRun_timeout() > 0 || getItem_timeout() > 0) {
+				watchdog = new A3Watchdog(getRun_timeout(), getItem_timeout());
+				if (analysisIDs.isEmpty()) {
+					// Following the items and rerunning the remaining ones requires the explicit item list
+					analysisIDs = apx.getAnalysisIDs();
+				}
+			}
+			Set<String> infraItems = null;
+			if (getRetry_failed_items() > 0) {
+				infraItems = new HashSet<String>();
+				if (analysisIDs.isEmpty()) {
+					// Infrastructure errors are attributed to the items mentioned in the output
+					analysisIDs = apx.getAnalysisIDs();
+				}
+			}
+			String apzWorkspaceParam = (apzWorkspaceFile != null ? apzWorkspaceFile.getRemote() : null);
+			List<List<String>> chunks = splitAnalysisIDs(analysisIDs, a3command, reportfileParam, resultfileParam, apzWorkspaceParam, nodeOS);
+
+			// In filtered mode, the complete a3 output goes to a log compressed on the build node
+			if (getConsole_output().equals("filtered")) {
+				fullLogFile = new FilePath(absint_a3_dir, "a3-output-b" + build.getNumber() + ".log.gz");
+				fullLogNode = (computer != null ? computer.getName() : "");
+				fullLog = new BufferedOutputStream(fullLogFile.act(new A3OutputLog.Open()), 65536);
+			}
+
 	        FilePath timebase = absint_a3_dir.createTempFile("time", null);
+	        A3PhaseTimer.Running analysis = timer.start("Analysis");
+	        A3Metrics.ANALYSES.inc(target);
 
-	        Proc proc = launcher.launch(procstarter);
-			exitCode = proc.join();          // wait for a3 to finish
+			if (chunks.size() == 1 && watchdog == null) {
+				ArgumentListBuilder args = a3command.build(reportfileParam, resultfileParam, apzWorkspaceParam, analysisIDs);
+	            //listener.getLogger().println("[A3 Builder Note:] DEBUG cmd line: " + args);
+				exitCode = launchA3(args, env, build, workspace, licensePool, analysisIDs, null, infraItems, fullLog, usage, journal, launcher, listener);
+			} else {
+				/* Analyse the items in several subsequent a3 invocations, each one writing its own report/result file.
+				 * The a3 workspace is exported by the last invocation only.
+				 * If the watchdog stops an invocation because of an item timeout, the results the invocation wrote
+				 * are kept and the remaining items without a result are analysed again. */
+				if (chunks.size() > 1) {
+					listener.getLogger().println("[A3 Builder Note:] Splitting " + analysisIDs.size() + " analysis items into " + chunks.size() + " a³ invocations.");
+				}
+				List<FilePath> partReports = new ArrayList<FilePath>();
+				List<FilePath> partResults = new ArrayList<FilePath>();
+				Deque<List<String>> pending = new ArrayDeque<List<String>>(chunks);
+				exitCode = 0;
+				for (int part = 1; !pending.isEmpty(); part++) {
+					List<String> chunk = pending.pollFirst();
+					FilePath partReport = new FilePath(absint_a3_dir, "a3-report-b" + build.getNumber() + "-part" + part + ".txt");
+					FilePath partResult = new FilePath(absint_a3_dir, "a3-xml-result-b" + build.getNumber() + "-part" + part + ".xml");
+
+					listener.getLogger().println("[A3 Builder Note:] a³ invocation " + part + " (" + chunk.size() + " analysis items, " + pending.size() + " further invocation(s) pending)");
+					ArgumentListBuilder args = a3command.build(partReport.getRemote(), partResult.getRemote(),
+															   (pending.isEmpty() ? apzWorkspaceParam : null), chunk);
+					int partExitCode = launchA3(args, env, build, workspace, licensePool, chunk, watchdog, infraItems, fullLog, usage, journal, launcher, listener);
+					if (exitCode == 0) {
+						exitCode = partExitCode; // keep the first failure code
+					}
+
+					if (watchdog != null && watchdog.isInvocationKilled()) {
+						// The results of a stopped invocation are incomplete: keep the ones of the finished items
+						Set<String> done = new HashSet<String>();
+						if (partResult.exists()) {
+							done.addAll(new XMLResultFileHandler(partResult, build.getNumber(), listener).getItemStatus().keySet());
+						}
+						done.removeAll(watchdog.getTimedOut());
+						done.retainAll(chunk);
+						if (done.isEmpty()) {
+							discard(partReport, journal);
+							discard(partResult, journal);
+						} else {
+							listener.getLogger().println("[A3 Builder Note:] Keeping the results of " + done.size() + " analysis item(s) finished before the a³ invocation was stopped.");
+							partReports.add(partReport);
+							partResults.add(partResult);
+						}
+						if (watchdog.isRunTimeout()) {
+							for (List<String> rest: pending) watchdog.markTimedOut(rest);
+							pending.clear();
+						} else {
+							List<String> remaining = new ArrayList<String>(chunk);
+							remaining.removeAll(watchdog.getTimedOut());
+							remaining.removeAll(done);
+							if (!remaining.isEmpty()) {
+								listener.getLogger().println("[A3 Builder Note:] Analysing the remaining " + remaining.size() + " analysis items again.");
+								pending.addFirst(remaining);
+							}
+						}
+						continue;
+					}
+					partReports.add(partReport);
+					partResults.add(partResult);
+				}
+
+				// Merge the partial results into the report/result file of the whole run and remove the parts
+				mergeReportFiles(partReports, reportfile, listener);
+				XMLResultFileHandler.mergeResultFiles(partResults, resultfile, listener);
+				for (FilePath part: partReports) discard(part, journal);
+				for (FilePath part: partResults) discard(part, journal);
+			}
+
+			// After reattaching to a3 invocations (Pipeline step resumed), the results may be older than the timebase
+			if (journal != null && journal.getFirstStartMillis() > 0 && journal.getFirstStartMillis() < timebase.lastModified()) {
+				timebase.touch(journal.getFirstStartMillis());
+			}
+
+			analysis.stop((resultfile.exists() ? resultfile.length() : 0) + (reportfile.exists() ? reportfile.length() : 0));
+
+			/* Retry the items failed because of infrastructure errors (license, memory, ...) and
+			 * merge their new results into the result file of the run */
+			if (infraItems != null && resultfile.exists() && resultfile.lastModified() >= timebase.lastModified()) {
+				A3PhaseTimer.Running retries = timer.start("Item retries");
+				exitCode = retryFailedItems(analysisIDs, infraItems, watchdog, fullLog, usage, journal, exitCode, env, build, workspace, licensePool,
+											absint_a3_dir, reportfile, resultfile, a3command, launcher, listener);
+				retries.stop();
+			}
+
+			if (fullLog != null) {
+				OutputStream log = fullLog;
+				fullLog = null;
+				if (closeOutputLog(build, log, fullLogFile, fullLogNode, listener)) {
+					listener.getLogger().print("[A3 Builder Note:] ");
+					listener.hyperlink("a3-output", "Complete a³ output");
+					listener.getLogger().println(" (" + fullLogFile + ")");
+				}
+			}
 
 			/*  ************************************************************************************
         	 *  Postprocessing:
-        	 *  -Copy Report, Result and all available local HTML Report Files to Jenkins a3workspace
         	 *  -Prettyprint analysis results (from XML Result file)
         	 *  -Evaluate Tool Exit Code
+        	 *  -Copy Report, Result and all available local HTML Report Files to Jenkins a3workspace
+        	 *   (concurrently, after the verdict has been decided; the build step waits for them)
         	 *  
         	 *  ************************************************************************************
         	 */
 
-            if (this.copy_report_file){
-            	listener.getLogger().println("[A3 Builder Note:] Copy a³ report file to Jenkins a3workspace ...");
-            	copyReportFileToWorkspace(reportfile, absint_a3_dir, build.getNumber(), listener);
-            }
-            
-            if (this.copy_result_file){
-                listener.getLogger().println("[A3 Builder Note:] Copy a³ XML result file to Jenkins a3workspace ...");
-                copyXMLResultFileToWorkspace(resultfile, absint_a3_dir, build.getNumber(), listener);
-            }
-             
-            // Copy all the HTML Report Files
-            if (!id2htmlreportMap.isEmpty()) {
-                listener.getLogger().println("[A3 Builder Note:] Copy a³ HTML report file(s) to Jenkins a3workspace ...");
-               	
-                for (Map.Entry<String, FilePath> entry : id2htmlreportMap.entrySet()) {
-                	String id = entry.getKey();
-              		FilePath html_report_file = entry.getValue();
-               		copyHTMLReportFileToWorkspace(html_report_file, absint_a3_dir, id, build.getNumber(), listener);
-               	}
-            }
-            
             /* Pretty Print XML Result File */
+            A3PhaseTimer.Running evaluation = timer.start("XML evaluation");
             XMLResultFileHandler xml = new XMLResultFileHandler(resultfile, build.getNumber(), listener);
          
             boolean xmlfailed = false;
@@ -583,10 +1385,23 @@ public class A3Builder extends Builder implements SimpleBuildStep {
             	// If not updated, the analysis did not run and the success code MUST NOT be 0 (=success)!
             	if (exitCode == 0) {
             		listener.getLogger().println("                    Check the project maually:\n");
-              		cmd = builda3CmdLineInteractive(failedItems);
+              		cmd = builda3CmdLineInteractive(toolpath, project_file_expanded, failedItems);
                		listener.getLogger().println(cmd + "\n");
             	}
             }            
+
+            // Items stopped by the watchdog count as failed items
+            if (watchdog != null && !watchdog.getTimedOut().isEmpty()) {
+            	xmlfailed = xml.printTimedOutItems(watchdog.getTimedOut(), failedItems) || xmlfailed;
+            }
+            evaluation.stop(resultfile.exists() ? resultfile.length() : 0);
+
+            // Keep the item results as history for subsequent builds
+            if (!xml.getItemResults().isEmpty()) {
+            	build.addAction(new A3ResultsAction(xml.getItemResults()));
+            }
+            recordItemMetrics(build, xml.getItemResults().values(), getDescriptor().getMetricsItemSet());
+            outcome.results = xml.getItemResults();
             
             // delete the timebase temp file again
             timebase.delete();
@@ -594,9 +1409,11 @@ public class A3Builder extends Builder implements SimpleBuildStep {
         	// Check Exit Code and determine if Build was failed or successful
             if(exitCode == 0 && !xmlfailed) {
             	listener.getLogger().println("\nAnalysis run succeeded.");
+            	outcome.failed = false;
            	} else {
                 listener.getLogger().println("\nAnalysis run failed.");
             	build.setResult(hudson.model.Result.FAILURE);
+            	boolean useWorkspace = !this.export_a3apxworkspace.equals("disabled");
 
            		if (xmlfailed) {
         			listener.getLogger().println("The following analysis items failed:");
@@ -610,20 +1427,23 @@ public class A3Builder extends Builder implements SimpleBuildStep {
            			listener.getLogger().println("\n[A3 Builder Warning:] The a³ returned a failure code but there was no failed analysis found.\n"+
            										 "                      Probably something in your .apx project configuration is wrong. To check, use a³ interactively:");
            			// Then don't use the exported workspace to investigate.
-           			this.export_a3apxworkspace="disabled";
+           			useWorkspace = false;
            		}
           		
-           		if (!this.export_a3apxworkspace.equals("disabled")) {
+           		if (useWorkspace) {
            			// Then we have a workspace file
-           			cmd = builda3CmdLineWorkspace(apzWorkspacePath_str);           			
+           			cmd = builda3CmdLineWorkspace(toolpath, apzWorkspacePath_str, apzWorkspaceFile, nodeOS);           			
            		} else {
-           			cmd = builda3CmdLineInteractive(failedItems);
+           			cmd = builda3CmdLineInteractive(toolpath, project_file_expanded, failedItems);
            		}
            		listener.getLogger().println(cmd + "\n");
             }
 
-            // Remove a3 workspace sub directory again if it is empty
-            if (absint_a3_dir.list().isEmpty() && !absint_a3_dir.equals(workspace)) {
+            // Copy the files to the Jenkins a3workspace, later build steps use the copies. The other tasks run detached.
+            A3PostProcessingAction postProcessing = new A3PostProcessingAction();
+            boolean postProcessed = postProcess(build, postProcessing, reportfile, resultfile, id2htmlreportMap, apzWorkspaceFile, absint_a3_dir, workspace, timer, listener);
+            if (!postProcessed && absint_a3_dir.list().isEmpty() && !absint_a3_dir.equals(workspace)) {
+            	// Remove a3 workspace sub directory again if it is empty
             	absint_a3_dir.delete();
             }
 
@@ -637,9 +1457,53 @@ public class A3Builder extends Builder implements SimpleBuildStep {
             listener.getLogger().println("InterruptedException caught during analysis run.");
             printStackTracetoLogger(listener, e.getStackTrace());
         	build.setResult(hudson.model.Result.FAILURE);
+        	// Keep the interrupt visible to the caller, e.g. the Pipeline step stopped in the meantime
+        	Thread.currentThread().interrupt();
+         } finally {
+        	 // Keep the phase timings, also of failed or aborted builds
+        	 if (!timer.getPhases().isEmpty()) {
+        		 build.addAction(new A3TimingAction(timer));
+        	 }
+        	 if (!usage.getPoints().isEmpty()) {
+        		 build.addAction(usage);
+        	 }
+        	 if (fullLog != null) {
+        		 // a3 run aborted, keep what has been logged so far and make it available in the viewer
+        		 closeOutputLog(build, fullLog, fullLogFile, fullLogNode, listener);
+        	 }
          }
+         return outcome;
+    }
 
-
+    /**
+     * Closes the complete output log of the build and adds its viewer to the build.
+     * Also used for aborted builds, so the interrupt status is kept aside while the index is read from the node.
+     * @param build    current build
+     * @param log      stream of the log (see {@link A3OutputLog.Open})
+     * @param file     log file on the build node
+     * @param node     name of the build node
+     * @param listener TaskListener for Output in Jenkins Console
+     * @return true if the viewer has been added
+     */
+    private static boolean closeOutputLog(Run<?,?> build, OutputStream log, FilePath file, String node, TaskListener listener) {
+    	boolean interrupted = Thread.interrupted();
+    	try {
+    		log.close();
+    		A3OutputLog.Index index = file.act(new A3OutputLog.ReadIndex());
+    		if (index == null) {
+    			listener.getLogger().println("[A3 Builder Warning:] The complete a³ output log " + file + " has not been closed on the build node.");
+    			return false;
+    		}
+    		build.addAction(new A3OutputLogAction(node, file.getRemote(), index));
+    		return true;
+    	} catch (IOException | InterruptedException e) {
+    		listener.getLogger().println("[A3 Builder Warning:] The complete a³ output log could not be closed: " + e.getMessage());
+    		return false;
+    	} finally {
+    		if (interrupted) {
+    			Thread.currentThread().interrupt();
+    		}
+    	}
     }
 
 	/* Small Helper: Checks if line contains Build number */
@@ -687,6 +1551,50 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 		}
 	}
 
+    /**
+     * Outcome of an analysis run, returned by {@link #run(Run, FilePath, Launcher, TaskListener)}.
+     * It is kept per run: the build step instance is shared by all (possibly concurrent) builds of the job.
+     */
+    static final class RunOutcome {
+    	private Map<String, AnalysisItemResult> results = Collections.emptyMap();
+    	private boolean failed = false;
+
+    	/**
+    	 * Returns the evaluated analysis items of the run
+    	 * @return Map of (AnalysisID, AnalysisItemResult) pairs, empty if the run did not get to the evaluation
+    	 */
+    	Map<String, AnalysisItemResult> getResults() {
+    		return results;
+    	}
+
+    	/**
+    	 * Checks if the run failed
+    	 * @return true if the run failed (the build has been marked as failed)
+    	 */
+    	boolean isFailed() {
+    		return failed;
+    	}
+    }
+
+    /**
+     * Records the evaluated analysis items in the plugin metrics (see {@link A3Metrics})
+     * @param build      the current build
+     * @param results    evaluated analysis items
+     * @param valueItems Analysis IDs whose numeric results are exported (global configuration)
+     */
+    static void recordItemMetrics(Run<?,?> build, Collection<AnalysisItemResult> results, Set<String> valueItems) {
+    	for (AnalysisItemResult item : results) {
+    		A3Metrics.ITEMS.inc(item.getType(), item.isFailed() ? "failed" : "success");
+    		if (item.getAnalysisSeconds() >= 0) {
+    			A3Metrics.ITEM_DURATION.observe(item.getAnalysisSeconds(), item.getType());
+    		}
+    		double value = item.getNumericResult();
+    		if (valueItems.contains(item.getId()) && !Double.isNaN(value)) {
+    			A3Metrics.ITEM_VALUE.set(value, build.getParent().getFullName(), item.getId(), item.getType());
+    		}
+    	}
+    }
+
 	// Overridden for better type safety.
     // If your plugin doesn't really define any property on Descriptor,
     // you don't have to do this.
@@ -701,7 +1609,142 @@ public class A3Builder extends Builder implements SimpleBuildStep {
     }
         
     /* Small Helper Copy Functions */
-    private void copyElementFileToWorkspace(FilePath src, FilePath workspace, Element elem, String id, int build, TaskListener listener) {
+    /**
+     * Copies the report and XML result file to the Jenkins a3workspace and submits the recording of the HTML report files,
+     * the archiving and the cleanup of old a3workspace directories, which run detached from the build step
+     * @param build         current build
+     * @param action        post-processing action, added to the build if there is any task
+     * @param reportfile    Report file of the run
+     * @param resultfile    XML result file of the run
+     * @param htmlreports   Map of (AnalysisID, HTML Report File)
+     * @param apzfile       exported a3 workspace file, null if none is exported
+     * @param a3dir         Jenkins a3workspace directory
+     * @param workspace     Jenkins workspace
+     * @param timer         phase timer of the build step
+     * @param listener      TaskListener for Output in Jenkins Console
+     * @return true if there is any post-processing task
+     * @throws InterruptedException if the build has been aborted while copying
+     */
+    private boolean postProcess(Run<?,?> build, A3PostProcessingAction action, FilePath reportfile, FilePath resultfile, Map<String, FilePath> htmlreports,
+    							FilePath apzfile, FilePath a3dir, FilePath workspace, A3PhaseTimer timer, TaskListener listener) throws InterruptedException {
+    	boolean cleanup = (getKeep_build_dirs() > 0 || getKeep_build_dirs_days() > 0);
+    	boolean compress = (isCompress_apz() && apzfile != null);
+    	if (!this.copy_report_file && !this.copy_result_file && !isArchive_files() && !cleanup && !compress && htmlreports.isEmpty()) {
+    		return false;
+    	}
+    	build.addAction(action);
+    	int number = build.getNumber();
+
+    	if (this.copy_report_file || this.copy_result_file) {
+    		A3PhaseTimer.Running post = timer.start("Post-processing");
+    		try {
+    			if (this.copy_report_file) {
+    				A3PostProcessor.perform(build, action, "Copy a³ report file", l -> {
+    					copyReportFileToWorkspace(reportfile, a3dir, number, l);
+    					return true;
+    				}, listener);
+    			}
+    			if (this.copy_result_file) {
+    				A3PostProcessor.perform(build, action, "Copy a³ XML result file", l -> {
+    					copyXMLResultFileToWorkspace(resultfile, a3dir, number, l);
+    					return true;
+    				}, listener);
+    			}
+    		} finally {
+    			post.stop();
+    		}
+    	}
+    	A3ArchiveAction archive = null;
+    	if (isArchive_files()) {
+    		// Identical files of subsequent builds are stored only once
+    		archive = new A3ArchiveAction();
+    		build.addAction(archive);
+    	}
+    	if (!htmlreports.isEmpty()) {
+    		// The HTML reports are not copied to the a3workspace. Only their location and digest are recorded, a report is
+    		// fetched from the node and archived when it is opened, unless the a³ files are archived anyway.
+    		Map<String, FilePath> reports = new LinkedHashMap<String, FilePath>(htmlreports);
+    		A3ReportsAction reportsAction = new A3ReportsAction();
+    		build.addAction(reportsAction);
+    		Computer computer = a3dir.toComputer();
+    		String nodeName = (computer != null ? computer.getName() : "");
+    		A3ArchiveAction reportArchive = archive;
+    		A3PostProcessor.submit(build, action, "Record " + reports.size() + " a³ HTML report file(s)", l -> {
+    			for (Map.Entry<String, FilePath> entry : reports.entrySet()) {
+    				try {
+    					if (!reportsAction.record(entry.getKey(), entry.getValue(), nodeName, reportArchive)) {
+    						l.getLogger().println("[A3 Builder Warning:] HTML report file " + entry.getValue() + " of " + entry.getKey() + " could not be found.");
+    					}
+    				} catch (IOException e) {
+    					l.getLogger().println("[A3 Builder Warning:] HTML report file " + entry.getValue() + " could not be recorded or archived: " + e.getMessage());
+    				}
+    			}
+    			return true;
+    		});
+    	}
+    	if (isArchive_files()) {
+    		A3ArchiveAction buildArchive = archive;
+    		LinkedHashMap<String, FilePath> files = new LinkedHashMap<String, FilePath>();
+    		files.put("a3-report.txt", reportfile);
+    		files.put("a3-xml-result.xml", resultfile);
+    		if (apzfile != null) {
+    			files.put(apzfile.getName(), apzfile);
+    		}
+    		A3OutputLogAction outputLog = build.getAction(A3OutputLogAction.class);
+    		if (outputLog != null) {
+    			files.put(A3OutputLogAction.ARCHIVE_NAME, new FilePath(a3dir.getChannel(), outputLog.getPath()));
+    		}
+    		A3PostProcessor.submit(build, action, "Archive " + files.size() + " a³ file(s)", l -> {
+    			long size = 0, transferred = 0;
+    			int archived = 0;
+    			boolean success = true;
+    			for (Map.Entry<String, FilePath> file : files.entrySet()) {
+    				try {
+    					if (!file.getValue().exists()) {
+    						continue;
+    					}
+    					A3ArchiveStore.Entry entry = buildArchive.archive(file.getKey(), file.getValue());
+    					archived++;
+    					size += entry.getSize();
+    					if (entry.isNew()) transferred += entry.getSize();
+    				} catch (IOException e) {
+    					l.getLogger().println("[A3 Builder Warning:] " + file.getValue() + " could not be archived: " + e.getMessage());
+    					success = false;
+    				}
+    			}
+    			l.getLogger().println("[A3 Builder Note:] Archived " + archived + " file(s) (" + size + " bytes), "
+    								  + transferred + " bytes of new content.");
+    			if (compress) {
+    				// The workspace is compressed only after it has been archived
+    				compressWorkspaceFile(apzfile, l);
+    			}
+    			return success;
+    		});
+    	} else if (compress) {
+    		A3PostProcessor.submit(build, action, "Compress a³ workspace file", l -> compressWorkspaceFile(apzfile, l));
+    	}
+    	if (cleanup) {
+    		// Only directories of older builds are deleted, the build step does not wait for it
+    		A3PostProcessor.submit(build, action, "Clean up old a³ workspace directories", l -> {
+    			long[] cleaned = workspace.act(new A3WorkspaceCleaner(number, getKeep_build_dirs(), getKeep_build_dirs_days()));
+    			LOGGER.log(Level.INFO, "Cleanup after {0}: deleted {1} old a³ directories in {2}, {3} bytes reclaimed",
+    					   new Object[] {build, cleaned[0], workspace, cleaned[1]});
+    			l.getLogger().println("[A3 Builder Note:] Deleted " + cleaned[0] + " old absint-a3-b<N> director" + (cleaned[0] == 1 ? "y" : "ies")
+    								  + " in " + workspace + ", " + cleaned[1] + " bytes (" + (cleaned[1] >> 20) + " MB) reclaimed.");
+    			return true;
+    		});
+    	}
+    	if (!htmlreports.isEmpty() || isArchive_files() || compress || cleanup) {
+    		listener.getLogger().println("[A3 Builder Note:] Further a³ post-processing runs in the background, see \"" + action.getDisplayName() + "\" of the build.");
+    	}
+    	return true;
+    }
+
+    /**
+     * Determines the file in the Jenkins a3workspace a report, XML result or HTML report file is copied to
+     * @return destination file, null if no copy is needed
+     */
+    private FilePath elementCopyFile(FilePath src, FilePath workspace, Element elem, String id, int build, TaskListener listener) {
     	
     	 String suffix = "";
 
@@ -713,62 +1756,75 @@ public class A3Builder extends Builder implements SimpleBuildStep {
     	 		suffix = ".xml";
     	 		break;
     	 	case HTML:
-    	 //extract file from src path first
     	 		suffix = ".html";
     	 		break;
     	 	default: 
     	 		listener.getLogger().println("[A3 Builder ElementFile Copy Note:] " + id + " not a defined element.");
     	 }
     	    	 
-    	 String dest =  "a3-" + id + "-b" + build + "-copy" + suffix;
-    	 FilePath destfile = new FilePath(workspace, dest);
-
-//    	 FilePath parentDest = destfile.getParentFile();
+    	 FilePath destfile = new FilePath(workspace, "a3-" + id + "-b" + build + "-copy" + suffix);
     	 FilePath parentSourceFile = src.getParent();
-    	 
-//    	 if (parentDestFile == null) { // Critical issue because this means no subdirectory for absint-a3-b<NR> was created
-//    		 listener.getLogger().println("[A3 Builder ElementFile Copy Exception:] Destination file has no parent directory. (Inconsistent state) => Copy process is aborted.");
-//    		 return;
-//    	 }
 
     	 if (parentSourceFile != null && parentSourceFile.equals(workspace)) {
     		 listener.getLogger().println("[A3 Builder ElementFile Copy Note:] " + id + " source and destination directory are the same. No copy needed.");
-    		 return; // Then src and dest are the same file, don't copy
+    		 return null; // Then src and dest are the same file, don't copy
     	 }
+    	 return destfile;
+    }
 
-    	 // Now start copy process
-    	 try {
-    		 // Input File
-	    	 BufferedReader br = new BufferedReader(
-	    			 				new InputStreamReader(				
-	    			 						src.read(),
-	    			 						"UTF-8"
-	    			 						)
-	    			 				);
-	    			 				//new FileInputStream(src), "UTF-8"));
-	    	 
-	    	 // Output File
-	    	 BufferedWriter bw = new BufferedWriter(
-	    			 				new OutputStreamWriter(
-	    			 						destfile.write(),
-	    			 						"UTF-8"
-	    			 						)
-	    			 				);
-	    			 				//new FileOutputStream(destfile.getAbsoluteFile()), "UTF-8"));
-	    			 
-	    	 // Copy Content
-	    	 while(br.ready()) {
-	    		 bw.write(br.readLine() + "\n");
-	    	 }
-	    	 bw.close();
-	    	 br.close();
-    	 } catch (FileNotFoundException e) {
-    		 listener.getLogger().println("[A3 Builder FileNotFound Exception:] Source file " + src + " could not be found! Aborting copy process to Jenkins a3 workspace.");
-    	 } catch (IOException e) {
-    		 listener.getLogger().println("[A3 Builder IOException:] Destination file " + dest + " could not be written! Aborting copy process to Jenkins a3 workspace.");
-    	 } catch (InterruptedException e) {
-    		 listener.getLogger().println("[A3 Builder InterruptedException:] Destination file " + dest + " could not be written! Aborting copy process to Jenkins a3 workspace.");
-		}
+    /**
+     * Copies a file byte by byte to the Jenkins a3workspace.
+     * A file located on the node of the a3workspace is copied there without passing its content
+     * through the controller. Other files are streamed.
+     * @param src       source file
+     * @param dest      destination file
+     * @param workspace Jenkins a3workspace directory
+     * @param listener  TaskListener for Output in Jenkins Console
+     */
+    private void copyFileToWorkspace(FilePath src, FilePath dest, FilePath workspace, TaskListener listener) {
+    	try {
+    		if (Objects.equals(src.getChannel(), workspace.getChannel())) {
+    			String error = workspace.act(new A3FileCopier(src.getRemote(), dest.getRemote()));
+    			if (error != null) {
+    				listener.getLogger().println("[A3 Builder IOException:] " + error + " Aborting copy process to Jenkins a3 workspace.");
+    			}
+    		} else {
+    			src.copyTo(dest);
+    		}
+    	} catch (IOException | InterruptedException e) {
+    		listener.getLogger().println("[A3 Builder IOException:] " + src + " could not be copied to " + dest + " (" + e.getMessage() + ")! Aborting copy process to Jenkins a3 workspace.");
+    	}
+    }
+
+    /**
+     * Compresses an exported a3 workspace file on the build node. Runs as a detached post-processing task,
+     * the build step does not wait for it.
+     * @param apzfile  exported a3 workspace file
+     * @param listener TaskListener for the output of the task
+     * @return true if the file has been compressed or did not exist
+     */
+    private boolean compressWorkspaceFile(FilePath apzfile, TaskListener listener) throws InterruptedException {
+    	try {
+    		long[] sizes = apzfile.act(new A3WorkspaceCompressor());
+    		if (sizes[0] > 0 && sizes[1] >= sizes[0]) {
+    			listener.getLogger().println("[A3 Builder Note:] a³ workspace file " + apzfile.getName() + " kept uncompressed, compression would gain less than "
+    										 + Math.round(A3WorkspaceCompressor.MIN_GAIN * 100) + "%.");
+    		} else if (sizes[0] > 0) {
+    			listener.getLogger().println("[A3 Builder Note:] a³ workspace file compressed to " + apzfile.getName() + A3WorkspaceCompressor.SUFFIX
+    										 + " (" + (sizes[0] >> 20) + " MB -> " + (sizes[1] >> 20) + " MB).");
+    		}
+    		return true;
+    	} catch (IOException e) {
+    		listener.getLogger().println("[A3 Builder Warning:] a³ workspace file " + apzfile + " could not be compressed: " + e.getMessage());
+    		return false;
+    	}
+    }
+
+    private void copyElementFileToWorkspace(FilePath src, FilePath workspace, Element elem, String id, int build, TaskListener listener) {
+    	FilePath destfile = elementCopyFile(src, workspace, elem, id, build, listener);
+    	if (destfile != null) {
+    		copyFileToWorkspace(src, destfile, workspace, listener);
+    	}
     }
 
     private void copyReportFileToWorkspace(FilePath src, FilePath workspace, int build, TaskListener listener) {
@@ -779,9 +1835,6 @@ public class A3Builder extends Builder implements SimpleBuildStep {
     	copyElementFileToWorkspace(src, workspace, Element.XML_RESULT, "xml-result", build, listener);
     }
 
-    private void copyHTMLReportFileToWorkspace(FilePath src, FilePath workspace, String id, int build, TaskListener listener) {
-    	copyElementFileToWorkspace(src, workspace, Element.HTML, id, build, listener);
-    }
     
     /**
      * Descriptor for {@link A3Builder}. Used as a singleton.
@@ -807,9 +1860,16 @@ public class A3Builder extends Builder implements SimpleBuildStep {
 		private String a3packages;
         private String almserver;
         private String almport;
+        private boolean limit_node_resources;
+        private String a3memory_per_worker;
+        private String license_seats;
+        private String license_retries;
+        private String metrics_items;
 
 
         private static final String default_almport = "42424";
+        private static final String default_a3memory_per_worker = "2048";
+        private static final String default_license_retries = "3";
 
         /**
          * Constructor.
@@ -850,12 +1910,12 @@ public class A3Builder extends Builder implements SimpleBuildStep {
         		if (containsEnvVars(value)){
         			return FormValidation.error("Analysis IDs must not contain system environment variables ${...}!");
         		}
-           		// The analysis IDs must be a comma-separated (or differently) list of analysis IDs
-        		String[] itemList = value.split(",");
-        		// Check for each item that it follows the a3 analysis ID naming scheme
-        		for (String item:itemList){
-        			item = item.trim();
-        			if(!Pattern.matches("[a-zA-Z0-9_]+", item)) return FormValidation.error("Analysis ID '" + item + "' must adhere to the a³ analysis ID conventions: only letters, numbers or underscores allowed!");
+           		// The analysis IDs must be a comma-separated list of analysis IDs or selectors,
+        		// each ID must follow the a3 analysis ID naming scheme
+        		try {
+        			new AnalysisIDSelector(value);
+        		} catch (IllegalArgumentException e) {
+        			return FormValidation.error(e.getMessage());
         		}
         	}
             return FormValidation.ok();
@@ -998,8 +2058,15 @@ public class A3Builder extends Builder implements SimpleBuildStep {
             this.a3packages   = formData.getString("a3packages");
             this.almserver    = formData.getString("almserver");
             this.almport 	  = formData.getString("almport");
+            this.limit_node_resources = formData.optBoolean("limit_node_resources");
+            this.a3memory_per_worker  = formData.optString("a3memory_per_worker", default_a3memory_per_worker);
+            this.license_seats        = formData.optString("license_seats", "");
+            this.license_retries      = formData.optString("license_retries", default_license_retries);
+            this.metrics_items        = formData.optString("metrics_items", "");
             // ... data set, so call save():
             save();
+            // The node capabilities depend on the installer package directory and the alauncher
+            A3NodeProbe.probeAll();
             return super.configure(req,formData);
         }
 
@@ -1039,5 +2106,148 @@ public class A3Builder extends Builder implements SimpleBuildStep {
              if (this.almport == null || this.almport.trim().equals("")) this.almport = DescriptorImpl.default_almport;
         	 return this.almport;
          }
+
+         /**
+          * Checks if concurrent a3 runs on a node shall be limited to the node's CPU cores and memory
+          *
+          * @return boolean
+          */
+         public boolean isLimit_node_resources() {
+             return this.limit_node_resources;
+         }
+
+         /**
+          * Returns the estimated memory demand (MB) of one a3 analysis worker
+          *
+          * @return java.lang.String
+          */
+         public String getA3memory_per_worker() {
+             if (this.a3memory_per_worker == null || this.a3memory_per_worker.trim().equals("")) this.a3memory_per_worker = DescriptorImpl.default_a3memory_per_worker;
+             return this.a3memory_per_worker;
+         }
+
+         /**
+          * Returns the estimated memory demand (MB) of one a3 analysis worker
+          *
+          * @return long
+          */
+         public long getA3memoryPerWorkerMB() {
+             try {
+                 return Long.parseLong(getA3memory_per_worker().trim());
+             } catch (NumberFormatException e) {
+                 return Long.parseLong(DescriptorImpl.default_a3memory_per_worker);
+             }
+         }
+
+         /**
+          * Returns the license seat pools, one "pool=seats" entry per line
+          *
+          * @return java.lang.String
+          */
+         public String getLicense_seats() {
+             return this.license_seats;
+         }
+
+         /**
+          * Returns the number of retries after a license checkout failure
+          *
+          * @return java.lang.String
+          */
+         public String getLicense_retries() {
+             if (this.license_retries == null || this.license_retries.trim().equals("")) this.license_retries = DescriptorImpl.default_license_retries;
+             return this.license_retries;
+         }
+
+         /**
+          * Returns the number of retries after a license checkout failure
+          *
+          * @return int
+          */
+         public int getLicenseRetryCount() {
+             try {
+                 return Integer.parseInt(getLicense_retries().trim());
+             } catch (NumberFormatException e) {
+                 return Integer.parseInt(DescriptorImpl.default_license_retries);
+             }
+         }
+
+         /**
+          * Returns the analysis IDs whose numeric results are exported as metrics, separated by commas or whitespace
+          *
+          * @return java.lang.String
+          */
+         public String getMetrics_items() {
+             return this.metrics_items;
+         }
+
+         /**
+          * Returns the analysis IDs whose numeric results are exported as metrics
+          *
+          * @return java.util.Set
+          */
+         public Set<String> getMetricsItemSet() {
+             Set<String> items = new HashSet<String>();
+             if (this.metrics_items != null) {
+                 for (String id : this.metrics_items.split("[,\\s]+")) {
+                     if (!id.isEmpty()) items.add(id);
+                 }
+             }
+             return items;
+         }
+
+        /**
+         * Performs on-the-fly validation of the form field 'license_seats'.
+         *
+         * @param value           The value that the user has typed.
+         * @return
+         *      Indicates the outcome of the validation. This is sent to the browser.
+         * @throws IOException             as super class
+         * @throws ServletException        as super class
+         **/
+        public FormValidation doCheckLicense_seats(@QueryParameter String value)
+                throws IOException, ServletException {
+            try {
+                A3LicenseSeats.parsePools(value);
+            } catch (IllegalArgumentException e) {
+                return FormValidation.error(e.getMessage());
+            }
+            return FormValidation.ok();
+        }
+
+        /**
+         * Performs on-the-fly validation of the form field 'license_retries'.
+         *
+         * @param value           The value that the user has typed.
+         * @return
+         *      Indicates the outcome of the validation. This is sent to the browser.
+         * @throws IOException             as super class
+         * @throws ServletException        as super class
+         **/
+        public FormValidation doCheckLicense_retries(@QueryParameter String value)
+                throws IOException, ServletException {
+            if (value == null || value.trim().equals(""))
+                return FormValidation.ok();
+            if (!Pattern.matches("[0-9]+", value.trim()))
+                return FormValidation.error("Please specify the number of retries as a non-negative number.");
+            return FormValidation.ok();
+        }
+
+        /**
+         * Performs on-the-fly validation of the form field 'a3memory_per_worker'.
+         *
+         * @param value           The value that the user has typed.
+         * @return
+         *      Indicates the outcome of the validation. This is sent to the browser.
+         * @throws IOException             as super class
+         * @throws ServletException        as super class
+         **/
+        public FormValidation doCheckA3memory_per_worker(@QueryParameter String value)
+                throws IOException, ServletException {
+            if (value == null || value.trim().equals(""))
+                return FormValidation.ok();
+            if (!Pattern.matches("[0-9]+", value.trim()))
+                return FormValidation.error("Please specify the memory in MB as a positive number.");
+            return FormValidation.ok();
+        }
      }
 }
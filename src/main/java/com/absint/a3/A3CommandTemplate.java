@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.util.ArgumentListBuilder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line of the a³ batch runs of a build. The parts that are equal for all a³ invocations of the build
+ * (tool, project file, pedantic level, concurrency) are fixed once, every invocation only adds its
+ * report/result files and analysis IDs.
+ * <br>
+ * The command line is built as argument list for {@link hudson.Launcher.ProcStarter#cmds(ArgumentListBuilder)},
+ * i.e. paths need no quoting, neither for blanks nor for the shell.
+ */
+public class A3CommandTemplate {
+
+    private final List<String> prefix = new ArrayList<String>();
+    private final List<String> pedantic = new ArrayList<String>();
+    private final List<String> workers = new ArrayList<String>();
+    private final int fixedLength;
+
+    /**
+     * Constructor
+     * @param tool          path of alauncher or the a³ executable
+     * @param project       path of the APX project file
+     * @param pedanticLevel pedantic level, "apx" to use the level of the project file
+     * @param concurrency   number of analysis workers, "default" to use the a³ default
+     */
+    public A3CommandTemplate(String tool, String project, String pedanticLevel, String concurrency) {
+        prefix.add(tool);
+        prefix.add(project);
+        prefix.add("-b");
+        if (!pedanticLevel.equals("apx")) {
+            pedantic.add("--pedantic-level");
+            pedantic.add(pedanticLevel);
+        }
+        if (!concurrency.equals("default")) {
+            workers.add("-j");
+            workers.add(concurrency);
+        }
+        int length = 0;
+        for (String arg : prefix) length += argLength(arg);
+        for (String arg : pedantic) length += argLength(arg);
+        for (String arg : workers) length += argLength(arg);
+        this.fixedLength = length;
+    }
+
+    /**
+     * Builds the command line of an a³ invocation
+     * @param reportFile    report file, null to use the one of the project file
+     * @param resultFile    XML result file, null to use the one of the project file
+     * @param workspaceFile a³ workspace file to export, null for none
+     * @param analysisIDs   Analysis IDs in the order they shall be passed to a³, empty for all items
+     * @return the argument list
+     */
+    public ArgumentListBuilder build(String reportFile, String resultFile, String workspaceFile, List<String> analysisIDs) {
+        ArgumentListBuilder args = new ArgumentListBuilder();
+        args.addAll(prefix);
+        if (reportFile != null) args.add("--report-file").add(reportFile);
+        if (resultFile != null) args.add("--xml-result-file").add(resultFile);
+        args.addAll(pedantic);
+        if (workspaceFile != null) args.add("--export-workspace").add(workspaceFile);
+        args.addAll(workers);
+        for (String id : analysisIDs) {
+            args.add("-i").add(id);
+        }
+        return args;
+    }
+
+    /**
+     * Returns the length of the command line of an a³ invocation as passed to Windows (arguments separated by blanks,
+     * arguments with blanks quoted), without building it
+     * @param reportFile    report file, null to use the one of the project file
+     * @param resultFile    XML result file, null to use the one of the project file
+     * @param workspaceFile a³ workspace file to export, null for none
+     * @param analysisIDs   Analysis IDs of the invocation
+     * @return number of characters
+     */
+    public int windowsLength(String reportFile, String resultFile, String workspaceFile, List<String> analysisIDs) {
+        int length = fixedLength;
+        if (reportFile != null) length += argLength("--report-file") + argLength(reportFile);
+        if (resultFile != null) length += argLength("--xml-result-file") + argLength(resultFile);
+        if (workspaceFile != null) length += argLength("--export-workspace") + argLength(workspaceFile);
+        for (String id : analysisIDs) {
+            length += 3 + argLength(id); // "-i "
+        }
+        return length;
+    }
+
+    private static int argLength(String arg) {
+        return arg.length() + 1 + (arg.isEmpty() || arg.indexOf(' ') >= 0 || arg.indexOf('\t') >= 0 ? 2 : 0);
+    }
+}
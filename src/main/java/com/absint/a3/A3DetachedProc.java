@@ -0,0 +1,522 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Proc;
+import hudson.model.Computer;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.security.MasterToSlaveCallable;
+import jenkins.util.Timer;
+
+/**
+ * a³ invocation running detached on the build node, i.e. it survives the loss of the connection to the controller
+ * (e.g. a controller restart). Output and exit code are written to files on the node. Used by the <tt>a3Analysis</tt>
+ * Pipeline step, see {@link A3DurableRunAction}.
+ * <br>
+ * Like the durable tasks of Pipeline <tt>sh</tt> steps, the invocation is started through the {@link Launcher} of the
+ * step (so that launcher decorators, e.g. of containers, apply) by a wrapper which puts a³ in the background and ends.
+ * A task scheduled on the Jenkins timer polls the files and passes the new output on. It also samples the resource
+ * usage of the processes and calls the {@link Supervisor} of the invocation (e.g. for the time budgets), and it
+ * completes the invocation when it has ended. A thread waiting in {@link #join()} is not woken up before and does
+ * not cause any remote calls.
+ */
+public class A3DetachedProc extends Proc {
+
+    private static final Logger LOGGER = Logger.getLogger(A3DetachedProc.class.getName());
+
+    /* Maximal number of output bytes transferred per poll */
+    private static final int MAX_CHUNK = 1 << 20;
+
+    /* Interval in which the invocation is polled */
+    private static final long POLL_INTERVAL_MS =
+            Long.getLong(A3DetachedProc.class.getName() + ".pollIntervalMs", 1000);
+
+    /* Time the build node may be unreachable before the invocation is given up, it keeps running there meanwhile */
+    private static final long RECONNECT_TIMEOUT_MS = Long.getLong(
+            A3DetachedProc.class.getName() + ".reconnectTimeoutMs", TimeUnit.MINUTES.toMillis(10));
+
+    /* Number of polls between two checks whether the processes of the invocation are still alive */
+    private static final int ALIVE_CHECK_POLLS = 30;
+
+    /* Shell wrapper on Unix nodes, the command line follows as positional parameters */
+    private static final String UNIX_WRAPPER =
+            "\"$@\" > \"$ABSINT_A3_LOG\" 2>&1; echo $? > \"$ABSINT_A3_EXIT.tmp\"; mv \"$ABSINT_A3_EXIT.tmp\" \"$ABSINT_A3_EXIT\"";
+
+    /* Starts the wrapper (first positional parameter) in the background, detached from the launcher */
+    private static final String UNIX_DETACH = "nohup sh -c \"$0\" a3 \"$@\" > /dev/null 2>&1 < /dev/null &";
+
+    /**
+     * Supervises a running invocation, called by the poll task after the polls until the invocation has ended
+     * or has been killed
+     */
+    public interface Supervisor {
+        /**
+         * Called after a poll of the invocation
+         * @param proc   the invocation
+         * @param sample resource usage of the processes of the invocation, null if none has been taken by the poll
+         */
+        void polled(A3DetachedProc proc, A3ProcessSampler.Sample sample);
+    }
+
+    /* Name of the build node, its channel is looked up for every call as the node may reconnect */
+    private final String node;
+    private final A3DurableRunAction.Entry entry;
+    private final OutputStream out;
+    private final TaskListener listener;
+
+    /* Completed with the exit code when the invocation has ended and its output has been passed on */
+    private final CompletableFuture<Integer> completion = new CompletableFuture<Integer>();
+
+    private final ScheduledFuture<?> poller;
+    private volatile boolean killed = false;
+    private volatile Supervisor supervisor = null;
+    private long sampleIntervalMs;
+    private int sampleRescan;
+
+    /* State of the poll task, which runs one poll at a time */
+    private long offset = 0;
+    private Integer exitCode = null;
+    private int polls = 0;
+    private int samples = 0;
+    private long nextSample = 0;
+    private List<Long> knownPids = Collections.emptyList();
+    private long unreachableSince = 0;
+
+    private A3DetachedProc(String node, A3DurableRunAction.Entry entry, OutputStream out, TaskListener listener) {
+        this.node = node;
+        this.entry = entry;
+        this.out = out;
+        this.listener = listener;
+        this.poller = Timer.get().scheduleWithFixedDelay(this::poll, 0, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        completion.whenComplete((code, failure) -> poller.cancel(false));
+    }
+
+    /**
+     * Launches an a³ invocation detached on the build node, or reattaches to it if it has been launched by a previous
+     * execution of the step already
+     * @param build     current build
+     * @param journal   journal of the detached invocations of the step
+     * @param cmd       a³ command line
+     * @param env       Environment for the a³ process
+     * @param workspace Working directory
+     * @param cookie    value of the cookie environment variable for a new invocation
+     * @param out       stream receiving the output of the invocation
+     * @param launcher  Launcher of the step
+     * @param listener  TaskListener for Output in Jenkins Console
+     * @return the running invocation
+     * @throws IOException if the invocation could not be launched
+     * @throws InterruptedException if the build was aborted
+     */
+    public static A3DetachedProc launch(
+            Run<?, ?> build,
+            A3DurableRunAction.Journal journal,
+            List<String> cmd,
+            Map<String, String> env,
+            FilePath workspace,
+            String cookie,
+            OutputStream out,
+            Launcher launcher,
+            TaskListener listener)
+            throws IOException, InterruptedException {
+        String key = journal.nextKey(digest(cmd));
+        A3DurableRunAction.Entry entry = journal.get(key);
+        if (entry != null) {
+            listener.getLogger()
+                    .println("[A3 Builder Note:] Reattaching to the a³ invocation started at "
+                            + new Date(entry.getStartMillis()) + " (output follows from its start).");
+        } else {
+            FilePath dir = new FilePath(workspace, "absint-a3-b" + build.getNumber());
+            dir.mkdirs();
+            String name = "a3-run-" + key.replace('#', '-');
+            entry = new A3DurableRunAction.Entry(
+                    cookie,
+                    new FilePath(dir, name + ".log").getRemote(),
+                    new FilePath(dir, name + ".exit").getRemote(),
+                    System.currentTimeMillis());
+
+            List<String> wrapper = new ArrayList<String>();
+            if (launcher.isUnix()) {
+                wrapper.add("sh");
+                wrapper.add("-c");
+                wrapper.add(UNIX_DETACH);
+                wrapper.add(UNIX_WRAPPER);
+                wrapper.addAll(cmd);
+            } else {
+                FilePath script = new FilePath(dir, name + ".cmd");
+                StringBuilder line = new StringBuilder();
+                for (String arg : cmd) {
+                    line.append(quoteForCmd(arg)).append(' ');
+                }
+                script.write("@echo off\r\n"
+                        + line + "> " + quoteForCmd(entry.getLogPath()) + " 2>&1\r\n"
+                        + "echo %ERRORLEVEL% > " + quoteForCmd(entry.getExitPath() + ".tmp") + "\r\n"
+                        + "move /y " + quoteForCmd(entry.getExitPath() + ".tmp") + " " + quoteForCmd(entry.getExitPath()) + " > nul\r\n",
+                        "UTF-8");
+                // start /b does not wait for the script, the redirection keeps it off the pipes of the launcher
+                wrapper.add("cmd.exe");
+                wrapper.add("/c");
+                wrapper.add("start \"a3\" /b cmd.exe /c " + quoteForCmd(script.getRemote()) + " > nul 2>&1 < nul");
+            }
+            Map<String, String> wrapperEnv = new HashMap<String, String>(env);
+            wrapperEnv.put("ABSINT_A3_LOG", entry.getLogPath());
+            wrapperEnv.put("ABSINT_A3_EXIT", entry.getExitPath());
+            ByteArrayOutputStream wrapperOut = new ByteArrayOutputStream();
+            int started = launcher.launch()
+                    .cmds(wrapper)
+                    .envs(wrapperEnv)
+                    .pwd(workspace)
+                    .stdout(wrapperOut)
+                    .quiet(true)
+                    .join();
+            if (started != 0) {
+                throw new IOException("Starting the a³ invocation failed (exit code " + started + "): "
+                        + wrapperOut.toString("UTF-8").trim());
+            }
+            journal.record(build, key, entry);
+        }
+        Computer computer = workspace.toComputer();
+        if (computer == null) {
+            throw new IOException("The build node of " + workspace + " is not connected");
+        }
+        return new A3DetachedProc(computer.getName(), entry, out, listener);
+    }
+
+    /**
+     * Quotes an argument for a line of a batch file: quoted for the C runtime of the started program, all characters
+     * cmd would interpret escaped, so that quotes inside the argument do not change how cmd parses the line
+     * @param arg the argument
+     * @return the quoted argument
+     */
+    static String quoteForCmd(String arg) {
+        StringBuilder quoted = new StringBuilder("\"");
+        int backslashes = 0;
+        for (int i = 0; i < arg.length(); i++) {
+            char c = arg.charAt(i);
+            if (c == '\\') {
+                backslashes++;
+                continue;
+            }
+            // Backslashes are literal unless they precede a quote
+            int n = (c == '"' ? 2 * backslashes + 1 : backslashes);
+            for (int j = 0; j < n; j++) quoted.append('\\');
+            quoted.append(c);
+            backslashes = 0;
+        }
+        for (int j = 0; j < 2 * backslashes; j++) quoted.append('\\'); // followed by the closing quote
+        quoted.append('"');
+
+        StringBuilder escaped = new StringBuilder();
+        for (int i = 0; i < quoted.length(); i++) {
+            char c = quoted.charAt(i);
+            if (c == '%') {
+                escaped.append("%%");
+            } else {
+                if ("()!^\"<>&|".indexOf(c) >= 0) escaped.append('^');
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Returns the value of the cookie environment variable of the invocation
+     * @return java.lang.String
+     */
+    public String getCookie() {
+        return entry.getCookie();
+    }
+
+    /**
+     * Lets the poll task supervise the invocation: it samples the resource usage of the processes every
+     * <tt>sampleIntervalMs</tt> and calls the supervisor after every poll
+     * @param supervisor       the Supervisor
+     * @param sampleIntervalMs interval of the resource samples
+     * @param sampleRescan     number of samples after which all processes of the node are scanned again, in between
+     *                         the processes found before are followed (see {@link A3ProcessSampler})
+     */
+    public void supervise(Supervisor supervisor, long sampleIntervalMs, int sampleRescan) {
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.sampleRescan = sampleRescan;
+        this.supervisor = supervisor; // volatile, publishes the sampling parameters to the poll task
+    }
+
+    @Override
+    public boolean isAlive() throws IOException {
+        if (!completion.isDone()) {
+            return true;
+        }
+        try {
+            completion.join();
+        } catch (CompletionException e) {
+            throw toIOException(e.getCause());
+        }
+        return false;
+    }
+
+    @Override
+    public void kill() throws IOException, InterruptedException {
+        killed = true;
+        channel().call(new A3ProcessTreeKiller(entry.getCookie(), 0));
+    }
+
+    @Override
+    public int join() throws IOException, InterruptedException {
+        try {
+            return completion.get();
+        } catch (ExecutionException e) {
+            throw toIOException(e.getCause());
+        }
+    }
+
+    private static IOException toIOException(Throwable t) {
+        return (t instanceof IOException ? (IOException) t : new IOException(t));
+    }
+
+    @Override
+    public InputStream getStdout() {
+        return null; // the output is passed to the stream given to launch()
+    }
+
+    @Override
+    public InputStream getStderr() {
+        return null;
+    }
+
+    @Override
+    public OutputStream getStdin() {
+        return null;
+    }
+
+    /**
+     * Transfers the new output of the invocation, takes a resource sample if one is due and checks for the end of
+     * the invocation, run by the poll task. Completes the invocation when a poll after its end finds no further
+     * output, or when its processes are found to be gone without an exit code. If the node cannot be reached (e.g. the
+     * agent reconnects), the polls are repeated and the invocation fails only after {@link #RECONNECT_TIMEOUT_MS}.
+     * An aborted invocation is killed by the caller, it is completed with the next alive check.
+     */
+    private void poll() {
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            Supervisor s = (killed ? null : supervisor);
+            List<Long> samplePids = null;
+            if (s != null && System.currentTimeMillis() >= nextSample) {
+                // Follow the processes found before, scan all processes of the node only now and then
+                samplePids = (samples++ % sampleRescan == 0 ? Collections.<Long>emptyList() : knownPids);
+                nextSample = System.currentTimeMillis() + sampleIntervalMs;
+            }
+            boolean checkAlive = killed || (++polls % ALIVE_CHECK_POLLS == 0);
+            Status status;
+            try {
+                status = channel().call(new Poll(entry, offset, checkAlive, samplePids));
+            } catch (IOException | InterruptedException e) {
+                unreachable(e);
+                return;
+            }
+            if (unreachableSince != 0) {
+                unreachableSince = 0;
+                listener.getLogger().println("[A3 Builder Note:] Build node " + node + " reachable again, following the a³ invocation.");
+            }
+            if (status.output.length > 0) {
+                out.write(status.output);
+                out.flush();
+                offset += status.output.length;
+            }
+            if (status.sample != null) {
+                knownPids = status.sample.getPids();
+            }
+            if (exitCode == null && status.exitCode != null) {
+                exitCode = status.exitCode;
+            } else if (exitCode == null && !status.alive) {
+                exitCode = -1;
+                if (!killed) {
+                    listener.getLogger()
+                            .println("[A3 Builder Warning:] The a³ invocation ended without an exit code (build node restarted?).");
+                }
+            }
+            if (exitCode != null && status.output.length == 0) {
+                completion.complete(exitCode);
+            } else if (s != null && exitCode == null) {
+                s.polled(this, status.sample);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Passing on the output of the a³ invocation " + entry.getCookie() + " failed", e);
+            completion.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Polling the a³ invocation " + entry.getCookie() + " failed", e);
+            completion.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Handles a poll that failed because the build node could not be reached. The invocation keeps running on the
+     * node, so it is given up only if the node stays unreachable for {@link #RECONNECT_TIMEOUT_MS}.
+     * @param e the failure of the poll
+     */
+    private void unreachable(Exception e) {
+        LOGGER.log(Level.FINE, "Polling the a³ invocation " + entry.getCookie() + " failed", e);
+        long now = System.currentTimeMillis();
+        if (unreachableSince == 0) {
+            unreachableSince = now;
+            listener.getLogger().println("[A3 Builder Warning:] Build node " + node + " cannot be reached (" + e.getMessage()
+                    + "), waiting up to " + TimeUnit.MILLISECONDS.toSeconds(RECONNECT_TIMEOUT_MS) + " sec for it to reconnect.");
+        } else if (now - unreachableSince >= RECONNECT_TIMEOUT_MS) {
+            completion.completeExceptionally(new IOException("Build node " + node + " could not be reached for "
+                    + TimeUnit.MILLISECONDS.toSeconds(now - unreachableSince) + " sec, the a³ invocation " + entry.getCookie()
+                    + " may still be running there", e));
+        }
+    }
+
+    /**
+     * Returns the current channel to the build node
+     * @return VirtualChannel
+     * @throws IOException if the build node is not connected
+     */
+    private VirtualChannel channel() throws IOException {
+        Computer computer = Jenkins.get().getComputer(node);
+        VirtualChannel channel = (computer != null ? computer.getChannel() : null);
+        if (channel == null) {
+            throw new IOException("build node " + node + " is offline");
+        }
+        return channel;
+    }
+
+    private static String digest(List<String> cmd) throws IOException {
+        return A3ArchiveStore.toHex(A3ArchiveStore.sha256().digest(String.join("\u0000", cmd).getBytes(StandardCharsets.UTF_8)))
+                .substring(0, 16);
+    }
+
+    /**
+     * Result of a poll: new output, exit code (null while running), liveness of the processes, resource sample
+     */
+    private static class Status implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] output;
+        private final Integer exitCode;
+        private final boolean alive;
+        private final A3ProcessSampler.Sample sample;
+
+        Status(byte[] output, Integer exitCode, boolean alive, A3ProcessSampler.Sample sample) {
+            this.output = output;
+            this.exitCode = exitCode;
+            this.alive = alive;
+            this.sample = sample;
+        }
+    }
+
+    /**
+     * Reads the new output and the exit code of the invocation on the build node, and samples its processes
+     */
+    private static class Poll extends MasterToSlaveCallable<Status, IOException> {
+        private static final long serialVersionUID = 1L;
+
+        private final A3DurableRunAction.Entry entry;
+        private final long offset;
+        private final boolean checkAlive;
+
+        /* Processes to follow for a resource sample, null for no sample */
+        private final List<Long> samplePids;
+
+        Poll(A3DurableRunAction.Entry entry, long offset, boolean checkAlive, List<Long> samplePids) {
+            this.entry = entry;
+            this.offset = offset;
+            this.checkAlive = checkAlive;
+            this.samplePids = (samplePids != null ? new ArrayList<Long>(samplePids) : null);
+        }
+
+        @Override
+        public Status call() throws IOException {
+            // Read the exit code first, the output is complete once it exists
+            Integer exitCode = readExitCode();
+            byte[] output = new byte[0];
+            File log = new File(entry.getLogPath());
+            if (log.length() > offset) {
+                try (RandomAccessFile f = new RandomAccessFile(log, "r")) {
+                    f.seek(offset);
+                    output = new byte[(int) Math.min(MAX_CHUNK, f.length() - offset)];
+                    f.readFully(output);
+                }
+            }
+            boolean alive = true;
+            if (exitCode == null && checkAlive) {
+                alive = !A3ProcessFinder.find(entry.getCookie()).isEmpty();
+                if (!alive) {
+                    exitCode = readExitCode(); // might have ended in the meantime
+                }
+            }
+            A3ProcessSampler.Sample sample = null;
+            if (samplePids != null && exitCode == null) {
+                try {
+                    sample = new A3ProcessSampler(entry.getCookie(), samplePids).call();
+                } catch (IOException e) {
+                    // the processes may just have terminated
+                }
+            }
+            return new Status(output, exitCode, alive, sample);
+        }
+
+        private Integer readExitCode() {
+            File exit = new File(entry.getExitPath());
+            if (!exit.exists()) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(new String(Files.readAllBytes(exit.toPath()), StandardCharsets.US_ASCII).trim());
+            } catch (IOException | NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
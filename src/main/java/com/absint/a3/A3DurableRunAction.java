@@ -0,0 +1,218 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal of the a³ invocations launched detached from the controller (see {@link A3DetachedProc}) by the
+ * <tt>a3Analysis</tt> Pipeline steps of a build. It is saved with the build, so that a step can reattach to
+ * its invocations after a controller restart instead of launching them again.
+ * <br>
+ * The analysis flow of a step is deterministic, i.e. after a restart the n-th launch of a command line
+ * is the same invocation as before. An invocation is identified by the step execution, the digest of its
+ * command line and n.
+ */
+public class A3DurableRunAction extends InvisibleAction {
+
+    /**
+     * Invocation launched detached on the build node
+     */
+    public static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String cookie;
+        private final String logPath;
+        private final String exitPath;
+        private final long startMillis;
+
+        Entry(String cookie, String logPath, String exitPath, long startMillis) {
+            this.cookie = cookie;
+            this.logPath = logPath;
+            this.exitPath = exitPath;
+            this.startMillis = startMillis;
+        }
+
+        /**
+         * Returns the value of the cookie environment variable of the invocation (see {@link A3ProcessTreeKiller})
+         * @return java.lang.String
+         */
+        public String getCookie() {
+            return cookie;
+        }
+
+        /**
+         * Returns the file on the build node receiving the output of the invocation
+         * @return path on the build node
+         */
+        public String getLogPath() {
+            return logPath;
+        }
+
+        /**
+         * Returns the file on the build node receiving the exit code of the invocation, written when it ends
+         * @return path on the build node
+         */
+        public String getExitPath() {
+            return exitPath;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+    }
+
+    /* Invocations per step execution: Map of (step execution ID, Map of (launch key, invocation)) */
+    private final HashMap<String, HashMap<String, Entry>> steps = new HashMap<String, HashMap<String, Entry>>();
+
+    /**
+     * Returns the journal of a step execution, a new one for every (resumed) execution: the launches are counted from
+     * the start of the execution
+     * @param stepId ID of the step execution, kept with the execution across restarts
+     * @return Journal
+     */
+    Journal journal(String stepId) {
+        return new Journal(stepId);
+    }
+
+    /**
+     * Invocations of one execution of the <tt>a3Analysis</tt> step. Steps running in parallel branches of the
+     * Pipeline have their own journals, so that equal command lines of different steps are not mixed up.
+     */
+    class Journal {
+        private final String stepId;
+
+        /* Number of launches per command line digest in the current execution of the step */
+        private final Map<String, Integer> launches = new HashMap<String, Integer>();
+
+        /* Intermediate files of the invocations, deleted when the step has finished */
+        private final List<FilePath> discarded = new ArrayList<FilePath>();
+
+        private Journal(String stepId) {
+            this.stepId = stepId;
+        }
+
+        /**
+         * Returns the key of the next launch of a command line
+         * @param digest digest of the command line
+         * @return key of the launch
+         */
+        String nextKey(String digest) {
+            synchronized (A3DurableRunAction.this) {
+                int n = launches.merge(digest, 1, Integer::sum);
+                return digest + "#" + n;
+            }
+        }
+
+        /**
+         * Returns the invocation recorded for a launch by a previous execution of the step
+         * @param key key of the launch
+         * @return the Entry, null if the launch did not happen yet
+         */
+        Entry get(String key) {
+            synchronized (A3DurableRunAction.this) {
+                Map<String, Entry> entries = steps.get(stepId);
+                return (entries == null ? null : entries.get(key));
+            }
+        }
+
+        /**
+         * Records a launched invocation and saves the build, so that it survives a controller restart
+         * @param run   the build
+         * @param key   key of the launch
+         * @param entry the invocation
+         * @throws IOException if the build could not be saved
+         */
+        void record(Run<?, ?> run, String key, Entry entry) throws IOException {
+            synchronized (A3DurableRunAction.this) {
+                steps.computeIfAbsent(stepId, id -> new HashMap<String, Entry>()).put(key, entry);
+            }
+            run.save();
+        }
+
+        /**
+         * Returns the start of the earliest invocation recorded for the step
+         * @return milliseconds since the epoch, 0 if there is none
+         */
+        long getFirstStartMillis() {
+            synchronized (A3DurableRunAction.this) {
+                long first = 0;
+                Map<String, Entry> entries = steps.get(stepId);
+                if (entries != null) {
+                    for (Entry e : entries.values()) {
+                        if (first == 0 || e.startMillis < first) first = e.startMillis;
+                    }
+                }
+                return first;
+            }
+        }
+
+        /**
+         * Marks an intermediate file of the invocations (e.g. the report or XML result file of a part or a retry) for
+         * deletion when the step has finished. Until the invocations are forgotten, a step resumed after a restart
+         * reattaches to them and reads their files again.
+         * @param file the file
+         */
+        void discard(FilePath file) {
+            synchronized (A3DurableRunAction.this) {
+                discarded.add(file);
+            }
+        }
+
+        /**
+         * Forgets the invocations of the step, called when it has finished, and deletes the files marked by
+         * {@link #discard(FilePath)}. The invocations of other steps are kept.
+         * @param run the build
+         * @throws IOException if the build could not be saved
+         * @throws InterruptedException if interrupted while deleting the files
+         */
+        void clear(Run<?, ?> run) throws IOException, InterruptedException {
+            List<FilePath> files;
+            synchronized (A3DurableRunAction.this) {
+                steps.remove(stepId);
+                launches.clear();
+                files = new ArrayList<FilePath>(discarded);
+                discarded.clear();
+            }
+            run.save();
+            for (FilePath file : files) {
+                try {
+                    file.delete();
+                } catch (IOException e) {
+                    // left to the cleanup of the old a³ directories
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Copies a file on the build node, e.g. an a³ report to the Jenkins a3workspace.
+ * The file is copied byte by byte with {@link Files#copy(Path, Path, java.nio.file.CopyOption...)},
+ * which lets the operating system transfer the content in the kernel (and share the blocks on file
+ * systems supporting it) instead of decoding and re-encoding it.
+ * <br>
+ * Returns the error message if the file could not be copied, null on success.
+ */
+public class A3FileCopier extends MasterToSlaveCallable<String, IOException> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String src;
+    private final String dest;
+
+    /**
+     * Constructor
+     * @param src  source path on the build node
+     * @param dest destination path on the build node
+     */
+    public A3FileCopier(String src, String dest) {
+        this.src = src;
+        this.dest = dest;
+    }
+
+    @Override
+    public String call() throws IOException {
+        Path target = Paths.get(dest);
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Files.copy(Paths.get(src), target, StandardCopyOption.REPLACE_EXISTING);
+            return null;
+        } catch (NoSuchFileException e) {
+            return "Source file " + src + " could not be found!";
+        } catch (IOException e) {
+            return "Destination file " + dest + " could not be written (" + e.getMessage() + ")!";
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.model.Project;
+import hudson.model.Run;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import jenkins.model.TransientActionFactory;
+
+/**
+ * Aggregates the a³ phase timings of the recent builds of a job, to find the phase that
+ * regressed when builds got slower.
+ */
+public class A3JobTimingAction implements Action {
+
+    /* Number of recent builds taken into account */
+    static final int HISTORY_DEPTH = 20;
+
+    /* A phase counts as regressed if the last build took this factor longer than the median ... */
+    private static final double REGRESSION_FACTOR = 1.25;
+
+    /* ... and at least this much longer */
+    private static final long REGRESSION_MIN_MILLIS = 1000;
+
+    /**
+     * Aggregated timing of one phase
+     */
+    public static class PhaseSummary {
+        private final String name;
+        private final long lastMillis;
+        private final long medianMillis;
+        private final long minMillis;
+        private final long maxMillis;
+        private final int builds;
+
+        PhaseSummary(String name, long lastMillis, List<Long> durations) {
+            List<Long> sorted = new ArrayList<Long>(durations);
+            Collections.sort(sorted);
+            this.name = name;
+            this.lastMillis = lastMillis;
+            this.medianMillis = (sorted.isEmpty() ? -1 : sorted.get(sorted.size() / 2));
+            this.minMillis = (sorted.isEmpty() ? -1 : sorted.get(0));
+            this.maxMillis = (sorted.isEmpty() ? -1 : sorted.get(sorted.size() - 1));
+            this.builds = sorted.size();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLastMillis() {
+            return lastMillis;
+        }
+
+        public long getMedianMillis() {
+            return medianMillis;
+        }
+
+        public long getMinMillis() {
+            return minMillis;
+        }
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        public int getBuilds() {
+            return builds;
+        }
+
+        /**
+         * Checks if the phase took notably longer in the last build than usual
+         * @return true if the phase regressed
+         */
+        public boolean isRegressed() {
+            return medianMillis >= 0
+                    && lastMillis > medianMillis * REGRESSION_FACTOR
+                    && lastMillis - medianMillis >= REGRESSION_MIN_MILLIS;
+        }
+    }
+
+    private final Job<?, ?> job;
+
+    public A3JobTimingAction(Job<?, ?> job) {
+        this.job = job;
+    }
+
+    public String getIconFileName() {
+        return "symbol-timer";
+    }
+
+    public String getDisplayName() {
+        return "a³ Timing Trend";
+    }
+
+    public String getUrlName() {
+        return "a3-timing-trend";
+    }
+
+    public Job<?, ?> getJob() {
+        return job;
+    }
+
+    /**
+     * Returns the timings of the recent builds, newest first
+     * @return List of timing actions
+     */
+    public List<A3TimingAction> getBuildTimings() {
+        List<A3TimingAction> timings = new ArrayList<A3TimingAction>();
+        for (Run<?, ?> r : job.getBuilds().limit(HISTORY_DEPTH)) {
+            A3TimingAction timing = r.getAction(A3TimingAction.class);
+            if (timing != null) {
+                timings.add(timing);
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * Returns the aggregated timings per phase. The last build is compared to the median of the builds before.
+     * @return List of phase summaries in the order of the phases in the last build
+     */
+    public List<PhaseSummary> getSummaries() {
+        List<A3TimingAction> timings = getBuildTimings();
+        List<PhaseSummary> summaries = new ArrayList<PhaseSummary>();
+        if (timings.isEmpty()) {
+            return summaries;
+        }
+        Set<String> names = new LinkedHashSet<String>();
+        for (A3TimingAction timing : timings) {
+            for (A3PhaseTimer.Phase phase : timing.getPhases()) {
+                names.add(phase.getName());
+            }
+        }
+        for (String name : names) {
+            List<Long> previous = new ArrayList<Long>();
+            for (A3TimingAction timing : timings.subList(1, timings.size())) {
+                long duration = timing.getDurationMillis(name);
+                if (duration >= 0) previous.add(duration);
+            }
+            summaries.add(new PhaseSummary(name, timings.get(0).getDurationMillis(name), previous));
+        }
+        return summaries;
+    }
+
+    /**
+     * Adds the action to jobs running the a³ build step. The factory is called for every job page, so freestyle
+     * projects without the build step are skipped without loading a build, and for other jobs (e.g. Pipelines)
+     * only the last completed build is loaded.
+     */
+    @Extension
+    public static class Factory extends TransientActionFactory<Job> {
+        @Override
+        public Class<Job> type() {
+            return Job.class;
+        }
+
+        @Override
+        public Collection<? extends Action> createFor(Job target) {
+            if (target instanceof Project
+                    && ((Project<?, ?>) target).getBuildersList().get(A3Builder.class) == null) {
+                return Collections.emptyList();
+            }
+            Run<?, ?> last = target.getLastCompletedBuild();
+            if (last == null || last.getAction(A3TimingAction.class) == null) {
+                return Collections.emptyList();
+            }
+            return Collections.singletonList(new A3JobTimingAction(target));
+        }
+    }
+}
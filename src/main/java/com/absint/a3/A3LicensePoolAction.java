@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Records the limited license seat pools a build has used. Jobs whose builders are not known before
+ * the build runs (e.g. Pipelines using the <tt>a3Analysis</tt> step) are held back in the queue by
+ * {@link A3LicenseQueueTaskDispatcher} according to the pools of their last completed build.
+ */
+public class A3LicensePoolAction extends InvisibleAction {
+
+    private final TreeSet<String> pools = new TreeSet<String>();
+
+    /**
+     * Adds a pool to the action of the build, creating the action if needed
+     * @param build the build
+     * @param pool  pool name
+     */
+    public static void record(Run<?, ?> build, String pool) {
+        synchronized (build) {
+            A3LicensePoolAction action = build.getAction(A3LicensePoolAction.class);
+            if (action == null) {
+                action = new A3LicensePoolAction();
+                build.addAction(action);
+            }
+            synchronized (action) {
+                action.pools.add(pool);
+            }
+        }
+    }
+
+    public synchronized Set<String> getPools() {
+        return Collections.unmodifiableSet(new TreeSet<String>(pools));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Project;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.model.queue.CauseOfBlockage;
+import hudson.model.queue.QueueListener;
+import hudson.model.queue.QueueTaskDispatcher;
+import java.util.Set;
+import java.util.TreeSet;
+import jenkins.model.Jenkins;
+
+/**
+ * Holds back queued builds of jobs running a³ analyses while all license seats of one of their pools
+ * are in use, so that waiting builds do not occupy an executor. The check has no side effects: the
+ * queue repeats it on every maintenance. Builds already handed to an executor but not started yet count
+ * as occupying a seat, so one free seat admits one build only. A build gets a seat of each of its pools
+ * reserved when it starts (see {@link A3LicenseSeats#reserve}), until its first a³ invocation takes it.
+ * Queued builds never reserve, so they cannot hold back the further a³ steps of running builds.
+ * <p>
+ * The pools of a job are the explicitly configured license pools of its a³ build steps, as the a³ target
+ * of the APX project is not known before the build runs, and the pools its last completed build has used
+ * (see {@link A3LicensePoolAction}). The latter also covers Pipelines, whose <tt>node</tt> blocks are queued
+ * as tasks of the running build; all <tt>node</tt> blocks of such a Pipeline are held back while a pool is exhausted.
+ */
+@Extension
+public class A3LicenseQueueTaskDispatcher extends QueueTaskDispatcher {
+
+    @Override
+    public CauseOfBlockage canRun(Queue.Item item) {
+        Set<String> pools = getPools(item.task);
+        if (pools.isEmpty()) {
+            return null;
+        }
+        String found = null;
+        for (String pool : pools) {
+            if (!A3LicenseSeats.isAvailable(pool, countAdmitted(pool))) {
+                found = pool;
+                break;
+            }
+        }
+        if (found == null) {
+            return null;
+        }
+        final String exhausted = found;
+        return new CauseOfBlockage() {
+            @Override
+            public String getShortDescription() {
+                return "Waiting for a free a³ license seat (pool '" + exhausted + "': "
+                        + A3LicenseSeats.getInUse(exhausted) + " of " + A3LicenseSeats.getSeats(exhausted)
+                        + " seats in use, " + A3LicenseSeats.getReserved(exhausted) + " reserved)";
+            }
+        };
+    }
+
+    /**
+     * Counts the queue items of a pool handed to an executor but not started yet, they hold no reservation
+     * @param pool pool name
+     * @return number of pending items
+     */
+    private static int countAdmitted(String pool) {
+        int admitted = 0;
+        for (Queue.BuildableItem pending : Jenkins.get().getQueue().getPendingItems()) {
+            if (getPools(pending.task).contains(pool)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Returns the key a seat is reserved under for a queue item: tasks of a running build (Pipeline node blocks)
+     * reserve for the build, others for the queue item
+     * @param item queue item
+     * @return reservation key, see {@link A3LicenseSeats#reservationKeys(Run)}
+     */
+    static String reservationKey(Queue.Item item) {
+        Queue.Executable owner = item.task.getOwnerExecutable();
+        return (owner instanceof Run
+                ? ((Run<?, ?>) owner).getExternalizableId()
+                : A3LicenseSeats.queueKey(item.getId()));
+    }
+
+    /**
+     * Returns the limited license seat pools the builds of a task use
+     * @param task queued task
+     * @return Set of pool names
+     */
+    static Set<String> getPools(Queue.Task task) {
+        Set<String> pools = new TreeSet<String>();
+        if (!A3LicenseSeats.isLimited()) {
+            return pools; // nothing to look up for the usual configuration
+        }
+        Queue.Task owner = task.getOwnerTask();
+        if (owner instanceof Project) {
+            for (A3Builder step : ((Project<?, ?>) owner).getBuildersList().getAll(A3Builder.class)) {
+                if (!step.getLicense_pool().equals("")) {
+                    pools.add(step.getLicense_pool());
+                }
+            }
+        }
+        if (owner instanceof Job) {
+            Run<?, ?> last = ((Job<?, ?>) owner).getLastCompletedBuild();
+            A3LicensePoolAction used = (last != null ? last.getAction(A3LicensePoolAction.class) : null);
+            if (used != null) {
+                pools.addAll(used.getPools());
+            }
+        }
+        pools.removeIf(pool -> A3LicenseSeats.getSeats(pool) < 0);
+        return pools;
+    }
+
+    /**
+     * Reserves the seats of a build when its queue item starts running. If a pool has been exhausted
+     * meanwhile, nothing is reserved and the build waits for a seat with its first a³ invocation.
+     */
+    @Extension
+    public static class Reservation extends QueueListener {
+        @Override
+        public void onLeft(Queue.LeftItem item) {
+            if (item.isCancelled()) {
+                return;
+            }
+            Set<String> pools = getPools(item.task);
+            if (!pools.isEmpty()) {
+                A3LicenseSeats.reserve(pools, reservationKey(item));
+            }
+        }
+    }
+
+    /**
+     * Drops the seats reserved for a build when it ends, in case it did not take them
+     */
+    @Extension
+    public static class ReservationRelease extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(Run<?, ?> run, TaskListener listener) {
+            A3LicenseSeats.cancelReservations(A3LicenseSeats.reservationKeys(run));
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import jenkins.model.Jenkins;
+
+/**
+ * Keeps track of the a³ license seats in use by running analyses. The seat pools and their sizes
+ * are configured globally, one "pool=seats" entry per line, where a pool is an a³ target
+ * (e.g. "arm") or a product name used in the job configuration. Pools which are not configured
+ * are not limited.
+ * <br>
+ * Every a³ invocation occupies one seat of its pool. Queued builds whose pool is exhausted are
+ * held back in the build queue by {@link A3LicenseQueueTaskDispatcher}. A build admitted by it gets a
+ * seat reserved for {@link #RESERVATION_TIMEOUT_MS} when it starts, so that the seat is not taken by
+ * another build before its first invocation takes it. Only started builds hold reservations.
+ */
+public class A3LicenseSeats {
+
+    /* Time a started build has to take its reserved seat, afterwards the seat is free again */
+    static final long RESERVATION_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final Map<String, Integer> inUse = new HashMap<String, Integer>();
+
+    /* Reserved seats per pool: Map of (reservation key, expiry as System.nanoTime()) */
+    private static final Map<String, Map<String, Long>> reserved = new HashMap<String, Map<String, Long>>();
+
+    /* used to hide the constructor */
+    private A3LicenseSeats() {}
+
+    /**
+     * Parses the global seat pool configuration
+     * @param spec one "pool=seats" entry per line (or comma separated)
+     * @return Map of (pool, seats)
+     * @throws IllegalArgumentException if an entry is malformed
+     */
+    public static Map<String, Integer> parsePools(String spec) {
+        Map<String, Integer> pools = new HashMap<String, Integer>();
+        if (spec == null) return pools;
+        for (String entry : spec.split("[,\\r\\n]+")) {
+            entry = entry.trim();
+            if (entry.equals("")) continue;
+            String[] kv = entry.split("=");
+            try {
+                if (kv.length != 2 || kv[0].trim().equals("")) throw new NumberFormatException();
+                int seats = Integer.parseInt(kv[1].trim());
+                if (seats < 1) throw new NumberFormatException();
+                pools.put(kv[0].trim(), seats);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "License seat pool entry '" + entry + "' must have the form <pool>=<number of seats>.");
+            }
+        }
+        return pools;
+    }
+
+    private static Map<String, Integer> configuredPools() {
+        A3Builder.DescriptorImpl descriptor = Jenkins.get().getDescriptorByType(A3Builder.DescriptorImpl.class);
+        try {
+            return parsePools(descriptor != null ? descriptor.getLicense_seats() : null);
+        } catch (IllegalArgumentException e) {
+            return new HashMap<String, Integer>(); // the form validation reports malformed entries
+        }
+    }
+
+    /**
+     * Checks if any seat pool is configured
+     * @return true if at least one pool is limited
+     */
+    public static boolean isLimited() {
+        return !configuredPools().isEmpty();
+    }
+
+    /**
+     * Returns the number of seats of a pool
+     * @param pool pool name
+     * @return number of seats, -1 if the pool is not limited
+     */
+    public static int getSeats(String pool) {
+        Integer seats = configuredPools().get(pool);
+        return (seats == null ? -1 : seats);
+    }
+
+    /**
+     * Returns the number of seats of a pool currently occupied
+     * @param pool pool name
+     * @return number of occupied seats
+     */
+    public static synchronized int getInUse(String pool) {
+        Integer used = inUse.get(pool);
+        return (used == null ? 0 : used);
+    }
+
+    /**
+     * Returns the number of seats of a pool reserved for admitted builds
+     * @param pool pool name
+     * @return number of reserved seats
+     */
+    public static synchronized int getReserved(String pool) {
+        Map<String, Long> reservations = reserved.get(pool);
+        if (reservations == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        reservations.values().removeIf(expiry -> expiry - now < 0);
+        if (reservations.isEmpty()) {
+            reserved.remove(pool);
+            return 0;
+        }
+        return reservations.size();
+    }
+
+    /**
+     * Checks if a seat of the pool is available, neither occupied nor reserved
+     * @param pool pool name
+     * @return true if the pool is not limited or has a free seat
+     */
+    public static boolean isAvailable(String pool) {
+        return isAvailable(pool, 0);
+    }
+
+    /**
+     * Checks if a seat of the pool is available for a queued build
+     * @param pool     pool name
+     * @param admitted number of builds of the pool admitted to an executor, but not started yet
+     * @return true if the pool is not limited or has a free seat besides the ones of the admitted builds
+     */
+    public static synchronized boolean isAvailable(String pool, int admitted) {
+        int seats = getSeats(pool);
+        return seats < 0 || getInUse(pool) + getReserved(pool) + admitted < seats;
+    }
+
+    /**
+     * Reserves a seat of each pool for a build starting to run, or none if one of the pools is exhausted
+     * (a build holding a seat of one pool while waiting for another would block other builds).
+     * Reservations made for the key before are renewed.
+     * @param pools pool names
+     * @param key   reservation key of the build, see {@link #reservationKeys(Run)}
+     * @return null if the seats are reserved, otherwise the name of an exhausted pool
+     */
+    public static synchronized String reserve(Collection<String> pools, String key) {
+        for (String pool : pools) {
+            boolean renew = (getReserved(pool) > 0 && reserved.get(pool).containsKey(key));
+            if (!renew && !isAvailable(pool)) {
+                return pool;
+            }
+        }
+        long expiry = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RESERVATION_TIMEOUT_MS);
+        for (String pool : pools) {
+            if (getSeats(pool) >= 0) {
+                reserved.computeIfAbsent(pool, p -> new HashMap<String, Long>()).put(key, expiry);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops the seats reserved for a build that did not take them, e.g. because it ended before running a³
+     * @param reservationKeys keys a seat may have been reserved under for the build
+     */
+    public static void cancelReservations(Collection<String> reservationKeys) {
+        synchronized (A3LicenseSeats.class) {
+            for (Map<String, Long> reservations : reserved.values()) {
+                reservations.keySet().removeAll(reservationKeys);
+            }
+            A3LicenseSeats.class.notifyAll();
+        }
+        Jenkins.get().getQueue().scheduleMaintenance();
+    }
+
+    /**
+     * Returns the reservation key of a queued freestyle build
+     * @param queueId ID of the queue item
+     * @return reservation key
+     */
+    public static String queueKey(long queueId) {
+        return "queue:" + queueId;
+    }
+
+    /**
+     * Returns the keys a seat may have been reserved under for a build: the ID of its queue item
+     * (freestyle builds) or the build itself (tasks of running builds, e.g. Pipeline <tt>node</tt> blocks)
+     * @param build the build
+     * @return List of reservation keys
+     */
+    public static List<String> reservationKeys(Run<?, ?> build) {
+        return Arrays.asList(queueKey(build.getQueueId()), build.getExternalizableId());
+    }
+
+    /**
+     * Occupies a seat of the pool, waits until a seat is available. A seat reserved for the build is taken
+     * without waiting.
+     * @param pool pool name
+     * @param reservationKeys keys a seat may have been reserved under for the build
+     * @param listener TaskListener for Console Output
+     * @throws InterruptedException if the build was aborted while waiting
+     */
+    public static synchronized void acquire(String pool, Collection<String> reservationKeys, TaskListener listener)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        boolean wasReserved = false;
+        if (getReserved(pool) > 0) { // drops the expired reservations
+            for (String key : reservationKeys) {
+                wasReserved |= (reserved.get(pool).remove(key) != null);
+            }
+        }
+        if (!wasReserved && !isAvailable(pool)) {
+            listener.getLogger()
+                    .println("[A3 License Note:] All " + getSeats(pool) + " license seats of pool '" + pool
+                            + "' are in use. Waiting for a free seat ...");
+            while (!isAvailable(pool)) {
+                A3LicenseSeats.class.wait(TimeUnit.MINUTES.toMillis(1)); // re-read the configuration now and then
+            }
+            listener.getLogger()
+                    .println("[A3 License Note:] License seat of pool '" + pool + "' acquired after "
+                            + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + " sec.");
+        }
+        A3Metrics.LICENSE_WAIT.observe((System.nanoTime() - start) / 1e9, pool);
+        inUse.put(pool, getInUse(pool) + 1);
+    }
+
+    /**
+     * Releases a seat occupied by acquire()
+     * @param pool pool name
+     */
+    public static void release(String pool) {
+        synchronized (A3LicenseSeats.class) {
+            int used = getInUse(pool) - 1;
+            if (used > 0) {
+                inUse.put(pool, used);
+            } else {
+                inUse.remove(pool);
+            }
+            A3LicenseSeats.class.notifyAll();
+        }
+        // Let the queue re-check the builds waiting for a seat
+        Jenkins.get().getQueue().scheduleMaintenance();
+    }
+}
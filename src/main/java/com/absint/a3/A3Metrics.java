@@ -0,0 +1,277 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms of the plugin, exposed in the OpenMetrics text format by {@link A3MetricsRootAction}.
+ * <p>
+ * Recording is cheap enough for the hot path: a lookup in a concurrent map and an increment of a
+ * {@link LongAdder}. The number of distinct label values per metric is bounded, further values are
+ * recorded as "other", so user-controlled labels (pools, job names, analysis IDs) cannot blow up
+ * the number of time series.
+ */
+public final class A3Metrics {
+
+    /* Maximal number of distinct label value combinations per metric */
+    static final int MAX_SERIES = 64;
+
+    private static final String OTHER = "other";
+
+    private A3Metrics() {}
+
+    /**
+     * Common part of all metrics: name, help text and the bounded set of label value combinations
+     */
+    private abstract static class Metric<T> {
+        final String name;
+        final String help;
+        final String[] labels;
+        final Map<List<String>, T> series = new ConcurrentHashMap<List<String>, T>();
+
+        Metric(String name, String help, String... labels) {
+            this.name = name;
+            this.help = help;
+            this.labels = labels;
+        }
+
+        abstract T create();
+
+        T get(String... values) {
+            List<String> key = Arrays.asList(values);
+            T s = series.get(key);
+            if (s != null) {
+                return s;
+            }
+            if (series.size() >= MAX_SERIES) {
+                String[] other = new String[values.length];
+                Arrays.fill(other, OTHER);
+                key = Arrays.asList(other);
+            }
+            return series.computeIfAbsent(key, k -> create());
+        }
+
+        String labelString(List<String> values, String extraName, String extraValue) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < labels.length; i++) {
+                sb.append(sb.length() == 0 ? "{" : ",").append(labels[i]).append("=\"").append(escape(values.get(i))).append('"');
+            }
+            if (extraName != null) {
+                sb.append(sb.length() == 0 ? "{" : ",").append(extraName).append("=\"").append(extraValue).append('"');
+            }
+            return (sb.length() == 0 ? "" : sb.append('}').toString());
+        }
+
+        void header(Writer w, String type) throws IOException {
+            w.write("# TYPE " + name + " " + type + "\n");
+            w.write("# HELP " + name + " " + help + "\n");
+        }
+
+        abstract void write(Writer w) throws IOException;
+    }
+
+    /**
+     * Monotonic counter
+     */
+    public static final class Counter extends Metric<LongAdder> {
+        Counter(String name, String help, String... labels) {
+            super(name, help, labels);
+        }
+
+        @Override
+        LongAdder create() {
+            return new LongAdder();
+        }
+
+        /**
+         * Increments the counter
+         * @param labelValues values of the labels, in the order of the label names
+         */
+        public void inc(String... labelValues) {
+            get(labelValues).increment();
+        }
+
+        @Override
+        void write(Writer w) throws IOException {
+            header(w, "counter");
+            for (Map.Entry<List<String>, LongAdder> e : sorted(series).entrySet()) {
+                w.write(name + "_total" + labelString(e.getKey(), null, null) + " " + e.getValue().sum() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Gauge holding the last value set
+     */
+    public static final class Gauge extends Metric<DoubleAdder> {
+        Gauge(String name, String help, String... labels) {
+            super(name, help, labels);
+        }
+
+        @Override
+        DoubleAdder create() {
+            return new DoubleAdder();
+        }
+
+        /**
+         * Sets the gauge
+         * @param value       the value
+         * @param labelValues values of the labels, in the order of the label names
+         */
+        public void set(double value, String... labelValues) {
+            DoubleAdder gauge = get(labelValues);
+            synchronized (gauge) {
+                gauge.reset();
+                gauge.add(value);
+            }
+        }
+
+        @Override
+        void write(Writer w) throws IOException {
+            header(w, "gauge");
+            for (Map.Entry<List<String>, DoubleAdder> e : sorted(series).entrySet()) {
+                w.write(name + labelString(e.getKey(), null, null) + " " + e.getValue().sum() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Histogram with fixed buckets
+     */
+    public static final class Histogram extends Metric<Histogram.Buckets> {
+        private final double[] bounds;
+
+        static final class Buckets {
+            final LongAdder[] counts;
+            final LongAdder count = new LongAdder();
+            final DoubleAdder sum = new DoubleAdder();
+
+            Buckets(int n) {
+                counts = new LongAdder[n];
+                for (int i = 0; i < n; i++) counts[i] = new LongAdder();
+            }
+        }
+
+        Histogram(String name, String help, double[] bounds, String... labels) {
+            super(name, help, labels);
+            this.bounds = bounds.clone();
+        }
+
+        @Override
+        Buckets create() {
+            return new Buckets(bounds.length);
+        }
+
+        /**
+         * Records an observation
+         * @param value       the observed value (e.g. seconds)
+         * @param labelValues values of the labels, in the order of the label names
+         */
+        public void observe(double value, String... labelValues) {
+            Buckets b = get(labelValues);
+            for (int i = 0; i < bounds.length; i++) {
+                if (value <= bounds[i]) {
+                    b.counts[i].increment();
+                    break;
+                }
+            }
+            b.count.increment();
+            b.sum.add(value);
+        }
+
+        @Override
+        void write(Writer w) throws IOException {
+            header(w, "histogram");
+            for (Map.Entry<List<String>, Buckets> e : sorted(series).entrySet()) {
+                long cumulative = 0;
+                for (int i = 0; i < bounds.length; i++) {
+                    cumulative += e.getValue().counts[i].sum();
+                    w.write(name + "_bucket" + labelString(e.getKey(), "le", Double.toString(bounds[i])) + " " + cumulative + "\n");
+                }
+                long count = e.getValue().count.sum();
+                w.write(name + "_bucket" + labelString(e.getKey(), "le", "+Inf") + " " + count + "\n");
+                w.write(name + "_count" + labelString(e.getKey(), null, null) + " " + count + "\n");
+                w.write(name + "_sum" + labelString(e.getKey(), null, null) + " " + e.getValue().sum.sum() + "\n");
+            }
+        }
+    }
+
+    private static final double[] DURATION_BUCKETS = {1, 5, 15, 60, 300, 900, 3600, 4 * 3600, 12 * 3600};
+    private static final double[] WAIT_BUCKETS = {0.1, 1, 10, 60, 300, 1800, 3600};
+
+    public static final Counter ANALYSES = new Counter("a3_analyses", "a³ analysis runs started", "target");
+    public static final Counter ITEMS =
+            new Counter("a3_analysis_items", "Analysis items evaluated, by type and result", "type", "result");
+    public static final Histogram ITEM_DURATION = new Histogram(
+            "a3_analysis_item_duration_seconds", "Analysis time of the analysis items", DURATION_BUCKETS, "type");
+    public static final Counter REPORT_CACHE =
+            new Counter("a3_report_cache_requests", "HTML report requests, by cache result", "result");
+    public static final Histogram LICENSE_WAIT = new Histogram(
+            "a3_license_wait_seconds", "Time a³ runs waited for a license seat", WAIT_BUCKETS, "pool");
+    public static final Histogram INSTALLER_EXTRACTION = new Histogram(
+            "a3_installer_extraction_seconds", "Time spent unpacking a³ installer packages", DURATION_BUCKETS);
+    public static final Gauge ITEM_VALUE = new Gauge(
+            "a3_analysis_item_value",
+            "Last numeric result (e.g. WCET, stack usage) of the analysis items selected in the global configuration",
+            "job",
+            "id",
+            "type");
+
+    private static final Metric<?>[] ALL = {
+        ANALYSES, ITEMS, ITEM_DURATION, REPORT_CACHE, LICENSE_WAIT, INSTALLER_EXTRACTION, ITEM_VALUE
+    };
+
+    /**
+     * Writes all metrics in the OpenMetrics text format
+     * @param w Writer
+     */
+    public static void write(Writer w) throws IOException {
+        for (Metric<?> metric : ALL) {
+            metric.write(w);
+        }
+        w.write("# EOF\n");
+    }
+
+    private static <T> Map<List<String>, T> sorted(Map<List<String>, T> series) {
+        TreeMap<List<String>, T> result = new TreeMap<List<String>, T>((a, b) -> String.join("\u0000", a)
+                .compareTo(String.join("\u0000", b)));
+        result.putAll(series);
+        return result;
+    }
+
+    private static String escape(String value) {
+        return (value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"));
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.labels.LabelAtom;
+import hudson.model.labels.LabelFinder;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import jenkins.model.Jenkins;
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Capabilities of a build node relevant for a³ runs: operating system, architecture, CPU cores, physical
+ * memory, the a³ installer packages available per target and the location of the installed alauncher.
+ * <br>
+ * The capabilities are probed once per agent connection by {@link A3NodeProbe} and kept in the controller memory
+ * per {@link Computer} (they describe the connected agent, not the node configuration, so they are not saved),
+ * a build reads them without a round trip to the node. The {@link Labels} contribute node labels
+ * (e.g. <tt>a3-arm</tt>, <tt>a3-arm-b277911</tt>), which lets label expressions route jobs to nodes
+ * already providing the a³ build they need.
+ */
+public class A3NodeCapabilities implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Prefix of all labels contributed by the capabilities */
+    public static final String LABEL_PREFIX = "a3-";
+
+    /* Capabilities of the connected computers, weak keys: removed computers are dropped */
+    private static final Map<Computer, A3NodeCapabilities> byComputer =
+            Collections.synchronizedMap(new WeakHashMap<Computer, A3NodeCapabilities>());
+
+    private final A3ToolInstaller.OS os;
+    private final String arch;
+    private final int cores;
+    private final long memoryMB;
+    private final TreeMap<String, Long> packages;
+    private final String alauncher;
+    private final long probed;
+
+    A3NodeCapabilities(
+            A3ToolInstaller.OS os, String arch, int cores, long memoryMB, Map<String, Long> packages, String alauncher) {
+        this.os = os;
+        this.arch = arch;
+        this.cores = cores;
+        this.memoryMB = memoryMB;
+        this.packages = new TreeMap<String, Long>(packages);
+        this.alauncher = alauncher;
+        this.probed = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the capabilities probed for a computer
+     * @param c the computer, may be null
+     * @return the capabilities, null if the computer has not been probed (yet) or is offline
+     */
+    public static A3NodeCapabilities of(Computer c) {
+        return (c == null ? null : byComputer.get(c));
+    }
+
+    /**
+     * Keeps the capabilities probed for a computer, replacing the ones of a previous probe
+     * @param c    the computer
+     * @param caps the capabilities, null to forget them (computer offline)
+     */
+    static void set(Computer c, A3NodeCapabilities caps) {
+        if (caps == null) {
+            byComputer.remove(c);
+        } else {
+            byComputer.put(c, caps);
+        }
+    }
+
+    public A3ToolInstaller.OS getOS() {
+        return os;
+    }
+
+    public String getArch() {
+        return arch;
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    /**
+     * Returns the physical memory of the node
+     * @return memory in MB, 0 if unknown
+     */
+    public long getMemoryMB() {
+        return memoryMB;
+    }
+
+    /**
+     * Returns the a³ installer packages found in the configured package directory
+     * @return unmodifiable Map of (target, highest build number) pairs
+     */
+    public SortedMap<String, Long> getPackages() {
+        return Collections.unmodifiableSortedMap(packages);
+    }
+
+    /**
+     * Returns the resolved path of the installed alauncher
+     * @return path on the node, null if no alauncher has been found
+     */
+    public String getAlauncher() {
+        return alauncher;
+    }
+
+    /**
+     * Returns the time of the probe
+     * @return milliseconds since the epoch
+     */
+    public long getProbed() {
+        return probed;
+    }
+
+    /**
+     * Returns the label names contributed by the capabilities
+     * @return List of label names
+     */
+    public List<String> getLabels() {
+        List<String> labels = new ArrayList<String>();
+        labels.add(LABEL_PREFIX + os.name().toLowerCase(Locale.ENGLISH));
+        if (alauncher != null) {
+            labels.add(LABEL_PREFIX + "alauncher");
+        }
+        for (Map.Entry<String, Long> p : packages.entrySet()) {
+            labels.add(LABEL_PREFIX + p.getKey());
+            labels.add(LABEL_PREFIX + p.getKey() + "-b" + p.getValue());
+        }
+        return labels;
+    }
+
+    @Override
+    public String toString() {
+        return os + "/" + arch + ", " + cores + " cores, " + memoryMB + " MB, packages: " + packages + ", alauncher: "
+                + (alauncher != null ? alauncher : "-");
+    }
+
+    /**
+     * Probes the capabilities on the build node
+     */
+    static class Probe extends MasterToSlaveCallable<A3NodeCapabilities, IOException> {
+        private static final long serialVersionUID = 1L;
+
+        private final String a3packages;
+        private final String alauncher;
+
+        /**
+         * Constructor
+         * @param a3packages directory of the a³ installer packages (global configuration, ${VAR} references expanded
+         *                   for the node like by the build step), may be empty
+         * @param alauncher  path of the installed alauncher (likewise), may be empty
+         */
+        Probe(String a3packages, String alauncher) {
+            this.a3packages = a3packages;
+            this.alauncher = alauncher;
+        }
+
+        @Override
+        public A3NodeCapabilities call() throws IOException {
+            String osName = System.getProperty("os.name", "").toLowerCase(Locale.ENGLISH);
+            A3ToolInstaller.OS os = osName.startsWith("windows")
+                    ? A3ToolInstaller.OS.WINDOWS
+                    : (osName.startsWith("mac") ? A3ToolInstaller.OS.MACOS : A3ToolInstaller.OS.UNIX);
+
+            long memoryMB = 0;
+            java.lang.management.OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+            if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+                memoryMB = ((com.sun.management.OperatingSystemMXBean) bean).getTotalMemorySize() / (1024 * 1024);
+            }
+
+            return new A3NodeCapabilities(
+                    os,
+                    System.getProperty("os.arch", ""),
+                    Runtime.getRuntime().availableProcessors(),
+                    memoryMB,
+                    scanPackages(a3packages, os),
+                    resolveAlauncher(alauncher, os));
+        }
+
+        private static Map<String, Long> scanPackages(String dir, A3ToolInstaller.OS os) {
+            Map<String, Long> found = new TreeMap<String, Long>();
+            File[] files = (dir == null || dir.isEmpty() ? null : new File(dir).listFiles());
+            if (files == null) {
+                return found;
+            }
+            for (File f : files) {
+                A3ToolInstaller.PackageName name = (f.isFile() ? A3ToolInstaller.PackageName.parse(f.getName(), os) : null);
+                if (name != null) {
+                    found.merge(name.getTarget(), name.getBuild(), Math::max);
+                }
+            }
+            return found;
+        }
+
+        /* Same resolution as A3ToolInstaller: a directory or any file in the alauncher directory */
+        private static String resolveAlauncher(String path, A3ToolInstaller.OS os) {
+            if (path == null || path.isEmpty() || os == A3ToolInstaller.OS.MACOS) {
+                return null;
+            }
+            File f = new File(path);
+            File dir = (f.isDirectory() ? f : f.getParentFile());
+            if (dir == null) {
+                return null;
+            }
+            File bin = new File(dir, "alauncher" + (os == A3ToolInstaller.OS.WINDOWS ? ".exe" : ""));
+            return (bin.isFile() ? bin.getPath() : null);
+        }
+    }
+
+    /**
+     * Contributes the labels of the probed capabilities to the node
+     */
+    @Extension
+    public static class Labels extends LabelFinder {
+        @Override
+        public Collection<LabelAtom> findLabels(Node node) {
+            A3NodeCapabilities caps = of(node.toComputer());
+            if (caps == null) {
+                return Collections.emptyList();
+            }
+            List<LabelAtom> labels = new ArrayList<LabelAtom>();
+            for (String label : caps.getLabels()) {
+                labels.add(Jenkins.get().getLabelAtom(label));
+            }
+            return labels;
+        }
+    }
+}
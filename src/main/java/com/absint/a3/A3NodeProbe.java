@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.ComputerListener;
+import hudson.slaves.OfflineCause;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Probes the a³ capabilities of a build node (see {@link A3NodeCapabilities}) whenever it comes online
+ * and keeps them for its computer until it goes offline. The nodes are probed again when the global a³
+ * configuration (installer package directory, alauncher) is changed.
+ */
+@Extension
+public class A3NodeProbe extends ComputerListener {
+
+    private static final Logger LOGGER = Logger.getLogger(A3NodeProbe.class.getName());
+
+    @Override
+    public void onOnline(Computer c, TaskListener listener) throws IOException, InterruptedException {
+        A3NodeCapabilities caps = probe(c, listener);
+        if (caps != null) {
+            listener.getLogger().println("[A3 Builder Note:] a³ node capabilities: " + caps);
+        }
+    }
+
+    @Override
+    public void onOffline(Computer c, OfflineCause cause) {
+        A3NodeCapabilities.set(c, null);
+        A3NodeResourceGovernor.forget(c.getName());
+        Jenkins.get().trimLabels();
+    }
+
+    /**
+     * Probes all online nodes again in the background, e.g. after the global configuration has been changed
+     */
+    public static void probeAll() {
+        for (Computer c : Jenkins.get().getComputers()) {
+            if (c.isOnline()) {
+                Computer.threadPoolForRemoting.submit(() -> {
+                    try {
+                        probe(c, TaskListener.NULL);
+                    } catch (IOException e) {
+                        LOGGER.log(Level.WARNING, "Probing the a³ capabilities of " + c.getName() + " failed", e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Probes the node of a computer and replaces its capabilities
+     * @param c        the computer of the node
+     * @param listener TaskListener for the node environment
+     * @return the probed capabilities, null if the node is not connected
+     * @throws IOException if the node could not be probed
+     * @throws InterruptedException if the probe has been interrupted
+     */
+    static A3NodeCapabilities probe(Computer c, TaskListener listener) throws IOException, InterruptedException {
+        Node node = c.getNode();
+        VirtualChannel channel = c.getChannel();
+        if (node == null || channel == null) {
+            return null;
+        }
+        A3Builder.DescriptorImpl config = Jenkins.get().getDescriptorByType(A3Builder.DescriptorImpl.class);
+        // Expanded like by the build step, the separators only depend on Windows or not
+        EnvVars env = c.buildEnvironment(listener);
+        A3ToolInstaller.OS os = (Boolean.FALSE.equals(c.isUnix()) ? A3ToolInstaller.OS.WINDOWS : A3ToolInstaller.OS.UNIX);
+        A3NodeCapabilities caps = channel.call(new A3NodeCapabilities.Probe(
+                A3Builder.expandEnvironmentVarsHelper(config.getA3packages(), env, os),
+                A3Builder.expandEnvironmentVarsHelper(config.getAlauncher(), env, os)));
+        A3NodeCapabilities.set(c, caps);
+        // The contributed labels have changed
+        Jenkins.get().trimLabels();
+        return caps;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Computer;
+import hudson.model.TransientComputerActionFactory;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Shows the a³ resource budget of a build node together with the running and waiting
+ * a³ invocations on the agent page.
+ */
+public class A3NodeResourceAction implements Action {
+
+    private final Computer computer;
+
+    public A3NodeResourceAction(Computer computer) {
+        this.computer = computer;
+    }
+
+    public String getIconFileName() {
+        return "symbol-hardware";
+    }
+
+    public String getDisplayName() {
+        return "a³ Resources";
+    }
+
+    public String getUrlName() {
+        return "a3-resources";
+    }
+
+    public Computer getComputer() {
+        return computer;
+    }
+
+    /**
+     * Returns the budget of the node
+     * @return NodeBudget, null if no a³ run has been launched on this node yet
+     */
+    public A3NodeResourceGovernor.NodeBudget getBudget() {
+        return A3NodeResourceGovernor.getBudget(computer.getName());
+    }
+
+    /**
+     * Adds the action to every agent page
+     */
+    @Extension
+    public static class Factory extends TransientComputerActionFactory {
+        @Override
+        public Collection<? extends Action> createFor(Computer target) {
+            return Collections.singletonList(new A3NodeResourceAction(target));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.Computer;
+import hudson.model.TaskListener;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits the a³ processes running concurrently on one build node to the CPU cores and the
+ * physical memory of the node. Every a³ invocation reserves a number of worker slots and an
+ * estimated amount of memory before it is launched. If the node budget is exhausted, the
+ * invocation waits in a first come, first served queue of the node.
+ * <br>
+ * All a³ invocations are launched by the controller, so the budgets are kept on the controller. The budget of a node
+ * is taken from its probed {@link A3NodeCapabilities} and dropped when the node goes offline, so that a node
+ * reconnected with different hardware gets a new budget.
+ */
+public class A3NodeResourceGovernor {
+
+    /**
+     * A granted or pending reservation of an a³ invocation
+     */
+    public static class Reservation {
+        private final String owner;
+        private final int workers;
+        private final long memoryMB;
+        private final long requested = System.currentTimeMillis();
+        private long granted = -1;
+        private NodeBudget budget;
+
+        Reservation(String owner, int workers, long memoryMB) {
+            this.owner = owner;
+            this.workers = workers;
+            this.memoryMB = memoryMB;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public long getMemoryMB() {
+            return memoryMB;
+        }
+
+        /**
+         * Returns the time the reservation has been waiting or was waiting before it was granted
+         * @return waiting time in milliseconds
+         */
+        public long getWaitingMillis() {
+            return (granted < 0 ? System.currentTimeMillis() : granted) - requested;
+        }
+    }
+
+    /**
+     * Resource budget and reservation queue of one build node
+     */
+    public static class NodeBudget {
+        private final int workers;
+        private final long memoryMB;
+        private final List<Reservation> running = new ArrayList<Reservation>();
+        private final LinkedList<Reservation> waiting = new LinkedList<Reservation>();
+
+        NodeBudget(int workers, long memoryMB) {
+            this.workers = workers;
+            this.memoryMB = memoryMB;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public long getMemoryMB() {
+            return memoryMB;
+        }
+
+        public synchronized int getUsedWorkers() {
+            int used = 0;
+            for (Reservation r : running) used += r.workers;
+            return used;
+        }
+
+        public synchronized long getUsedMemoryMB() {
+            long used = 0;
+            for (Reservation r : running) used += r.memoryMB;
+            return used;
+        }
+
+        public synchronized List<Reservation> getRunning() {
+            return new ArrayList<Reservation>(running);
+        }
+
+        public synchronized List<Reservation> getWaiting() {
+            return new ArrayList<Reservation>(waiting);
+        }
+
+        private boolean fits(Reservation r) {
+            return getUsedWorkers() + r.workers <= workers && getUsedMemoryMB() + r.memoryMB <= memoryMB;
+        }
+
+        synchronized void acquire(Reservation r, TaskListener listener) throws InterruptedException {
+            waiting.addLast(r);
+            try {
+                if (waiting.getFirst() != r || !fits(r)) {
+                    listener.getLogger()
+                            .println("[A3 Resource Governor Note:] Node is busy (" + getUsedWorkers() + "/" + workers
+                                    + " workers, " + getUsedMemoryMB() + "/" + memoryMB
+                                    + " MB in use). Waiting at queue position " + waiting.size() + " ...");
+                }
+                // First come, first served: only the head of the queue may start
+                while (waiting.getFirst() != r || !fits(r)) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(r);
+                notifyAll();
+                throw e;
+            }
+            waiting.removeFirst();
+            r.granted = System.currentTimeMillis();
+            running.add(r);
+            notifyAll(); // the next one in the queue might fit as well
+        }
+
+        synchronized void release(Reservation r) {
+            running.remove(r);
+            notifyAll();
+        }
+    }
+
+    /* Node budgets by node name ("" is the built-in node) */
+    private static final ConcurrentHashMap<String, NodeBudget> budgets = new ConcurrentHashMap<String, NodeBudget>();
+
+    /**
+     * Reserves worker slots and memory on a node, waits until the reservation fits into the node budget.
+     * A reservation is cut down to the node budget, so that it can always be granted eventually.
+     * @param computer computer of the build node, its capabilities determine the budget on first use
+     * @param owner display name of the reserving build
+     * @param workers number of a³ analysis workers
+     * @param memoryMB estimated memory demand in MB
+     * @param listener TaskListener for Console Output
+     * @return the granted Reservation, to be released after the a³ run
+     * @throws IOException if the node budget could not be determined
+     * @throws InterruptedException if the build was aborted while waiting
+     */
+    public static Reservation acquire(
+            Computer computer, String owner, int workers, long memoryMB, TaskListener listener)
+            throws IOException, InterruptedException {
+        if (computer == null) {
+            throw new IOException("The build node is not connected");
+        }
+        NodeBudget budget = budgets.get(computer.getName());
+        if (budget == null) {
+            A3NodeCapabilities caps = A3NodeCapabilities.of(computer);
+            if (caps == null) {
+                // Not probed yet, e.g. the node has just come online
+                caps = A3NodeProbe.probe(computer, listener);
+                if (caps == null) {
+                    throw new IOException("The build node " + computer.getName() + " is not connected");
+                }
+            }
+            // Unknown physical memory (0) must not block anything
+            budget = new NodeBudget(caps.getCores(), (caps.getMemoryMB() > 0 ? caps.getMemoryMB() : Long.MAX_VALUE));
+            NodeBudget existing = budgets.putIfAbsent(computer.getName(), budget);
+            if (existing != null) budget = existing;
+        }
+
+        Reservation r = new Reservation(
+                owner, Math.min(Math.max(1, workers), budget.workers), Math.min(memoryMB, budget.memoryMB));
+        r.budget = budget;
+        budget.acquire(r, listener);
+        if (r.getWaitingMillis() > 1000) {
+            listener.getLogger()
+                    .println("[A3 Resource Governor Note:] Node resources granted after "
+                            + (r.getWaitingMillis() / 1000) + " sec.");
+        }
+        return r;
+    }
+
+    /**
+     * Releases a reservation granted by acquire(), to the budget it has been granted by
+     * @param r Reservation, may be null
+     */
+    public static void release(Reservation r) {
+        if (r != null) {
+            r.budget.release(r);
+        }
+    }
+
+    /**
+     * Drops the budget of a node that has gone offline, the next a³ invocation on the node gets a new budget from
+     * the capabilities probed when it is online again. Reservations granted by the dropped budget are still released
+     * to it, so that invocations waiting for it are not stuck.
+     * @param nodeName name of the build node
+     */
+    static void forget(String nodeName) {
+        budgets.remove(nodeName);
+    }
+
+    /**
+     * Returns the budget of a node for display
+     * @param nodeName name of the build node
+     * @return NodeBudget or null if no a³ run has been launched on that node yet
+     */
+    public static NodeBudget getBudget(String nodeName) {
+        return budgets.get(nodeName);
+    }
+
+    /* used to hide the constructor */
+    private A3NodeResourceGovernor() {}
+}
@@ -0,0 +1,280 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.console.LineTransformationOutputStream;
+import hudson.remoting.RemoteOutputStream;
+import hudson.remoting.VirtualChannel;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Writes the complete console output of the a³ runs of a build to a compressed log file.
+ * <p>
+ * The log consists of independent gzip members of {@link #LINES_PER_SEGMENT} lines each. A gzip reader
+ * decompresses the whole file as usual, but a single segment can also be read on its own starting at
+ * its recorded offset, so the viewer does not need to decompress the log from the beginning.
+ * <p>
+ * The log is written and compressed on the build node: {@link Open} returns a remote stream for the lines,
+ * and the {@link Index} of the closed log is read with {@link ReadIndex}.
+ */
+public class A3OutputLog implements Closeable {
+
+    /* Number of lines per independently readable gzip member */
+    public static final int LINES_PER_SEGMENT = 10000;
+
+    /**
+     * Counts the bytes written and keeps the underlying stream open when a segment is closed
+     */
+    private static class SegmentStream extends FilterOutputStream {
+        private long count = 0;
+
+        SegmentStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    private final OutputStream raw;
+    private final SegmentStream stream;
+    private GZIPOutputStream segment;
+    private final List<Long> offsets = new ArrayList<Long>();
+    private long lines = 0;
+
+    /**
+     * Constructor
+     * @param raw OutputStream of the log file
+     */
+    public A3OutputLog(OutputStream raw) {
+        this.raw = raw;
+        this.stream = new SegmentStream(raw);
+    }
+
+    /**
+     * Appends a line (including its line terminator) to the log
+     * @param b   buffer holding the line
+     * @param len length of the line
+     */
+    public synchronized void writeLine(byte[] b, int len) throws IOException {
+        if (segment == null) {
+            offsets.add(stream.count);
+            segment = new GZIPOutputStream(stream, 65536);
+        }
+        segment.write(b, 0, len);
+        lines++;
+        if (lines % LINES_PER_SEGMENT == 0) {
+            segment.close(); // ends the gzip member only
+            segment = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+        raw.close();
+    }
+
+    /**
+     * Returns the start offsets of the segments in the log file
+     * @return List of byte offsets
+     */
+    public synchronized List<Long> getOffsets() {
+        return new ArrayList<Long>(offsets);
+    }
+
+    public synchronized long getLineCount() {
+        return lines;
+    }
+
+    /**
+     * Returns the size of the compressed log written so far
+     * @return size in bytes
+     */
+    public synchronized long getSize() {
+        return stream.count;
+    }
+
+    /**
+     * Line count, segment offsets and size of a closed log
+     */
+    public static class Index implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Long> offsets;
+        private final long lineCount;
+        private final long size;
+
+        public Index(List<Long> offsets, long lineCount, long size) {
+            this.offsets = new ArrayList<Long>(offsets);
+            this.lineCount = lineCount;
+            this.size = size;
+        }
+
+        public List<Long> getOffsets() {
+            return Collections.unmodifiableList(offsets);
+        }
+
+        public long getLineCount() {
+            return lineCount;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    private static File indexFile(File log) {
+        return new File(log.getPath() + ".idx");
+    }
+
+    /**
+     * Splits the lines written to the remote stream and writes them to the log on the build node.
+     * The index of the log is stored next to it when the stream is closed.
+     */
+    private static class LineWriter extends LineTransformationOutputStream {
+        private final A3OutputLog log;
+        private final File file;
+
+        LineWriter(A3OutputLog log, File file) {
+            this.log = log;
+            this.file = file;
+        }
+
+        @Override
+        protected void eol(byte[] b, int len) throws IOException {
+            log.writeLine(b, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            forceEol();
+            log.close();
+            StringBuilder index = new StringBuilder();
+            index.append(log.getLineCount()).append(' ').append(log.getSize());
+            for (long offset : log.getOffsets()) {
+                index.append(' ').append(offset);
+            }
+            Files.write(indexFile(file).toPath(), index.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Creates the log file on the build node and returns a stream for its lines, so that the output
+     * is compressed on the build node instead of the controller
+     */
+    public static class Open extends MasterToSlaveFileCallable<OutputStream> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public OutputStream invoke(File f, VirtualChannel channel) throws IOException {
+            Files.deleteIfExists(indexFile(f).toPath());
+            return new RemoteOutputStream(new LineWriter(new A3OutputLog(new FileOutputStream(f)), f));
+        }
+    }
+
+    /**
+     * Reads the index of a log closed through the stream returned by {@link Open}. Waits for the pending
+     * writes of the stream first, they are executed asynchronously on the build node.
+     */
+    public static class ReadIndex extends MasterToSlaveFileCallable<Index> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Index invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
+            channel.syncLocalIO();
+            File index = indexFile(f);
+            if (!index.exists()) {
+                return null;
+            }
+            String[] fields = new String(Files.readAllBytes(index.toPath()), StandardCharsets.US_ASCII)
+                    .trim()
+                    .split(" ");
+            List<Long> offsets = new ArrayList<Long>();
+            for (int i = 2; i < fields.length; i++) {
+                offsets.add(Long.valueOf(fields[i]));
+            }
+            Files.delete(index.toPath());
+            return new Index(offsets, Long.parseLong(fields[0]), Long.parseLong(fields[1]));
+        }
+    }
+
+    /**
+     * Reads a byte range of the log file on the build node
+     */
+    public static class ReadRange extends MasterToSlaveFileCallable<byte[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final long offset;
+        private final int length;
+
+        public ReadRange(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public byte[] invoke(File f, VirtualChannel channel) throws IOException {
+            try (RandomAccessFile file = new RandomAccessFile(f, "r")) {
+                byte[] buffer = new byte[length];
+                file.seek(offset);
+                file.readFully(buffer);
+                return buffer;
+            }
+        }
+    }
+}
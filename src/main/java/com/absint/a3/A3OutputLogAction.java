@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.remoting.VirtualChannel;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jenkins.model.Jenkins;
+import jenkins.model.RunAction2;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+
+/**
+ * Viewer of the complete a³ output of a build, written to a compressed log file on the build node
+ * (see {@link A3OutputLog}) while the console shows the important lines only.
+ * The log is shown in segments, which are read from the build node or, if the log has been archived,
+ * from the {@link A3ArchiveAction archive} of the build.
+ */
+public class A3OutputLogAction implements RunAction2 {
+
+    /* Name of the log in the archive of the build */
+    public static final String ARCHIVE_NAME = "a3-output.log.gz";
+
+    private final String node;
+    private final String path;
+    private final List<Long> offsets;
+    private final long lineCount;
+    private final long size;
+    private transient Run<?, ?> run;
+
+    /**
+     * Constructor
+     * @param node name of the build node ("" for the controller)
+     * @param path  path of the log file on the build node
+     * @param index index of the closed log
+     */
+    public A3OutputLogAction(String node, String path, A3OutputLog.Index index) {
+        this.node = node;
+        this.path = path;
+        this.offsets = new ArrayList<Long>(index.getOffsets());
+        this.lineCount = index.getLineCount();
+        this.size = index.getSize();
+    }
+
+    public String getIconFileName() {
+        return "symbol-terminal";
+    }
+
+    public String getDisplayName() {
+        return "a³ Output";
+    }
+
+    public String getUrlName() {
+        return "a3-output";
+    }
+
+    public void onAttached(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public void onLoad(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of the first line of each segment, for the page links of the viewer
+     * @return List of line numbers (1-based)
+     */
+    public List<Long> getSegmentStartLines() {
+        List<Long> lines = new ArrayList<Long>();
+        for (int i = 0; i < offsets.size(); i++) {
+            lines.add((long) i * A3OutputLog.LINES_PER_SEGMENT + 1);
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * Serves one segment of the log as plain text: <tt>a3-output/text?segment=&lt;n&gt;</tt>
+     */
+    public void doText(StaplerRequest2 req, StaplerResponse2 rsp) throws IOException {
+        run.getParent().checkPermission(Item.WORKSPACE);
+        int segment;
+        try {
+            segment = Integer.parseInt(req.getParameter("segment") == null ? "0" : req.getParameter("segment"));
+        } catch (NumberFormatException e) {
+            segment = -1;
+        }
+        if (segment < 0 || segment >= offsets.size()) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND, "No such segment of the a³ output");
+            return;
+        }
+        long start = offsets.get(segment);
+        long end = (segment + 1 < offsets.size() ? offsets.get(segment + 1) : size);
+
+        byte[] compressed;
+        try {
+            compressed = readRange(start, (int) (end - start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rsp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Reading the a³ output was interrupted");
+            return;
+        }
+        if (compressed == null) {
+            rsp.sendError(HttpServletResponse.SC_GONE, "The a³ output " + path + " is not available anymore");
+            return;
+        }
+        rsp.setContentType("text/plain;charset=UTF-8");
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed));
+                OutputStream out = rsp.getOutputStream()) {
+            in.transferTo(out);
+        }
+    }
+
+    /**
+     * Reads a byte range of the compressed log
+     * @return the bytes, null if the log is neither available on the node nor archived
+     */
+    private byte[] readRange(long offset, int length) throws IOException, InterruptedException {
+        Computer computer = Jenkins.get().getComputer(node);
+        VirtualChannel channel = (computer != null ? computer.getChannel() : null);
+        if (channel != null) {
+            FilePath file = new FilePath(channel, path);
+            if (file.exists() && file.length() >= offset + length) {
+                return file.act(new A3OutputLog.ReadRange(offset, length));
+            }
+        }
+        A3ArchiveAction archive = run.getAction(A3ArchiveAction.class);
+        A3ArchiveStore.Entry archived = (archive != null ? archive.getFile(ARCHIVE_NAME) : null);
+        if (archived == null) {
+            return null;
+        }
+        try (InputStream in = A3ArchiveStore.open(archived.getDigest())) {
+            in.skipNBytes(offset);
+            return in.readNBytes(length);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.console.LineTransformationOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Forwards the console output of an a³ run line by line and watches it for
+ * messages the plugin has to react on (e.g. license checkout failures).
+ * <br>
+ * The output is also used to follow the progress of the analysis items: an item counts as
+ * started with the first line mentioning its ID together with a start keyword (e.g. "Starting analysis")
+ * and as finished with the first line mentioning its ID together with a completion keyword
+ * (e.g. "finished", "completed"). Other lines mentioning an item, e.g. its errors and warnings,
+ * do not change its state.
+ */
+public class A3OutputMonitor extends LineTransformationOutputStream {
+
+    /* Severity prefix of an a³ error message, optionally naming the analysis item, e.g. "Error: " or "Error in a1: " */
+    private static final String ERROR_PREFIX = "^\\s*(?:fatal )?error(?: in [A-Za-z0-9_]+)?:\\s*";
+
+    /*
+     * The license and infrastructure patterns are anchored to the start of the messages of a³ and its license
+     * manager, so that other lines mentioning such words (routine names, source lines, ...) do not trigger a
+     * retry. The item and filter patterns are searched (find()) anywhere in the line.
+     */
+    private static final Pattern LICENSE_FAILURE = Pattern.compile("(?i)(?:" + ERROR_PREFIX + "|^\\s*)(?:"
+            + "licen[cs]e (?:checkout|request|allocation) (?:failed|denied|timed out)"
+            + "|no free licen[cs]e"
+            + "|licen[cs]e server (?:is )?(?:not available|unavailable|not reachable|unreachable|timed out)"
+            + "|licen[cs]e (?:has )?expired)");
+
+    private static final Pattern ITEM_STARTED = Pattern.compile("(?i)\\b(start(s|ed|ing)?|running|analy[sz]ing)\\b");
+    private static final Pattern ITEM_FINISHED =
+            Pattern.compile("(?i)\\b(finished|completed|succeeded|done|terminated)\\b");
+    /* Infrastructure errors besides license failures (LICENSE_FAILURE), only as error messages */
+    private static final Pattern INFRASTRUCTURE_ERROR = Pattern.compile("(?i)" + ERROR_PREFIX + "(?:"
+            + "out of memory|cannot allocate memory|(?:std::)?bad_alloc|insufficient memory|no space left on device"
+            + "|connection (?:to .+ )?(?:refused|reset|lost))");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^A-Za-z0-9_]+");
+
+    /* Lines shown in the console in filtered mode: errors, warnings and item summaries */
+    private static final Pattern IMPORTANT = Pattern.compile(
+            "(?i)\\b(error|warning|fatal|exception|abort(ed)?|fail(ed|ure)?|finished|completed|succeeded|result|expectation)\\b");
+
+    private final OutputStream out;
+    private boolean licenseFailure = false;
+
+    private OutputStream fullLog;
+    private long suppressedLines = 0;
+
+    private final Set<String> ids;
+    private final Map<String, Long> started = new HashMap<String, Long>();
+    private final Set<String> finished = new HashSet<String>();
+    private final Set<String> infrastructureErrorItems = new HashSet<String>();
+    private boolean infrastructureError = false;
+
+    /**
+     * Constructor
+     * @param out OutputStream the a³ output is forwarded to, usually the build log
+     */
+    public A3OutputMonitor(OutputStream out) {
+        this(out, Collections.<String>emptyList());
+    }
+
+    /**
+     * Constructor
+     * @param out OutputStream the a³ output is forwarded to, usually the build log
+     * @param ids Analysis IDs whose progress shall be followed
+     */
+    public A3OutputMonitor(OutputStream out, Collection<String> ids) {
+        this.out = out;
+        this.ids = new HashSet<String>(ids);
+    }
+
+    @Override
+    protected void eol(byte[] b, int len) throws IOException {
+        String line = trimEOL(new String(b, 0, len, StandardCharsets.UTF_8));
+        boolean license = LICENSE_FAILURE.matcher(line).find();
+        if (fullLog == null) {
+            out.write(b, 0, len);
+        } else {
+            fullLog.write(b, 0, len);
+            if (license || IMPORTANT.matcher(line).find()) {
+                out.write(b, 0, len);
+            } else {
+                suppressedLines++;
+            }
+        }
+        if (license) {
+            licenseFailure = true;
+        }
+        if (!ids.isEmpty()) {
+            trackItems(line);
+            if (license || INFRASTRUCTURE_ERROR.matcher(line).find()) {
+                recordInfrastructureError(line);
+            }
+        }
+    }
+
+    private synchronized void recordInfrastructureError(String line) {
+        boolean item = false;
+        for (String token : TOKEN_SEPARATOR.split(line)) {
+            if (ids.contains(token)) {
+                infrastructureErrorItems.add(token);
+                item = true;
+            }
+        }
+        if (!item) {
+            infrastructureError = true; // not related to a particular item
+        }
+    }
+
+    /**
+     * Writes the complete output to a log and forwards only the important lines
+     * (errors, warnings, item summaries) to the build log
+     * @param fullLog stream of the log receiving all lines (see {@link A3OutputLog.Open})
+     */
+    public void setFullLog(OutputStream fullLog) {
+        this.fullLog = fullLog;
+    }
+
+    /**
+     * Returns the number of lines not forwarded to the build log
+     * @return number of lines only written to the full log
+     */
+    public long getSuppressedLines() {
+        return suppressedLines;
+    }
+
+    /**
+     * Returns the items affected by infrastructure errors (license, memory, connection problems)
+     * @return Set of Analysis IDs, all followed items if an error was not related to a particular item
+     */
+    public synchronized Set<String> getInfrastructureErrorItems() {
+        return new HashSet<String>(infrastructureError ? ids : infrastructureErrorItems);
+    }
+
+    private synchronized void trackItems(String line) {
+        int state = -1; // not checked yet, 0: no marker, 1: start marker, 2: completion marker
+        for (String token : TOKEN_SEPARATOR.split(line)) {
+            if (!ids.contains(token) || finished.contains(token)) continue;
+            if (state < 0) {
+                state = (ITEM_FINISHED.matcher(line).find() ? 2 : ITEM_STARTED.matcher(line).find() ? 1 : 0);
+            }
+            if (state == 2) {
+                finished.add(token);
+            } else if (state == 1 && !started.containsKey(token)) {
+                started.put(token, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Returns the items that have been started but not finished yet. Items only waiting for
+     * an analysis worker have not been started.
+     * @return Map of (AnalysisID, start time as System.nanoTime())
+     */
+    public synchronized Map<String, Long> getRunningItems() {
+        Map<String, Long> running = new HashMap<String, Long>(started);
+        running.keySet().removeAll(finished);
+        return running;
+    }
+
+    /**
+     * Checks if an item has been finished according to the output
+     * @param id Analysis ID
+     * @return true if the item has been reported as finished
+     */
+    public synchronized boolean isFinished(String id) {
+        return finished.contains(id);
+    }
+
+    /**
+     * Flushes a pending incomplete line, but does not close the underlying stream (the build log)
+     */
+    @Override
+    public void close() throws IOException {
+        forceEol();
+        out.flush();
+    }
+
+    /**
+     * Checks if a³ reported a license checkout failure
+     * @return true if a license failure message was found in the output
+     */
+    public boolean isLicenseFailure() {
+        return licenseFailure;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the phases of an a³ build step (package scan, unzip, version check, APX parsing,
+ * analysis, XML evaluation ...) with a monotonic clock, together with the number of bytes
+ * processed by each phase.
+ */
+public class A3PhaseTimer implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Duration of a finished phase
+     */
+    public static class Phase implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final long startMillis;
+        private final long durationMillis;
+        private final long bytes;
+
+        Phase(String name, long startMillis, long durationMillis, long bytes) {
+            this.name = name;
+            this.startMillis = startMillis;
+            this.durationMillis = durationMillis;
+            this.bytes = bytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the wall clock time the phase started at
+         * @return time in milliseconds since the epoch
+         */
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /**
+         * Returns the number of bytes processed by the phase
+         * @return number of bytes, -1 if not applicable
+         */
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * A running phase
+     */
+    public class Running {
+        private final String name;
+        private final long startMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private boolean stopped = false;
+        private long durationMillis = 0;
+
+        Running(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Stops the phase
+         * @return duration of the phase in milliseconds
+         */
+        public long stop() {
+            return stop(-1);
+        }
+
+        /**
+         * Stops the phase
+         * @param bytes number of bytes processed by the phase
+         * @return duration of the phase in milliseconds
+         */
+        public long stop(long bytes) {
+            if (!stopped) {
+                stopped = true;
+                durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                add(new Phase(name, startMillis, durationMillis, bytes));
+            }
+            return durationMillis;
+        }
+    }
+
+    private final List<Phase> phases = new ArrayList<Phase>();
+
+    /**
+     * Starts a phase
+     * @param name name of the phase
+     * @return the running phase, to be stopped at its end
+     */
+    public Running start(String name) {
+        return new Running(name);
+    }
+
+    private synchronized void add(Phase phase) {
+        phases.add(phase);
+    }
+
+    /**
+     * Adds the phases measured by another timer, e.g. of the tool installer
+     * @param other timer
+     */
+    public synchronized void addAll(A3PhaseTimer other) {
+        phases.addAll(other.getPhases());
+    }
+
+    /**
+     * Returns the finished phases in the order they have been finished
+     * @return List of phases
+     */
+    public synchronized List<Phase> getPhases() {
+        return Collections.unmodifiableList(new ArrayList<Phase>(phases));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.Run;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import jenkins.model.RunAction2;
+
+/**
+ * Tracks the post-processing tasks of a build (copying, archiving, compressing and cleaning up files) that are
+ * performed after its verdict has been decided (see {@link A3PostProcessor}). Most of them run detached from the
+ * build step and finish after it, possibly after the build. The state of the tasks is shown on the build page and
+ * persisted with the build.
+ */
+public class A3PostProcessingAction implements RunAction2 {
+
+    /** State of a post-processing task */
+    public enum State {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED,
+        INTERRUPTED
+    }
+
+    /**
+     * A single post-processing task of the build
+     */
+    public static class Task {
+        private final String name;
+        private State state = State.PENDING;
+        private final long queuedMillis = System.currentTimeMillis();
+        private long startMillis, endMillis;
+        private String log = "";
+
+        Task(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * Returns the wall clock time the task started at
+         * @return time in milliseconds since the epoch, 0 if the task has not been started yet
+         */
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        /**
+         * Returns the time the task waited in the queue of the post-processing executor
+         * @return waiting time in milliseconds
+         */
+        public long getWaitingMillis() {
+            return (startMillis == 0 ? System.currentTimeMillis() : startMillis) - queuedMillis;
+        }
+
+        /**
+         * Returns the duration of the task
+         * @return duration in milliseconds, 0 if the task has not been started yet
+         */
+        public long getDurationMillis() {
+            if (startMillis == 0) {
+                return 0;
+            }
+            return (endMillis == 0 ? System.currentTimeMillis() : endMillis) - startMillis;
+        }
+
+        public String getLog() {
+            return log;
+        }
+    }
+
+    private final List<Task> tasks = new ArrayList<Task>();
+    private transient Run<?, ?> run;
+
+    public String getIconFileName() {
+        return "symbol-document-text";
+    }
+
+    public String getDisplayName() {
+        return "a³ Post-processing";
+    }
+
+    public String getUrlName() {
+        return "a3-postprocessing";
+    }
+
+    public void onAttached(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public void onLoad(Run<?, ?> r) {
+        this.run = r;
+        synchronized (this) {
+            // Tasks not finished before a restart of Jenkins will never be finished
+            for (Task task : tasks) {
+                if (task.state == State.PENDING || task.state == State.RUNNING) {
+                    task.state = State.INTERRUPTED;
+                }
+            }
+        }
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public synchronized List<Task> getTasks() {
+        return Collections.unmodifiableList(new ArrayList<Task>(tasks));
+    }
+
+    /**
+     * Checks if all post-processing tasks have been finished
+     * @return true if no task is pending or running
+     */
+    public synchronized boolean isCompleted() {
+        for (Task task : tasks) {
+            if (task.state == State.PENDING || task.state == State.RUNNING) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized Task addTask(String name) {
+        Task task = new Task(name);
+        tasks.add(task);
+        return task;
+    }
+
+    synchronized void started(Task task) {
+        task.state = State.RUNNING;
+        task.startMillis = System.currentTimeMillis();
+    }
+
+    void finished(Task task, boolean success, String log) {
+        synchronized (this) {
+            task.state = (success ? State.DONE : State.FAILED);
+            task.endMillis = System.currentTimeMillis();
+            task.log = log;
+        }
+        save();
+    }
+
+    private void save() {
+        if (run == null) {
+            return;
+        }
+        try {
+            run.save();
+        } catch (IOException e) {
+            // Keep the state in memory, it is lost on restart only
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import hudson.util.StreamTaskListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Post-processing of a³ builds (copying, archiving, compressing and cleaning up files).
+ * <p>
+ * Only the tasks whose results later build steps use, the copies to the Jenkins a3workspace, are performed by the
+ * build step itself ({@link #perform}). The other tasks are submitted ({@link #submit}) and run detached from the
+ * build: the build step returns and frees its executor without waiting for them. Their state and output are
+ * recorded in the {@link A3PostProcessingAction} of the build. They only access files of the build itself or
+ * files of older builds, so they do not interfere with later builds using the workspace.
+ */
+public final class A3PostProcessor {
+
+    private static final Logger LOGGER = Logger.getLogger(A3PostProcessor.class.getName());
+
+    /* Number of threads for the detached tasks of all builds, the tasks wait mostly for the build nodes */
+    private static final int THREADS = Integer.getInteger(A3PostProcessor.class.getName() + ".threads", 8);
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
+            THREADS,
+            THREADS,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new NamingThreadFactory(new DaemonThreadFactory(), "A3PostProcessor"));
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private A3PostProcessor() {}
+
+    /**
+     * A post-processing task. Its output is recorded with the task.
+     */
+    public interface Work {
+        /**
+         * Performs the task
+         * @param listener TaskListener for the output of the task
+         * @return true if the task succeeded
+         */
+        boolean perform(TaskListener listener) throws IOException, InterruptedException;
+    }
+
+    /**
+     * Performs a post-processing task of a build in the build step and copies its output to the build log
+     * @param build    the build
+     * @param action   post-processing action of the build, tracks the state of the task
+     * @param name     name of the task shown on the build page
+     * @param work     the task
+     * @param listener TaskListener of the build
+     * @return true if the task succeeded
+     * @throws InterruptedException if the build has been aborted
+     */
+    public static boolean perform(
+            Run<?, ?> build, A3PostProcessingAction action, String name, Work work, TaskListener listener)
+            throws InterruptedException {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        boolean success = run(build, action, action.addTask(name), name, work, log);
+        listener.getLogger().print(new String(log.toByteArray(), StandardCharsets.UTF_8));
+        return success;
+    }
+
+    /**
+     * Submits a post-processing task of a build, which runs detached from the build step
+     * @param build  the build
+     * @param action post-processing action of the build, tracks the state of the task
+     * @param name   name of the task shown on the build page
+     * @param work   the task
+     */
+    public static void submit(Run<?, ?> build, A3PostProcessingAction action, String name, Work work) {
+        final A3PostProcessingAction.Task task = action.addTask(name);
+        EXECUTOR.execute(() -> {
+            try {
+                run(build, action, task, name, work, new ByteArrayOutputStream());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private static boolean run(
+            Run<?, ?> build,
+            A3PostProcessingAction action,
+            A3PostProcessingAction.Task task,
+            String name,
+            Work work,
+            ByteArrayOutputStream log)
+            throws InterruptedException {
+        action.started(task);
+        boolean success = false;
+        try {
+            success = work.perform(new StreamTaskListener(log, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "a³ post-processing task '" + name + "' of " + build + " failed", e);
+        } finally {
+            action.finished(task, success, new String(log.toByteArray(), StandardCharsets.UTF_8));
+        }
+        return success;
+    }
+
+    /**
+     * Returns the number of detached post-processing tasks waiting for a thread
+     * @return queue length
+     */
+    public static int getQueueLength() {
+        return EXECUTOR.getQueue().size();
+    }
+
+    /**
+     * Returns the number of detached post-processing tasks currently running
+     * @return number of active threads
+     */
+    public static int getActiveCount() {
+        return EXECUTOR.getActiveCount();
+    }
+}
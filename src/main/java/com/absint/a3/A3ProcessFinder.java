@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.util.ProcessTree;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds the processes of an a³ run on the build node, used by {@link A3ProcessTreeKiller} and
+ * {@link A3ProcessSampler} (and thus only called on the build node).
+ * <p>
+ * The processes are identified by the cookie environment variable of the run ({@link A3ProcessTreeKiller#COOKIE_VAR}).
+ * Children might have been started with a cleaned environment, so the descendants of the matching processes
+ * are taken as well. Scanning the environments of all processes of the node is expensive, so processes found
+ * before can be followed by their PIDs instead.
+ */
+final class A3ProcessFinder {
+
+    private A3ProcessFinder() {}
+
+    /**
+     * Finds the processes of a run by scanning the environments of all processes of the node
+     * @param cookieValue value of the cookie environment variable of the run
+     * @return the matching processes and their descendants
+     */
+    static List<ProcessHandle> find(String cookieValue) {
+        Map<String, String> cookie = Collections.singletonMap(A3ProcessTreeKiller.COOKIE_VAR, cookieValue);
+        List<ProcessHandle> roots = new ArrayList<ProcessHandle>();
+        for (ProcessTree.OSProcess p : ProcessTree.get()) {
+            if (p.hasMatchingEnvVars(cookie)) {
+                Optional<ProcessHandle> handle = ProcessHandle.of(p.getPid());
+                if (handle.isPresent()) roots.add(handle.get());
+            }
+        }
+        return withDescendants(roots);
+    }
+
+    /**
+     * Follows processes found before by their PIDs, without scanning the environments
+     * @param pids PIDs of the processes found before
+     * @return the processes still alive and their (possibly new) descendants
+     */
+    static List<ProcessHandle> follow(Collection<Long> pids) {
+        List<ProcessHandle> roots = new ArrayList<ProcessHandle>();
+        for (long pid : pids) {
+            Optional<ProcessHandle> handle = ProcessHandle.of(pid);
+            if (handle.isPresent() && handle.get().isAlive()) roots.add(handle.get());
+        }
+        return withDescendants(roots);
+    }
+
+    private static List<ProcessHandle> withDescendants(List<ProcessHandle> roots) {
+        Set<ProcessHandle> handles = new LinkedHashSet<ProcessHandle>(roots);
+        for (ProcessHandle root : roots) {
+            root.descendants().forEach(handles::add);
+        }
+        return new ArrayList<ProcessHandle>(handles);
+    }
+}
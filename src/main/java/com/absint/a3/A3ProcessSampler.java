@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Samples CPU time and resident memory of all processes of an a³ run on the build node. The processes
+ * are identified by the cookie environment variable of the run (see {@link A3ProcessFinder}). As scanning
+ * all processes of the node is expensive, a sample returns the PIDs it found, and the next sample only
+ * follows these processes and their descendants if they are passed back.
+ * <br>
+ * On Linux the values are read from <tt>/proc</tt>, on other systems only the CPU time is available.
+ */
+public class A3ProcessSampler extends MasterToSlaveCallable<A3ProcessSampler.Sample, IOException> {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Clock ticks per second of the utime/stime values in /proc/<pid>/stat (USER_HZ, fixed by the Linux ABI) */
+    private static final long USER_HZ = 100;
+
+    /**
+     * Resource usage of the processes of an a³ run at one point in time
+     */
+    public static class Sample implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Map<Long, Long> cpuMillis;
+        private final long rssBytes;
+        private final ArrayList<Long> pids;
+
+        Sample(Map<Long, Long> cpuMillis, long rssBytes, List<Long> pids) {
+            this.cpuMillis = cpuMillis;
+            this.rssBytes = rssBytes;
+            this.pids = new ArrayList<Long>(pids);
+        }
+
+        /**
+         * Returns the PIDs of the sampled processes, to be followed by the next sample
+         * @return List of PIDs
+         */
+        public List<Long> getPids() {
+            return Collections.unmodifiableList(pids);
+        }
+
+        /**
+         * Returns the CPU time consumed so far per process
+         * @return Map of (pid, CPU time in milliseconds) pairs
+         */
+        public Map<Long, Long> getCpuMillis() {
+            return Collections.unmodifiableMap(cpuMillis);
+        }
+
+        /**
+         * Returns the sum of the resident memory of the processes
+         * @return bytes, -1 if not available on the node
+         */
+        public long getRssBytes() {
+            return rssBytes;
+        }
+    }
+
+    private final String cookieValue;
+    private final ArrayList<Long> knownPids;
+
+    /**
+     * Constructor
+     * @param cookieValue value of the cookie environment variable of the a³ run
+     * @param knownPids   PIDs returned by the previous sample, empty to find the processes by the cookie
+     */
+    public A3ProcessSampler(String cookieValue, Collection<Long> knownPids) {
+        this.cookieValue = cookieValue;
+        this.knownPids = new ArrayList<Long>(knownPids);
+    }
+
+    @Override
+    public Sample call() throws IOException {
+        List<ProcessHandle> handles = (knownPids.isEmpty() ? null : A3ProcessFinder.follow(knownPids));
+        if (handles == null || handles.isEmpty()) {
+            handles = A3ProcessFinder.find(cookieValue);
+        }
+        List<Long> pids = new ArrayList<Long>();
+
+        boolean procfs = Files.isDirectory(Paths.get("/proc/self"));
+        Map<Long, Long> cpu = new HashMap<Long, Long>();
+        long rss = (procfs ? 0 : -1);
+        for (ProcessHandle h : handles) {
+            pids.add(h.pid());
+            if (procfs) {
+                long[] usage = readProc(h.pid());
+                if (usage != null) {
+                    cpu.put(h.pid(), usage[0]);
+                    rss += usage[1];
+                }
+            } else {
+                Optional<java.time.Duration> total = h.info().totalCpuDuration();
+                if (total.isPresent()) cpu.put(h.pid(), total.get().toMillis());
+            }
+        }
+        return new Sample(cpu, rss, pids);
+    }
+
+    /**
+     * Reads CPU time and resident memory of a process from /proc
+     * @return {CPU time in milliseconds, resident memory in bytes}, null if the process is gone
+     */
+    private static long[] readProc(long pid) {
+        Path dir = Paths.get("/proc", Long.toString(pid));
+        try {
+            // The command name (2nd field) may contain blanks, the fields are counted after its closing parenthesis
+            String stat = new String(Files.readAllBytes(dir.resolve("stat")), StandardCharsets.US_ASCII);
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]); // utime + stime
+            long rssKB = 0;
+            for (String line : Files.readAllLines(dir.resolve("status"), StandardCharsets.US_ASCII)) {
+                if (line.startsWith("VmRSS:")) {
+                    rssKB = Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+                    break;
+                }
+            }
+            return new long[] {ticks * 1000 / USER_HZ, rssKB * 1024};
+        } catch (IOException | RuntimeException e) {
+            return null; // terminated in the meantime
+        }
+    }
+}
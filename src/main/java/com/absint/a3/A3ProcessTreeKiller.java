@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Terminates all processes of an a³ run on the build node, including the processes started by
+ * alauncher. The processes are identified by a cookie environment variable passed to the a³ run.
+ * They are asked to terminate first and are killed forcibly if they are still alive after
+ * the grace period.
+ * <br>
+ * Returns {number of processes found, number of processes killed forcibly, number of processes still alive}.
+ */
+public class A3ProcessTreeKiller extends MasterToSlaveCallable<int[], IOException> {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Name of the environment variable identifying the processes of an a³ run */
+    public static final String COOKIE_VAR = "ABSINT_A3_JENKINS_COOKIE";
+
+    private final String cookieValue;
+    private final long graceSeconds;
+
+    /**
+     * Constructor
+     * @param cookieValue value of the cookie environment variable of the a³ run
+     * @param graceSeconds time the processes get to terminate before they are killed forcibly
+     */
+    public A3ProcessTreeKiller(String cookieValue, long graceSeconds) {
+        this.cookieValue = cookieValue;
+        this.graceSeconds = graceSeconds;
+    }
+
+    @Override
+    public int[] call() throws IOException {
+        List<ProcessHandle> handles = A3ProcessFinder.find(cookieValue);
+
+        for (ProcessHandle h : handles) {
+            h.destroy();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(graceSeconds);
+        try {
+            while (System.nanoTime() < deadline && handles.stream().anyMatch(ProcessHandle::isAlive)) {
+                Thread.sleep(200);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // skip the rest of the grace period
+        }
+
+        int forced = 0;
+        for (ProcessHandle h : handles) {
+            if (h.isAlive() && h.destroyForcibly()) forced++;
+        }
+        try {
+            Thread.sleep(500); // give the OS a moment to reap the killed processes
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int alive = (int) handles.stream().filter(ProcessHandle::isAlive).count();
+        return new int[] {handles.size(), forced, alive};
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded cache of the HTML report files served by {@link A3ReportsAction}.
+ * The reports are keyed by their content digest, so a report shared by several builds is cached once.
+ * The least recently used reports are evicted when the total size exceeds the limit, which can be
+ * changed with the system property <tt>com.absint.a3.A3ReportCache.maxMB</tt> (default 64 MB).
+ */
+public final class A3ReportCache {
+
+    private static final long MAX_BYTES = Long.getLong(A3ReportCache.class.getName() + ".maxMB", 64) * 1024 * 1024;
+
+    /* Access ordered, the eldest entry is the least recently used one */
+    private static final LinkedHashMap<String, byte[]> CACHE = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+    private static long size = 0;
+
+    private A3ReportCache() {}
+
+    /**
+     * Returns a cached report
+     * @param digest content digest of the report
+     * @return content of the report, null if it is not cached
+     */
+    public static synchronized byte[] get(String digest) {
+        return CACHE.get(digest);
+    }
+
+    /**
+     * Checks if a report of the given size can be cached at all
+     * @param length size of the report in bytes
+     * @return true if the report is not larger than a quarter of the cache
+     */
+    public static boolean accepts(long length) {
+        return length <= MAX_BYTES / 4;
+    }
+
+    /**
+     * Adds a report to the cache, evicting the least recently used reports if needed.
+     * Reports larger than a quarter of the cache are not cached at all.
+     * @param digest  content digest of the report
+     * @param content content of the report
+     */
+    public static synchronized void put(String digest, byte[] content) {
+        if (!accepts(content.length) || CACHE.containsKey(digest)) {
+            return;
+        }
+        CACHE.put(digest, content);
+        size += content.length;
+        for (Iterator<Map.Entry<String, byte[]>> it = CACHE.entrySet().iterator();
+                size > MAX_BYTES && it.hasNext(); ) {
+            size -= it.next().getValue().length;
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the total size of the cached reports
+     * @return size in bytes
+     */
+    public static synchronized long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Run;
+import hudson.remoting.VirtualChannel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletResponse;
+import jenkins.model.Jenkins;
+import jenkins.model.RunAction2;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+
+/**
+ * Serves the HTML report files of the analysis items of a build on demand.
+ * <p>
+ * Instead of copying every HTML report file to the Jenkins a3workspace, the build only records where each
+ * report is located and the digest of its content, computed on the build node. Nothing is transferred to the
+ * controller by the build, unless the a³ files of the build are archived ({@link A3Builder#isArchive_files()}).
+ * <br>
+ * When a report is opened the first time, it is fetched from the build node, provided it still matches the
+ * digest, and added to the {@link A3ArchiveStore} for the build, so it can still be served after a later analysis
+ * run has overwritten it on the node. As the store is content-addressed, a report that did not change since an
+ * earlier build is stored only once. Small reports are also kept in the {@link A3ReportCache}.
+ */
+public class A3ReportsAction implements RunAction2 {
+
+    /**
+     * Location and content digest of an HTML report file
+     */
+    public static class Report implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String node;
+        private final String path;
+        private final String digest;
+        private final long length;
+
+        /**
+         * Constructor
+         * @param node   name of the build node ("" for the controller)
+         * @param path   path of the report on the build node
+         * @param digest content digest (SHA-256) of the report
+         * @param length size of the report in bytes
+         */
+        public Report(String node, String path, String digest, long length) {
+            this.node = node;
+            this.path = path;
+            this.digest = digest;
+            this.length = length;
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+
+    private final LinkedHashMap<String, Report> reports = new LinkedHashMap<String, Report>();
+    private transient Run<?, ?> run;
+
+    public String getIconFileName() {
+        return "symbol-document-text";
+    }
+
+    public String getDisplayName() {
+        return "a³ HTML Reports";
+    }
+
+    public String getUrlName() {
+        return "a3-reports";
+    }
+
+    public void onAttached(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public void onLoad(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public synchronized Map<String, Report> getReports() {
+        return Collections.unmodifiableMap(new LinkedHashMap<String, Report>(reports));
+    }
+
+    synchronized void addReport(String id, Report report) {
+        reports.put(id, report);
+    }
+
+    /**
+     * Records the location and content digest of an HTML report file, the digest is computed on the build node.
+     * If an archive is given, the report is archived as well.
+     * @param id      Analysis ID
+     * @param file    HTML report file on the build node
+     * @param node    name of the build node
+     * @param archive archive of the build, null to archive the report only when it is opened
+     * @return true if the report exists and has been recorded
+     * @throws IOException if the report could not be fingerprinted, or has been recorded but could not be archived
+     */
+    public boolean record(String id, FilePath file, String node, A3ArchiveAction archive)
+            throws IOException, InterruptedException {
+        if (!file.exists()) {
+            return false;
+        }
+        A3ArchiveStore.Entry entry = A3ArchiveStore.fingerprint(file);
+        addReport(id, new Report(node, file.getRemote(), entry.getDigest(), entry.getSize()));
+        if (archive != null) {
+            archive.archive(archiveName(id), file);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the name under which the report of an analysis item is archived
+     * @param id Analysis ID
+     * @return name in the {@link A3ArchiveAction}
+     */
+    static String archiveName(String id) {
+        return id + ".html";
+    }
+
+    /**
+     * Serves <tt>a3-reports/&lt;Analysis ID&gt;</tt>
+     */
+    public void doDynamic(StaplerRequest2 req, StaplerResponse2 rsp) throws IOException {
+        // Like the archived files, the reports are results of the build
+        run.checkPermission(Run.ARTIFACTS);
+
+        String id = req.getRestOfPath();
+        if (id.startsWith("/")) {
+            id = id.substring(1);
+        }
+        Report report;
+        synchronized (this) {
+            report = reports.get(id);
+        }
+        if (report == null) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND, "No HTML report file for analysis item " + id);
+            return;
+        }
+
+        // The reports are generated content, do not let them run scripts in the Jenkins context
+        rsp.setHeader("Content-Security-Policy", "sandbox; default-src 'none'; img-src 'self' data:; style-src 'self' 'unsafe-inline';");
+        rsp.setContentType("text/html;charset=UTF-8");
+
+        byte[] content = A3ReportCache.get(report.getDigest());
+        A3Metrics.REPORT_CACHE.inc(content != null ? "hit" : "miss");
+        if (content != null) {
+            rsp.setContentLengthLong(content.length);
+            try (OutputStream out = rsp.getOutputStream()) {
+                out.write(content);
+            }
+            return;
+        }
+
+        try (InputStream in = open(id, report)) {
+            if (in == null) {
+                rsp.sendError(
+                        HttpServletResponse.SC_GONE,
+                        "The HTML report file " + report.getPath()
+                                + " is not available anymore (not archived, and node offline or report changed by a later analysis run)");
+                return;
+            }
+            rsp.setContentLengthLong(report.getLength());
+            // Small reports are kept in the cache while they are streamed, large ones are only streamed
+            ByteArrayOutputStream copy =
+                    A3ReportCache.accepts(report.getLength()) ? new ByteArrayOutputStream((int) report.getLength()) : null;
+            try (OutputStream out = rsp.getOutputStream()) {
+                byte[] buffer = new byte[65536];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                    if (copy != null) {
+                        copy.write(buffer, 0, n);
+                    }
+                }
+            }
+            if (copy != null) {
+                A3ReportCache.put(report.getDigest(), copy.toByteArray());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rsp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Fetching the HTML report file was interrupted");
+        }
+    }
+
+    /**
+     * Opens a report from the {@link A3ArchiveAction archive} of the build or, if it has not been archived yet,
+     * fetches it from the build node and archives it. A report on the node is only fetched if it still matches
+     * the digest.
+     * @return InputStream of the report, null if the report is neither archived nor available on the node
+     */
+    private InputStream open(String id, Report report) throws IOException, InterruptedException {
+        A3ArchiveStore.Entry archived = getArchive().getFile(archiveName(id));
+        if (archived != null && archived.getDigest().equals(report.getDigest())) {
+            return A3ArchiveStore.open(archived.getDigest());
+        }
+        Computer computer = Jenkins.get().getComputer(report.getNode());
+        VirtualChannel channel = (computer != null ? computer.getChannel() : null);
+        if (channel == null) {
+            return null;
+        }
+        FilePath file = new FilePath(channel, report.getPath());
+        if (!file.exists() || !A3ArchiveStore.fingerprint(file).getDigest().equals(report.getDigest())) {
+            return null;
+        }
+        try {
+            A3ArchiveStore.Entry entry = getArchive().archive(archiveName(id), file);
+            run.save();
+            if (entry.getDigest().equals(report.getDigest())) {
+                return A3ArchiveStore.open(entry.getDigest());
+            }
+        } catch (IOException e) {
+            // Changed while it was archived, or the store is not writable
+        }
+        return null;
+    }
+
+    /**
+     * Returns the archive of the build, which is added if the a³ files of the build have not been archived
+     * @return A3ArchiveAction of the build
+     */
+    private A3ArchiveAction getArchive() {
+        synchronized (run) {
+            A3ArchiveAction archive = run.getAction(A3ArchiveAction.class);
+            if (archive == null) {
+                archive = new A3ArchiveAction();
+                run.addAction(archive);
+            }
+            return archive;
+        }
+    }
+}
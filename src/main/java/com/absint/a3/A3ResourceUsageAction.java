@@ -0,0 +1,319 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.Run;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jenkins.model.RunAction2;
+
+/**
+ * CPU and memory usage of the a³ processes of a build, sampled on the build node while a³ runs
+ * (see {@link A3ProcessSampler}). The time series is downsampled to at most {@link #MAX_POINTS} points,
+ * the peaks are kept per build and per analysis item.
+ * <br>
+ * The peaks of an a³ invocation are recorded for all items of the invocation, i.e. they are exact per item
+ * only if the items are analysed one by one. The recorded peaks are used to size the node resource
+ * reservation of later builds.
+ */
+public class A3ResourceUsageAction implements RunAction2 {
+
+    /* Maximal number of points of the time series */
+    static final int MAX_POINTS = 240;
+
+    /* Number of previous builds searched for the peaks of analysis items */
+    static final int HISTORY_DEPTH = 5;
+
+    /* Safety margin on top of the measured peak memory when sizing reservations */
+    static final double MEMORY_MARGIN = 1.25;
+
+    /**
+     * Point of the time series
+     */
+    public static class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final long offsetMillis;
+        private final long cpuMillis;
+        private final long rssBytes;
+
+        Point(long offsetMillis, long cpuMillis, long rssBytes) {
+            this.offsetMillis = offsetMillis;
+            this.cpuMillis = cpuMillis;
+            this.rssBytes = rssBytes;
+        }
+
+        public long getOffsetMillis() {
+            return offsetMillis;
+        }
+
+        /**
+         * Returns the CPU time consumed by the a³ processes of the build so far
+         * @return milliseconds
+         */
+        public long getCpuMillis() {
+            return cpuMillis;
+        }
+
+        /**
+         * Returns the resident memory of the a³ processes (maximum since the previous point)
+         * @return bytes, -1 if not available on the node
+         */
+        public long getRssBytes() {
+            return rssBytes;
+        }
+    }
+
+    /**
+     * Peak memory and CPU time of an analysis item
+     */
+    public static class ItemUsage implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final long peakRssBytes;
+        private final long cpuMillis;
+        private final int sharedWith;
+
+        ItemUsage(long peakRssBytes, long cpuMillis, int sharedWith) {
+            this.peakRssBytes = peakRssBytes;
+            this.cpuMillis = cpuMillis;
+            this.sharedWith = sharedWith;
+        }
+
+        public long getPeakRssBytes() {
+            return peakRssBytes;
+        }
+
+        public long getCpuMillis() {
+            return cpuMillis;
+        }
+
+        /**
+         * Returns the number of items analysed in the same a³ invocation
+         * @return number of items, 1 if the values are exact for this item
+         */
+        public int getSharedWith() {
+            return sharedWith;
+        }
+    }
+
+    private final long startMillis = System.currentTimeMillis();
+    private final List<Point> points = new ArrayList<Point>();
+    private final LinkedHashMap<String, ItemUsage> items = new LinkedHashMap<String, ItemUsage>();
+    private long peakRssBytes = -1;
+    private long cpuMillis = 0;
+
+    /* Downsampling state: number of samples merged into one point */
+    private int stride = 1;
+    private transient Point pending;
+    private transient int pendingCount;
+
+    /* State of the current a³ invocation */
+    private transient Map<Long, Long> invocationCpu;
+    private transient long invocationPeak;
+
+    private transient Run<?, ?> run;
+
+    public String getIconFileName() {
+        return "symbol-speedometer";
+    }
+
+    public String getDisplayName() {
+        return "a³ Resource Usage";
+    }
+
+    public String getUrlName() {
+        return "a3-resources";
+    }
+
+    public void onAttached(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public void onLoad(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    /**
+     * Starts the recording of an a³ invocation
+     */
+    synchronized void beginInvocation() {
+        invocationCpu = new HashMap<Long, Long>();
+        invocationPeak = -1;
+    }
+
+    /**
+     * Records a sample of the current a³ invocation
+     * @param sample the sample taken on the build node
+     */
+    synchronized void record(A3ProcessSampler.Sample sample) {
+        if (invocationCpu == null) {
+            beginInvocation();
+        }
+        // Keep the CPU time of processes that have terminated since the previous sample
+        invocationCpu.putAll(sample.getCpuMillis());
+        invocationPeak = Math.max(invocationPeak, sample.getRssBytes());
+        peakRssBytes = Math.max(peakRssBytes, sample.getRssBytes());
+        long cpu = cpuMillis + sum(invocationCpu);
+
+        Point p = new Point(System.currentTimeMillis() - startMillis, cpu, sample.getRssBytes());
+        pending = (pending == null ? p : merge(pending, p));
+        if (++pendingCount >= stride) {
+            points.add(pending);
+            pending = null;
+            pendingCount = 0;
+            if (points.size() >= MAX_POINTS) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Ends the recording of an a³ invocation and records its peaks for its analysis items
+     * @param ids Analysis IDs of the invocation
+     */
+    synchronized void endInvocation(List<String> ids) {
+        if (invocationCpu == null) {
+            return;
+        }
+        long invocationCpuMillis = sum(invocationCpu);
+        cpuMillis += invocationCpuMillis;
+        for (String id : ids) {
+            items.put(id, new ItemUsage(invocationPeak, invocationCpuMillis, ids.size()));
+        }
+        if (pending != null) {
+            points.add(pending);
+            pending = null;
+            pendingCount = 0;
+        }
+        invocationCpu = null;
+    }
+
+    /* Halves the number of points, later samples are merged accordingly */
+    private void compact() {
+        List<Point> merged = new ArrayList<Point>();
+        for (int i = 0; i < points.size(); i += 2) {
+            merged.add(i + 1 < points.size() ? merge(points.get(i), points.get(i + 1)) : points.get(i));
+        }
+        points.clear();
+        points.addAll(merged);
+        stride *= 2;
+    }
+
+    private static Point merge(Point a, Point b) {
+        return new Point(b.offsetMillis, b.cpuMillis, Math.max(a.rssBytes, b.rssBytes));
+    }
+
+    private static long sum(Map<Long, Long> values) {
+        long sum = 0;
+        for (long v : values.values()) sum += v;
+        return sum;
+    }
+
+    public synchronized List<Point> getPoints() {
+        return Collections.unmodifiableList(new ArrayList<Point>(points));
+    }
+
+    public synchronized Map<String, ItemUsage> getItems() {
+        return Collections.unmodifiableMap(new LinkedHashMap<String, ItemUsage>(items));
+    }
+
+    /**
+     * Returns the peak resident memory of the a³ processes of the build
+     * @return bytes, -1 if not available
+     */
+    public synchronized long getPeakRssBytes() {
+        return peakRssBytes;
+    }
+
+    public synchronized long getCpuMillis() {
+        return cpuMillis;
+    }
+
+    /**
+     * Returns the memory time series as SVG polyline points, scaled to the given box
+     * @param width  width of the box
+     * @param height height of the box
+     * @return String of "x,y" pairs
+     */
+    public synchronized String getRssPolyline(int width, int height) {
+        StringBuilder sb = new StringBuilder();
+        if (points.isEmpty() || peakRssBytes <= 0) {
+            return "";
+        }
+        long end = Math.max(1, points.get(points.size() - 1).offsetMillis);
+        for (Point p : points) {
+            sb.append(String.format(
+                    "%.1f,%.1f ",
+                    width * (double) p.offsetMillis / end,
+                    height - height * (double) Math.max(0, p.rssBytes) / peakRssBytes));
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Returns the memory to reserve for an a³ invocation based on the peaks recorded by the previous builds
+     * @param build current build
+     * @param ids   Analysis IDs of the invocation
+     * @return memory in MB, -1 if a peak is missing for at least one of the items
+     */
+    static long estimateMemoryMB(Run<?, ?> build, List<String> ids) {
+        if (ids.isEmpty()) {
+            return -1; // all items of the project, no per item history
+        }
+        Map<String, Long> peaks = new HashMap<String, Long>();
+        Run<?, ?> previous = build.getPreviousBuild();
+        for (int depth = 0; previous != null && depth < HISTORY_DEPTH; depth++, previous = previous.getPreviousBuild()) {
+            A3ResourceUsageAction usage = previous.getAction(A3ResourceUsageAction.class);
+            if (usage == null) {
+                continue;
+            }
+            for (Map.Entry<String, ItemUsage> e : usage.getItems().entrySet()) {
+                if (e.getValue().getPeakRssBytes() > 0) {
+                    peaks.merge(e.getKey(), e.getValue().getPeakRssBytes(), Math::max);
+                }
+            }
+        }
+        long peak = 0;
+        for (String id : ids) {
+            Long p = peaks.get(id);
+            if (p == null) {
+                return -1;
+            }
+            peak = Math.max(peak, p);
+        }
+        return (long) Math.ceil(peak * MEMORY_MARGIN / (1024 * 1024));
+    }
+}
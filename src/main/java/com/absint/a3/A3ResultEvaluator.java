@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.util.StreamTaskListener;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Evaluates existing a³ XML result files on the build node holding them. The files are matched by
+ * Ant-style patterns relative to the directory the callable is invoked on and parsed concurrently with
+ * {@link XMLResultFileHandler}, each one with its own console buffer so the output is not interleaved.
+ * <br>
+ * Returns one {@link FileResult} per matched file, oldest file first: a file written later (e.g. by a shard
+ * analysed again) overrides the results of the earlier ones when they are merged.
+ */
+public class A3ResultEvaluator extends MasterToSlaveFileCallable<List<A3ResultEvaluator.FileResult>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String includes;
+    private final int threads;
+
+    /**
+     * Evaluation result of a single XML result file
+     */
+    public static class FileResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String path;
+        private final String console;
+        private final boolean parsed;
+        private final boolean failed;
+        private final LinkedHashMap<String, AnalysisItemResult> itemResults;
+        private final ArrayList<String> failedItems;
+
+        FileResult(
+                String path,
+                String console,
+                boolean parsed,
+                boolean failed,
+                Map<String, AnalysisItemResult> itemResults,
+                List<String> failedItems) {
+            this.path = path;
+            this.console = console;
+            this.parsed = parsed;
+            this.failed = failed;
+            this.itemResults = new LinkedHashMap<String, AnalysisItemResult>(itemResults);
+            this.failedItems = new ArrayList<String>(failedItems);
+        }
+
+        /** @return path of the XML result file relative to the evaluated directory */
+        public String getPath() {
+            return path;
+        }
+
+        /** @return console output of the evaluation */
+        public String getConsole() {
+            return console;
+        }
+
+        /** @return false if the file could not be read, is no a³ XML result file or its structure is invalid */
+        public boolean isParsed() {
+            return parsed;
+        }
+
+        /** @return true if at least one analysis item (or its expectation) failed */
+        public boolean isFailed() {
+            return failed;
+        }
+
+        /** @return evaluated analysis items by Analysis ID */
+        public Map<String, AnalysisItemResult> getItemResults() {
+            return itemResults;
+        }
+
+        /** @return IDs of the failed analysis items */
+        public List<String> getFailedItems() {
+            return failedItems;
+        }
+    }
+
+    /**
+     * Constructor
+     * @param includes comma separated Ant-style patterns of the XML result files
+     * @param threads  maximum number of files evaluated concurrently
+     */
+    public A3ResultEvaluator(String includes, int threads) {
+        this.includes = includes;
+        this.threads = Math.max(1, threads);
+    }
+
+    @Override
+    public List<FileResult> invoke(File dir, VirtualChannel channel) throws IOException, InterruptedException {
+        FilePath base = new FilePath(dir);
+        FilePath[] files = base.list(includes);
+        Arrays.sort(files, Comparator.comparingLong((FilePath f) -> new File(f.getRemote()).lastModified())
+                .thenComparing(FilePath::getRemote));
+        List<FileResult> results = new ArrayList<FileResult>();
+        if (files.length == 0) {
+            return results;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, files.length));
+        try {
+            List<Future<FileResult>> pending = new ArrayList<Future<FileResult>>();
+            for (FilePath file : files) {
+                String path = dir.toPath().relativize(new File(file.getRemote()).toPath()).toString();
+                pending.add(pool.submit(() -> evaluate(file, path)));
+            }
+            for (Future<FileResult> result : pending) {
+                try {
+                    results.add(result.get());
+                } catch (ExecutionException e) {
+                    throw new IOException("Evaluating the XML result files failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static FileResult evaluate(FilePath file, String path) {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        TaskListener listener = new StreamTaskListener(console, StandardCharsets.UTF_8);
+        listener.getLogger().println("[A3 Builder Note:] Evaluating XML Result File: " + path);
+
+        XMLResultFileHandler xml = new XMLResultFileHandler(file, 0, listener);
+        Vector<String> failedItems = new Vector<String>();
+        boolean failed = false;
+        if (xml.isParsed()) {
+            failed = xml.prettyPrintResultsAndCollectFailedItems(failedItems, new HashMap<String, FilePath>());
+        }
+        listener.getLogger().flush();
+        return new FileResult(
+                path,
+                new String(console.toByteArray(), StandardCharsets.UTF_8),
+                xml.isParsed() && !xml.hasStructureError(),
+                failed,
+                xml.getItemResults(),
+                failedItems);
+    }
+}
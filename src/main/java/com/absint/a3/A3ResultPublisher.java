@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.AbstractProject;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.tasks.BuildStepDescriptor;
+import hudson.tasks.BuildStepMonitor;
+import hudson.tasks.Publisher;
+import hudson.tasks.Recorder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jenkins.model.Jenkins;
+import jenkins.tasks.SimpleBuildStep;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+/**
+ * Post-build step evaluating existing a³ XML result files, e.g. written by a³ runs outside of Jenkins
+ * or by several sharded analysis steps, without launching a³.
+ * <br>
+ * The files are evaluated in parallel on the node holding the workspace (see {@link A3ResultEvaluator})
+ * with the same verdict as the {@link A3Builder} build step. All item results are merged into the
+ * build-level results ({@link A3ResultsAction}), together with the results of preceding a³ steps of the build.
+ */
+public class A3ResultPublisher extends Recorder implements SimpleBuildStep {
+
+    /* Maximum number of XML result files parsed concurrently */
+    private static final int PARSE_THREADS = 4;
+
+    private final String result_files;
+
+    /**
+     * Constructor
+     * @param result_files comma separated Ant-style patterns of the XML result files, relative to the workspace
+     */
+    @DataBoundConstructor
+    public A3ResultPublisher(String result_files) {
+        this.result_files = result_files;
+    }
+
+    public String getResult_files() {
+        return result_files;
+    }
+
+    @Override
+    public BuildStepMonitor getRequiredMonitorService() {
+        return BuildStepMonitor.NONE;
+    }
+
+    @Override
+    public void perform(Run<?, ?> build, FilePath workspace, Launcher launcher, TaskListener listener)
+            throws InterruptedException, IOException {
+        String includes = (result_files == null ? "" : result_files.trim());
+        if (includes.isEmpty()) {
+            listener.getLogger().println("[A3 Builder Error:] No XML result files specified.");
+            build.setResult(hudson.model.Result.FAILURE);
+            return;
+        }
+
+        List<A3ResultEvaluator.FileResult> files = workspace.act(new A3ResultEvaluator(includes, PARSE_THREADS));
+        if (files.isEmpty()) {
+            listener.getLogger().println("[A3 Builder Error:] No XML result files found matching <" + includes + ">.");
+            build.setResult(hudson.model.Result.FAILURE);
+            return;
+        }
+
+        // Merge the item results, a later file overrides an earlier one for the same Analysis ID
+        // (e.g. a shard analysed again after a failure)
+        LinkedHashMap<String, AnalysisItemResult> merged = new LinkedHashMap<String, AnalysisItemResult>();
+        List<String> unreadable = new ArrayList<String>();
+        for (A3ResultEvaluator.FileResult file : files) {
+            listener.getLogger().print(file.getConsole());
+            if (!file.isParsed()) {
+                listener.getLogger().println("[A3 Builder Error:] XML Result File <" + file.getPath()
+                        + "> could not be evaluated.");
+                unreadable.add(file.getPath());
+                continue;
+            }
+            for (AnalysisItemResult item : file.getItemResults().values()) {
+                if (merged.containsKey(item.getId())) {
+                    listener.getLogger().println("Warning: Analysis ID <" + item.getId() + "> is contained in several "
+                            + "XML result files, the result of <" + file.getPath() + "> is used.");
+                }
+                merged.put(item.getId(), item);
+            }
+        }
+
+        // The verdict is based on the merged items only: items failed in a file overridden by a later one do not count
+        List<String> failedItems = new ArrayList<String>();
+        for (AnalysisItemResult item : merged.values()) {
+            if (item.isFailed()) {
+                failedItems.add(item.getId());
+            }
+        }
+
+        // Merge with the results of the preceding a³ steps of this build, which become a single action
+        Map<String, AnalysisItemResult> results = A3ResultsAction.combined(build);
+        results.putAll(merged);
+        if (!results.isEmpty()) {
+            build.addOrReplaceAction(new A3ResultsAction(results));
+        }
+        A3Builder.recordItemMetrics(
+                build,
+                merged.values(),
+                Jenkins.get().getDescriptorByType(A3Builder.DescriptorImpl.class).getMetricsItemSet());
+
+        listener.getLogger().println("\n[A3 Builder Note:] Evaluated " + files.size() + " XML result file(s), "
+                + merged.size() + " analysis item(s).");
+        if (!unreadable.isEmpty() || !failedItems.isEmpty()) {
+            listener.getLogger().println("Evaluation of the XML result files failed.");
+            if (!unreadable.isEmpty()) {
+                listener.getLogger().println("Unreadable XML result files: " + String.join(", ", unreadable));
+            }
+            if (!failedItems.isEmpty()) {
+                listener.getLogger().println("Failed analysis items: " + String.join(", ", failedItems));
+            }
+            build.setResult(hudson.model.Result.FAILURE);
+        } else {
+            listener.getLogger().println("Evaluation of the XML result files succeeded.");
+        }
+    }
+
+    @Override
+    public DescriptorImpl getDescriptor() {
+        return (DescriptorImpl) super.getDescriptor();
+    }
+
+    /**
+     * Descriptor for {@link A3ResultPublisher}, also providing the Pipeline step <tt>a3EvaluateResults</tt>.
+     */
+    @Extension
+    @Symbol("a3EvaluateResults")
+    public static final class DescriptorImpl extends BuildStepDescriptor<Publisher> {
+
+        @Override
+        public boolean isApplicable(Class<? extends AbstractProject> aClass) {
+            return true;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "Evaluate a³ XML Result Files";
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores the evaluated analysis item results of an a³ analysis run with the build.
+ * The results of previous builds are used as history, e.g. to determine the
+ * order in which analysis items are passed to a³.
+ */
+public class A3ResultsAction extends InvisibleAction {
+
+    private final LinkedHashMap<String, AnalysisItemResult> itemResults;
+
+    /**
+     * Constructor
+     * @param itemResults Map of (AnalysisID, AnalysisItemResult) pairs
+     */
+    public A3ResultsAction(Map<String, AnalysisItemResult> itemResults) {
+        this.itemResults = new LinkedHashMap<String, AnalysisItemResult>(itemResults);
+    }
+
+    /**
+     * Returns the item results of this action
+     * @return unmodifiable Map of (AnalysisID, AnalysisItemResult) pairs
+     */
+    public Map<String, AnalysisItemResult> getItemResults() {
+        return Collections.unmodifiableMap(itemResults);
+    }
+
+    /**
+     * Returns the item results of all a³ steps of a build: every a³ build step adds its own action,
+     * the result of a later step overrides an earlier one for the same Analysis ID
+     * @param build the build
+     * @return Map of (AnalysisID, AnalysisItemResult) pairs, empty if the build has no results
+     */
+    public static Map<String, AnalysisItemResult> combined(Run<?, ?> build) {
+        LinkedHashMap<String, AnalysisItemResult> results = new LinkedHashMap<String, AnalysisItemResult>();
+        for (A3ResultsAction action : build.getActions(A3ResultsAction.class)) {
+            results.putAll(action.itemResults);
+        }
+        return results;
+    }
+}
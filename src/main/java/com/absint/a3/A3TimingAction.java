@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.Run;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import jenkins.model.RunAction2;
+
+/**
+ * Phase timings of the a³ build step of a build, shown as a timeline on the build page.
+ * The background post-processing tasks of the build are included as well.
+ */
+public class A3TimingAction implements RunAction2 {
+
+    /**
+     * Row of the timeline
+     */
+    public static class Row {
+        private final String name;
+        private final long offsetMillis;
+        private final long durationMillis;
+        private final long bytes;
+        private final double offsetPercent;
+        private final double widthPercent;
+
+        Row(String name, long offsetMillis, long durationMillis, long bytes, long totalMillis) {
+            this.name = name;
+            this.offsetMillis = offsetMillis;
+            this.durationMillis = durationMillis;
+            this.bytes = bytes;
+            this.offsetPercent = (totalMillis > 0 ? 100.0 * offsetMillis / totalMillis : 0);
+            this.widthPercent = (totalMillis > 0 ? Math.max(0.5, 100.0 * durationMillis / totalMillis) : 100);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getOffsetMillis() {
+            return offsetMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getOffsetPercent() {
+            return offsetPercent;
+        }
+
+        public double getWidthPercent() {
+            return widthPercent;
+        }
+    }
+
+    private final List<A3PhaseTimer.Phase> phases;
+    private transient Run<?, ?> run;
+
+    /**
+     * Constructor
+     * @param timer timer holding the finished phases
+     */
+    public A3TimingAction(A3PhaseTimer timer) {
+        this.phases = new ArrayList<A3PhaseTimer.Phase>(timer.getPhases());
+    }
+
+    public String getIconFileName() {
+        return "symbol-timer";
+    }
+
+    public String getDisplayName() {
+        return "a³ Timing";
+    }
+
+    public String getUrlName() {
+        return "a3-timing";
+    }
+
+    public void onAttached(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public void onLoad(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    /**
+     * Returns the measured phases of the build step
+     * @return List of phases
+     */
+    public List<A3PhaseTimer.Phase> getPhases() {
+        return Collections.unmodifiableList(phases);
+    }
+
+    /**
+     * Returns the duration of a phase
+     * @param name name of the phase
+     * @return duration in milliseconds, -1 if the phase has not been measured in this build
+     */
+    public long getDurationMillis(String name) {
+        long duration = -1;
+        for (A3PhaseTimer.Phase phase : phases) {
+            if (phase.getName().equals(name)) {
+                duration = Math.max(0, duration) + phase.getDurationMillis();
+            }
+        }
+        return duration;
+    }
+
+    /**
+     * Returns the timeline of the build step, including the background post-processing tasks
+     * @return List of rows ordered by start time
+     */
+    public List<Row> getTimeline() {
+        List<A3PhaseTimer.Phase> all = new ArrayList<A3PhaseTimer.Phase>(phases);
+        A3PostProcessingAction postProcessing = (run != null ? run.getAction(A3PostProcessingAction.class) : null);
+        if (postProcessing != null) {
+            for (A3PostProcessingAction.Task task : postProcessing.getTasks()) {
+                if (task.getStartMillis() > 0) {
+                    all.add(new A3PhaseTimer.Phase(
+                            task.getName() + " (background)", task.getStartMillis(), task.getDurationMillis(), -1));
+                }
+            }
+        }
+        all.sort(Comparator.comparingLong(A3PhaseTimer.Phase::getStartMillis));
+
+        List<Row> rows = new ArrayList<Row>();
+        if (all.isEmpty()) {
+            return rows;
+        }
+        long start = all.get(0).getStartMillis();
+        long end = start;
+        for (A3PhaseTimer.Phase phase : all) {
+            end = Math.max(end, phase.getStartMillis() + phase.getDurationMillis());
+        }
+        for (A3PhaseTimer.Phase phase : all) {
+            rows.add(new Row(phase.getName(), phase.getStartMillis() - start, phase.getDurationMillis(),
+                    phase.getBytes(), end - start));
+        }
+        return rows;
+    }
+}
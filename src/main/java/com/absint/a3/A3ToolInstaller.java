@@ -46,10 +46,74 @@ public class A3ToolInstaller {
         MACOS
     }
 
+    /**
+     * Name of an a³ installer package, e.g. a3_arm_win64_b277911_release.zip.
+     * Also used on the build nodes to find the available packages (see {@link A3NodeCapabilities}).
+     */
+    static final class PackageName {
+        static final String SUFFIX = ".zip";
+
+        private final String target;
+        private final long build;
+
+        private PackageName(String target, long build) {
+            this.target = target;
+            this.build = build;
+        }
+
+        /**
+         * Parses the file name of an installer package
+         * @param fileName file name
+         * @param nodeOS   OS of the build node the package must be built for
+         * @return the parsed name, null if the file is no installer package for the node OS
+         */
+        static PackageName parse(String fileName, OS nodeOS) {
+            String[] strxs = fileName.split("_"); // leads to: strx = [a3, arm, win64, b277911, release.zip]
+            if (strxs.length < 5
+                    || !strxs[0].equals("a3")
+                    || !strxs[2].equals(osTag(nodeOS))
+                    || !strxs[3].startsWith("b")
+                    || !strxs[4].endsWith(SUFFIX)) {
+                return null;
+            }
+            try {
+                return new PackageName(strxs[1], Long.parseLong(strxs[3].substring(1)));
+            } catch (NumberFormatException e) {
+                return null; // not an installer package
+            }
+        }
+
+        /**
+         * Returns the OS part of the package names for a node OS
+         * @param nodeOS OS of the build node
+         * @return e.g. "linux64"
+         */
+        static String osTag(OS nodeOS) {
+            switch (nodeOS) {
+                case WINDOWS:
+                    return "win64";
+                case MACOS:
+                    return "macos64";
+                case UNIX:
+                default:
+                    return "linux64";
+            }
+        }
+
+        String getTarget() {
+            return target;
+        }
+
+        long getBuild() {
+            return build;
+        }
+    }
+
     /* These members are accessible through public getter */
     private FilePath selected_installer = null;
     private FilePath toolpath = null;
     private long build = -1;
+    private final A3PhaseTimer timer = new A3PhaseTimer();
 
     /**
      * Constructor (The complex one - searching the right tool package, unpack it and set the toolpath!)
@@ -66,21 +130,7 @@ public class A3ToolInstaller {
         this.nodeOS = nodeOS;
         this.target = target;
 
-        String expected_os = "", expected_suffix = "";
-        switch (nodeOS) {
-            case UNIX:
-                expected_os = "linux64";
-                expected_suffix = ".zip";
-                break;
-            case WINDOWS:
-                expected_os = "win64";
-                expected_suffix = ".zip";
-                break;
-            case MACOS:
-                expected_os = "macos64";
-                expected_suffix = ".zip";
-                break;
-        }
+        String expected_os = PackageName.osTag(nodeOS);
 
         this.toolpath =
                 null; // If something goes wrong determining the toolpath, the variable keeps its initial value = null.
@@ -91,6 +141,7 @@ public class A3ToolInstaller {
             this.build = -1;
             this.selected_installer = null;
 
+            A3PhaseTimer.Running scan = timer.start("Package scan");
             List<FilePath> files = this.packagepath.list();
             /* Does not work as Filter is not serializable
             final String match_prefix =  "a3_" + target + "_" + expected_os + "_b";
@@ -110,24 +161,20 @@ public class A3ToolInstaller {
 
             for (FilePath fp : files) {
                 if (fp.isDirectory()) continue; // if the file is a directory skip it
-                // typical installer name: a3_arm_win64_b277911_release.exe
-                String file_str = fp.getName();
-                if (file_str.startsWith("a3_" + target + "_")) {
-                    String[] strxs = file_str.split("_"); // leads to: strx = [a3, arm, win64, b277911, release.exe]
-                    // consistence checks
-                    if (strxs.length >= 5 && strxs[2].equals(expected_os) && strxs[4].endsWith(expected_suffix)) {
-                        /* We found one good installer package candidate */
-                        /* BUT: Always take the one with the highest build number in the file name! */
-                        long current_build = Integer.parseInt(strxs[3].substring(1));
-                        if (current_build > build) {
-                            /* Yea, we found a better one! */
-                            build = current_build;
-                            this.selected_installer = fp;
-                        }
+                // typical installer name: a3_arm_win64_b277911_release.zip
+                PackageName name = PackageName.parse(fp.getName(), nodeOS);
+                if (name != null && name.getTarget().equals(target)) {
+                    /* We found one good installer package candidate */
+                    /* BUT: Always take the one with the highest build number in the file name! */
+                    if (name.getBuild() > build) {
+                        /* Yea, we found a better one! */
+                        build = name.getBuild();
+                        this.selected_installer = fp;
                     }
                 }
             }
 
+            scan.stop();
             listener.getLogger().println("done");
 
             /* Now unpack the installer to workspace */
@@ -154,7 +201,9 @@ public class A3ToolInstaller {
                 this.toolpath = new FilePath(this.workspace, dest_bin);
 
                 // Unzip it now
+                A3PhaseTimer.Running unzip = timer.start("Installer unzip");
                 selected_installer.unzip(workspace); // Now all Win/Linux/Mac installers come with .zip files
+                A3Metrics.INSTALLER_EXTRACTION.observe(unzip.stop(selected_installer.length()) / 1000.0);
 
                 listener.getLogger().println("done");
                 listener.getLogger().println("[A3 ToolInstaller Note:] Setting tool path to: " + toolpath);
@@ -236,4 +285,12 @@ public class A3ToolInstaller {
     public OS getNodeOS() {
         return this.nodeOS;
     }
+
+    /**
+     * Returns the durations of the package scan and the unzipping of the installer
+     * @return A3PhaseTimer, without phases in alauncher mode
+     */
+    public A3PhaseTimer getPhaseTimer() {
+        return this.timer;
+    }
 }
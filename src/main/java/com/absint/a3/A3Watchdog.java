@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the time budgets of an analysis run: a budget for the whole run (all a³ invocations
+ * of the build step) and a budget per analysis item. The progress of the items is taken from
+ * the live a³ output (see {@link A3OutputMonitor}).
+ * <br>
+ * Only the time a³ is actually running counts against the run budget: waiting for license seats,
+ * node resources or the delay before a retry does not.
+ */
+public class A3Watchdog {
+
+    private final long runBudget; // nanoseconds, Long.MAX_VALUE if unlimited
+    private final long itemBudget; // nanoseconds, Long.MAX_VALUE if unlimited
+    private long runElapsed = 0; // nanoseconds a³ was running in the finished invocations
+    private long invocationStart = -1; // System.nanoTime() of the running invocation, -1 if none is running
+    private final Set<String> timedOut = new LinkedHashSet<String>();
+    private boolean runTimeout = false;
+    private boolean invocationKilled = false;
+
+    /**
+     * Constructor. The clock of the run is started by the first a³ invocation.
+     * @param runMinutes budget of the whole run in minutes, 0 for no limit
+     * @param itemMinutes budget of a single analysis item in minutes, 0 for no limit
+     */
+    public A3Watchdog(int runMinutes, int itemMinutes) {
+        this.runBudget = (runMinutes > 0 ? TimeUnit.MINUTES.toNanos(runMinutes) : Long.MAX_VALUE);
+        this.itemBudget = (itemMinutes > 0 ? TimeUnit.MINUTES.toNanos(itemMinutes) : Long.MAX_VALUE);
+    }
+
+    /**
+     * Starts the clock when an a³ invocation has been launched
+     */
+    public synchronized void invocationStarted() {
+        invocationStart = System.nanoTime();
+        invocationKilled = false;
+    }
+
+    /**
+     * Stops the clock when an a³ invocation has terminated
+     */
+    public synchronized void invocationEnded() {
+        if (invocationStart >= 0) {
+            runElapsed += System.nanoTime() - invocationStart;
+            invocationStart = -1;
+        }
+    }
+
+    /**
+     * Checks the budgets against the progress of the current a³ invocation. Items exceeding their
+     * budget are marked as timed out; if the run budget is exceeded, all unfinished items are.
+     * @param monitor output monitor of the current a³ invocation
+     * @param ids Analysis IDs of the current a³ invocation
+     * @return a description of the exceeded budget, null if all budgets are kept
+     */
+    public synchronized String check(A3OutputMonitor monitor, Collection<String> ids) {
+        long now = System.nanoTime();
+        long running = runElapsed + (invocationStart >= 0 ? now - invocationStart : 0);
+        if (runBudget != Long.MAX_VALUE && running > runBudget) {
+            runTimeout = true;
+            for (String id : ids) {
+                if (!monitor.isFinished(id)) timedOut.add(id);
+            }
+            return "time budget of the analysis run exceeded";
+        }
+        String exceeded = null;
+        if (itemBudget != Long.MAX_VALUE) {
+            for (Map.Entry<String, Long> item : monitor.getRunningItems().entrySet()) {
+                if (now - item.getValue() > itemBudget) {
+                    timedOut.add(item.getKey());
+                    exceeded = (exceeded == null ? "" : exceeded + ", ") + item.getKey();
+                }
+            }
+        }
+        return (exceeded == null ? null : "time budget of analysis item(s) " + exceeded + " exceeded");
+    }
+
+    /**
+     * Marks items as timed out that could not be analysed because the run budget was exceeded
+     * @param ids Analysis IDs
+     */
+    public synchronized void markTimedOut(Collection<String> ids) {
+        timedOut.addAll(ids);
+    }
+
+    /**
+     * Returns all items that have been marked as timed out
+     * @return Set of Analysis IDs
+     */
+    public Set<String> getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Records whether the watchdog has stopped the current a³ invocation
+     * @param killed true if the invocation has been stopped
+     */
+    synchronized void setInvocationKilled(boolean killed) {
+        this.invocationKilled = killed;
+    }
+
+    /**
+     * Checks if the watchdog has stopped the last a³ invocation
+     * @return true if the invocation has been stopped, its results are incomplete
+     */
+    public synchronized boolean isInvocationKilled() {
+        return invocationKilled;
+    }
+
+    /**
+     * Checks if the budget of the whole run has been exceeded
+     * @return true if the run timed out
+     */
+    public synchronized boolean isRunTimeout() {
+        return runTimeout;
+    }
+}
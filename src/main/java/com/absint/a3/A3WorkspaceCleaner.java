@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.remoting.VirtualChannel;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Deletes old <tt>absint-a3-b&lt;N&gt;</tt> directories in a workspace on the build node.
+ * The directories of the newest builds and the directories modified recently are kept, as well as
+ * the directories of the current and later (concurrently running) builds.
+ * <br>
+ * Returns {number of directories deleted, number of bytes reclaimed}.
+ */
+public class A3WorkspaceCleaner extends MasterToSlaveFileCallable<long[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Pattern BUILD_DIR = Pattern.compile("absint-a3-b(\\d+)");
+
+    private final int currentBuild;
+    private final int keepBuilds;
+    private final int keepDays;
+
+    /**
+     * Constructor
+     * @param currentBuild number of the current build
+     * @param keepBuilds   number of the newest directories to keep, 0 for no limit by number
+     * @param keepDays     age in days up to which directories are kept, 0 for no limit by age
+     */
+    public A3WorkspaceCleaner(int currentBuild, int keepBuilds, int keepDays) {
+        this.currentBuild = currentBuild;
+        this.keepBuilds = keepBuilds;
+        this.keepDays = keepDays;
+    }
+
+    @Override
+    public long[] invoke(File workspace, VirtualChannel channel) throws IOException {
+        List<File> dirs = new ArrayList<File>();
+        File[] files = workspace.listFiles();
+        if (files == null) {
+            return new long[] {0, 0};
+        }
+        for (File f : files) {
+            Matcher m = BUILD_DIR.matcher(f.getName());
+            if (f.isDirectory() && m.matches() && Integer.parseInt(m.group(1)) < currentBuild) {
+                dirs.add(f);
+            }
+        }
+        // Newest first
+        dirs.sort(Comparator.comparingInt((File f) -> buildNumber(f)).reversed());
+
+        long minModified = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(keepDays);
+        long deleted = 0, reclaimed = 0;
+        for (int i = 0; i < dirs.size(); i++) {
+            File dir = dirs.get(i);
+            // The current build counts as one of the builds to keep
+            boolean keepByNumber = keepBuilds > 0 && i < keepBuilds - 1;
+            boolean keepByAge = keepDays > 0 && dir.lastModified() >= minModified;
+            if (keepByNumber || keepByAge) {
+                continue;
+            }
+            reclaimed += deleteRecursive(dir.toPath());
+            deleted++;
+        }
+        return new long[] {deleted, reclaimed};
+    }
+
+    private static int buildNumber(File dir) {
+        Matcher m = BUILD_DIR.matcher(dir.getName());
+        return (m.matches() ? Integer.parseInt(m.group(1)) : 0);
+    }
+
+    private static long deleteRecursive(Path dir) throws IOException {
+        final long[] size = {0};
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                size[0] += attrs.size();
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path d, IOException e) throws IOException {
+                if (e != null) throw e;
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return size[0];
+    }
+}
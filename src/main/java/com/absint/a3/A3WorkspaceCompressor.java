@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.remoting.VirtualChannel;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Compresses an exported a³ workspace (<tt>.apz</tt>) on the build node to <tt>&lt;name&gt;.apz.gz</tt>
+ * and deletes the uncompressed file afterwards. The compressed file is written under a temporary name
+ * first, so a partially written file never replaces the workspace.
+ * <p>
+ * A workspace is a zip archive already, so gzip often gains little. The gain is measured on samples of the
+ * file first, and the workspace is only compressed (and only replaced by the compressed file) if it shrinks
+ * by at least {@link #MIN_GAIN}.
+ * <br>
+ * Returns {uncompressed size, compressed size}, {0, 0} if there is no workspace file and
+ * {size, size} if the workspace has been kept uncompressed.
+ */
+public class A3WorkspaceCompressor extends MasterToSlaveFileCallable<long[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Suffix of compressed workspace files */
+    public static final String SUFFIX = ".gz";
+
+    /* Minimal relative size reduction for which a workspace is compressed */
+    static final double MIN_GAIN = 0.1;
+
+    /* Number and size of the samples the gain is estimated on */
+    private static final int SAMPLES = 8;
+    private static final int SAMPLE_SIZE = 1 << 20;
+
+    @Override
+    public long[] invoke(File apz, VirtualChannel channel) throws IOException {
+        if (!apz.isFile()) {
+            return new long[] {0, 0};
+        }
+        long size = apz.length();
+        if (estimateRatio(apz) > 1 - MIN_GAIN) {
+            return new long[] {size, size};
+        }
+        File gz = new File(apz.getPath() + SUFFIX);
+        File tmp = new File(apz.getPath() + SUFFIX + ".tmp");
+        try {
+            try (InputStream in = new FileInputStream(apz);
+                    OutputStream out = new GZIPOutputStream(new FileOutputStream(tmp), 65536)) {
+                in.transferTo(out);
+            }
+            if (tmp.length() > size * (1 - MIN_GAIN)) {
+                // The samples were not representative
+                return new long[] {size, size};
+            }
+            Files.move(tmp.toPath(), gz.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        gz.setLastModified(apz.lastModified());
+        Files.delete(apz.toPath());
+        return new long[] {size, gz.length()};
+    }
+
+    /**
+     * Estimates the compression ratio of a file by deflating samples evenly spread over the file
+     * @param file file to be compressed
+     * @return compressed size / uncompressed size of the samples
+     */
+    static double estimateRatio(File file) throws IOException {
+        long length = file.length();
+        if (length == 0) {
+            return 1;
+        }
+        int samples = (int) Math.min(SAMPLES, (length + SAMPLE_SIZE - 1) / SAMPLE_SIZE);
+        byte[] sample = new byte[SAMPLE_SIZE];
+        byte[] out = new byte[65536];
+        long read = 0, deflated = 0;
+        Deflater deflater = new Deflater();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            for (int i = 0; i < samples; i++) {
+                raf.seek(Math.max(0, (length - SAMPLE_SIZE) * i / Math.max(1, samples - 1)));
+                int n = raf.read(sample);
+                if (n <= 0) {
+                    continue;
+                }
+                deflater.reset();
+                deflater.setInput(sample, 0, n);
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflated += deflater.deflate(out);
+                }
+                read += n;
+            }
+        } finally {
+            deflater.end();
+        }
+        return (read == 0 ? 1 : (double) deflated / read);
+    }
+}
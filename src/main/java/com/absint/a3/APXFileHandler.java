@@ -29,12 +29,17 @@ package com.absint.a3;
 import hudson.FilePath;
 import hudson.model.TaskListener;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
@@ -208,8 +213,9 @@ public class APXFileHandler {
                     // Magic!
 
                     FilePath workingDir = currentAPX.getParent();
+                    FilePath htmlReportfile;
                     if (workingDir != null) {
-                        FilePath htmlReportfile = new FilePath(workingDir, htmlreportfile_str);
+                        htmlReportfile = new FilePath(workingDir, htmlreportfile_str);
                     } else {
                         throw new APXFileException("[APX Structure Error:] parent pointer in APX == NULL.");
                     }
@@ -226,6 +232,50 @@ public class APXFileHandler {
         return;
     }
 
+    /**
+     * Extracts the IDs of all analysis items from the APX project file
+     * @return List of analysis IDs in the order of the APX project file, empty if there is no analysis
+     */
+    public List<String> getAnalysisIDs() {
+        List<String> ids = new ArrayList<String>();
+        NodeList analysesList = xmldoc.getDocumentElement().getElementsByTagName("analyses");
+        if (analysesList.getLength() == 1) {
+            NodeList analysisList = ((Element) analysesList.item(0)).getElementsByTagName("analysis");
+            for (int i = 0; i < analysisList.getLength(); i++) {
+                String currentID = ((Element) analysisList.item(i)).getAttribute("id");
+                if (!currentID.equals("")) {
+                    ids.add(currentID);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Extracts all analysis items from the APX project file together with the attributes of their analysis elements
+     * (e.g. 'type'), used to resolve analysis ID selectors
+     * @return LinkedHashMap of (AnalysisID, Map of (attribute name, value)) in the order of the APX project file
+     */
+    public LinkedHashMap<String, Map<String, String>> getAnalysisAttributes() {
+        LinkedHashMap<String, Map<String, String>> items = new LinkedHashMap<String, Map<String, String>>();
+        NodeList analysesList = xmldoc.getDocumentElement().getElementsByTagName("analyses");
+        if (analysesList.getLength() == 1) {
+            NodeList analysisList = ((Element) analysesList.item(0)).getElementsByTagName("analysis");
+            for (int i = 0; i < analysisList.getLength(); i++) {
+                Element analysis = (Element) analysisList.item(i);
+                String currentID = analysis.getAttribute("id");
+                if (currentID.equals("")) continue;
+                Map<String, String> attributes = new HashMap<String, String>();
+                NamedNodeMap attributeNodes = analysis.getAttributes();
+                for (int j = 0; j < attributeNodes.getLength(); j++) {
+                    attributes.put(attributeNodes.item(j).getNodeName(), attributeNodes.item(j).getNodeValue());
+                }
+                items.put(currentID, attributes);
+            }
+        }
+        return items;
+    }
+
     /**
      *
      * @return Report File extracted from APX. If not specified there, a new report file section will
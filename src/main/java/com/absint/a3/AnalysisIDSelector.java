@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiled form of the "Analysis IDs" configuration. Besides literal analysis IDs the
+ * comma separated list may contain selectors that are resolved against the analysis
+ * items of the APX project:
+ * <ul>
+ *   <li>{@code core1_*} - glob pattern ({@code *} and {@code ?} wildcards)</li>
+ *   <li>{@code re:core[0-9]_.*} - regular expression</li>
+ *   <li>{@code type:StackAnalyzer} - analysis type as specified in the APX</li>
+ *   <li>{@code tag:core1} - tag, if the analysis carries a 'tags' attribute in the APX</li>
+ *   <li>{@code type:StackAnalyzer&tag:core1} - all terms must match</li>
+ *   <li>{@code -selector} - excludes the matching items</li>
+ * </ul>
+ * If there are only exclusions, they are applied to all analysis items of the project.
+ */
+public class AnalysisIDSelector {
+
+    private static final Pattern LITERAL_ID = Pattern.compile("[a-zA-Z0-9_]+");
+
+    /* One term of a selector, matching against the id and attributes of an analysis item */
+    private interface Term {
+        boolean matches(String id, Map<String, String> attributes);
+    }
+
+    /* A selector is a conjunction of terms */
+    private static class Selector {
+        final String text;
+        final List<Term> terms = new ArrayList<Term>();
+        final boolean exclude;
+
+        Selector(String text, boolean exclude) {
+            this.text = text;
+            this.exclude = exclude;
+        }
+
+        boolean matches(String id, Map<String, String> attributes) {
+            for (Term term : terms) {
+                if (!term.matches(id, attributes)) return false;
+            }
+            return true;
+        }
+    }
+
+    private final List<Selector> selectors = new ArrayList<Selector>();
+    private final List<String> literals = new ArrayList<String>();
+    private boolean literalOnly = true;
+
+    /**
+     * Constructor, compiles the given analysis ID specification
+     * @param spec comma separated list of analysis IDs and selectors
+     * @throws IllegalArgumentException if an entry is neither a valid analysis ID nor a valid selector
+     */
+    public AnalysisIDSelector(String spec) {
+        if (spec == null) return;
+        for (String entry : spec.split(",")) {
+            entry = entry.trim();
+            if (entry.equals("")) continue;
+
+            if (LITERAL_ID.matcher(entry).matches()) {
+                literals.add(entry);
+                Selector selector = new Selector(entry, false);
+                final String literal = entry;
+                selector.terms.add((id, attributes) -> id.equals(literal));
+                selectors.add(selector);
+                continue;
+            }
+
+            literalOnly = false;
+            boolean exclude = entry.startsWith("-");
+            Selector selector = new Selector(entry, exclude);
+            for (String term : (exclude ? entry.substring(1) : entry).split("&")) {
+                selector.terms.add(compileTerm(term.trim(), entry));
+            }
+            selectors.add(selector);
+        }
+    }
+
+    private static Term compileTerm(String term, String entry) {
+        if (term.startsWith("type:")) {
+            final String type = term.substring(5).trim().toLowerCase(Locale.ROOT);
+            return (id, attributes) -> type.equals(lower(attributes.get("type")));
+        }
+        if (term.startsWith("tag:")) {
+            final String tag = term.substring(4).trim().toLowerCase(Locale.ROOT);
+            return (id, attributes) -> {
+                String tags = lower(attributes.get("tags"));
+                for (String t : tags.split("[\\s,;]+")) {
+                    if (t.equals(tag)) return true;
+                }
+                return false;
+            };
+        }
+        final Pattern pattern;
+        try {
+            if (term.startsWith("re:")) {
+                pattern = Pattern.compile(term.substring(3));
+            } else if (Pattern.matches("[a-zA-Z0-9_*?]+", term)) {
+                pattern = Pattern.compile(term.replace("?", ".").replace("*", ".*"));
+            } else {
+                throw new IllegalArgumentException("Analysis ID selector '" + entry
+                        + "' is neither an analysis ID (letters, numbers and underscores only), a glob pattern, nor a 're:', 'type:' or 'tag:' selector!");
+            }
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException(
+                    "Regular expression in analysis ID selector '" + entry + "' is invalid: " + e.getDescription());
+        }
+        return (id, attributes) -> pattern.matcher(id).matches();
+    }
+
+    private static String lower(String s) {
+        return (s == null ? "" : s.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Checks if the specification consists of literal analysis IDs only
+     * @return true if no resolution against the APX project is needed
+     */
+    public boolean isLiteral() {
+        return literalOnly;
+    }
+
+    /**
+     * Returns the literal analysis IDs of the specification
+     * @return List of analysis IDs in the configured order
+     */
+    public List<String> getLiterals() {
+        return new ArrayList<String>(literals);
+    }
+
+    /**
+     * Resolves the specification against the analysis items of an APX project.
+     * Items are returned in the order of the first including selector that matches them,
+     * items matched by a pattern in the order of the APX project.
+     * @param items Map of (AnalysisID, attributes of the analysis element) pairs from the APX project
+     * @param unmatched receives the selectors that did not match any analysis item
+     * @return List of the selected analysis IDs
+     */
+    public List<String> resolve(Map<String, Map<String, String>> items, List<String> unmatched) {
+        Set<String> selected = new LinkedHashSet<String>();
+        boolean includes = false;
+
+        for (Selector selector : selectors) {
+            if (selector.exclude) continue;
+            includes = true;
+            boolean found = false;
+            for (Map.Entry<String, Map<String, String>> item : items.entrySet()) {
+                if (selector.matches(item.getKey(), item.getValue())) {
+                    selected.add(item.getKey());
+                    found = true;
+                }
+            }
+            if (!found) unmatched.add(selector.text);
+        }
+        if (!includes) {
+            selected.addAll(items.keySet());
+        }
+
+        for (Selector selector : selectors) {
+            if (!selector.exclude) continue;
+            boolean found = false;
+            for (Map.Entry<String, Map<String, String>> item : items.entrySet()) {
+                if (selector.matches(item.getKey(), item.getValue())) {
+                    found |= selected.remove(item.getKey());
+                }
+            }
+            if (!found) unmatched.add(selector.text);
+        }
+        return new ArrayList<String>(selected);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluated result of a single analysis item as found in the a³ XML result file.
+ * Instances are stored with the build (see {@link A3ResultsAction}) and serve as
+ * history for later analysis runs.
+ */
+public class AnalysisItemResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+
+    private final String id;
+    private final String type;
+    private final String analysisTime;
+    private final String result;
+    private final String expectation;
+    private final int warningCount;
+    private final int errorCount;
+    private final boolean failed;
+    private final Long cycles;
+    private final LinkedHashMap<String, Long> stackMaxima;
+
+    /**
+     * Constructor
+     * @param id Analysis ID
+     * @param type shortened analysis type (e.g. aiT, Stack, TP)
+     * @param analysisTime analysis time as reported in the XML result file
+     * @param result textual analysis result
+     * @param expectation "ok" or the failed expectation
+     * @param warningCount number of warnings
+     * @param errorCount number of errors
+     * @param failed true if the analysis or its expectation failed
+     */
+    public AnalysisItemResult(
+            String id,
+            String type,
+            String analysisTime,
+            String result,
+            String expectation,
+            int warningCount,
+            int errorCount,
+            boolean failed) {
+        this(id, type, analysisTime, result, expectation, warningCount, errorCount, failed, null, null);
+    }
+
+    /**
+     * Constructor
+     * @param id Analysis ID
+     * @param type shortened analysis type (e.g. aiT, Stack, TP)
+     * @param analysisTime analysis time as reported in the XML result file
+     * @param result textual analysis result
+     * @param expectation "ok" or the failed expectation
+     * @param warningCount number of warnings
+     * @param errorCount number of errors
+     * @param failed true if the analysis or its expectation failed
+     * @param cycles WCET/timing result in cycles (-1 for unbounded/infeasible), null for other analysis types
+     * @param stackMaxima stack maxima by name, null for other analysis types
+     */
+    public AnalysisItemResult(
+            String id,
+            String type,
+            String analysisTime,
+            String result,
+            String expectation,
+            int warningCount,
+            int errorCount,
+            boolean failed,
+            Long cycles,
+            Map<String, Long> stackMaxima) {
+        this.id = id;
+        this.type = type;
+        this.analysisTime = analysisTime;
+        this.result = result;
+        this.expectation = expectation;
+        this.warningCount = warningCount;
+        this.errorCount = errorCount;
+        this.failed = failed;
+        this.cycles = cycles;
+        this.stackMaxima = (stackMaxima != null ? new LinkedHashMap<String, Long>(stackMaxima) : null);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getAnalysisTime() {
+        return analysisTime;
+    }
+
+    /**
+     * Returns the analysis time in seconds
+     * @return analysis time in seconds, -1 if the XML result file did not contain a valid time
+     */
+    public double getAnalysisSeconds() {
+        try {
+            return Double.parseDouble(analysisTime);
+        } catch (NullPointerException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the first number of the textual analysis result, e.g. the WCET in cycles or the stack usage in bytes
+     * @return the number, NaN if the result does not contain a number
+     */
+    public double getNumericResult() {
+        if (result == null) {
+            return Double.NaN;
+        }
+        Matcher m = NUMBER.matcher(result);
+        return (m.find() ? Double.parseDouble(m.group()) : Double.NaN);
+    }
+
+    public String getExpectation() {
+        return expectation;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the status of the item, as by {@link XMLResultFileHandler#getItemStatus()}
+     * @return "success", "expectation" (failed expectation), "analysis" (failed analysis) or "timeout" (stopped by the watchdog)
+     */
+    public String getStatus() {
+        if (!failed) {
+            return "success";
+        }
+        if (result != null && result.equals("timeout") && type.equals("")) {
+            return "timeout";
+        }
+        return (expectation != null && expectation.startsWith("FAILED") ? "expectation" : "analysis");
+    }
+
+    /**
+     * Returns the WCET/timing result in cycles
+     * @return cycles, -1 for unbounded/infeasible, null if not a timing analysis (or recorded by an older plugin version)
+     */
+    public Long getCycles() {
+        return cycles;
+    }
+
+    /**
+     * Returns the stack maxima
+     * @return unmodifiable Map of (name, maximum) pairs, null if not a stack analysis (or recorded by an older plugin version)
+     */
+    public Map<String, Long> getStackMaxima() {
+        return (stackMaxima != null ? Collections.unmodifiableMap(stackMaxima) : null);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.absint.a3;
+
+import hudson.model.Run;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Determines the order in which analysis items are passed to a³ based on the
+ * item results of previous builds:
+ * <ul>
+ *   <li>Items that failed recently are scheduled first (fast feedback).</li>
+ *   <li>All remaining items are scheduled longest first, so that a³ can pack
+ *       them well onto its parallel analysis workers (LPT scheduling).</li>
+ * </ul>
+ */
+public class AnalysisItemScheduler {
+
+    /* Number of previous builds taken into account */
+    public static final int HISTORY_DEPTH = 10;
+
+    private final Map<String, Integer> lastFailureAge = new HashMap<String, Integer>();
+    private final Map<String, Double> expectedSeconds = new HashMap<String, Double>();
+    private double defaultSeconds = 0;
+
+    /**
+     * Constructor, collects the item history from the builds preceding the given one
+     * @param build current build
+     */
+    public AnalysisItemScheduler(Run<?, ?> build) {
+        Map<String, Double> timeSum = new HashMap<String, Double>();
+        Map<String, Integer> timeCount = new HashMap<String, Integer>();
+
+        Run<?, ?> previous = build.getPreviousBuild();
+        for (int age = 1; previous != null && age <= HISTORY_DEPTH; age++, previous = previous.getPreviousBuild()) {
+            for (AnalysisItemResult item : A3ResultsAction.combined(previous).values()) {
+                if (item.isFailed() && !lastFailureAge.containsKey(item.getId())) {
+                    lastFailureAge.put(item.getId(), age);
+                }
+                double seconds = item.getAnalysisSeconds();
+                if (seconds >= 0) {
+                    timeSum.merge(item.getId(), seconds, Double::sum);
+                    timeCount.merge(item.getId(), 1, Integer::sum);
+                }
+            }
+        }
+
+        double total = 0;
+        for (Map.Entry<String, Double> entry : timeSum.entrySet()) {
+            double avg = entry.getValue() / timeCount.get(entry.getKey());
+            expectedSeconds.put(entry.getKey(), avg);
+            total += avg;
+        }
+        // Items without history are assumed to take an average amount of time
+        if (!expectedSeconds.isEmpty()) {
+            defaultSeconds = total / expectedSeconds.size();
+        }
+    }
+
+    /**
+     * Returns the expected analysis time of an item
+     * @param id Analysis ID
+     * @return expected analysis time in seconds
+     */
+    public double getExpectedSeconds(String id) {
+        Double seconds = expectedSeconds.get(id);
+        return seconds != null ? seconds : defaultSeconds;
+    }
+
+    /**
+     * Checks if there is any history at all
+     * @return true if at least one previous build provided item results
+     */
+    public boolean hasHistory() {
+        return !expectedSeconds.isEmpty() || !lastFailureAge.isEmpty();
+    }
+
+    /**
+     * Orders the given analysis items: recently failed ones first (most recent failure first),
+     * then all others longest first.
+     * @param ids Analysis IDs in the order given by the user
+     * @return new List with the reordered Analysis IDs
+     */
+    public List<String> order(List<String> ids) {
+        List<String> ordered = new ArrayList<String>(ids);
+        Collections.sort(ordered, (a, b) -> {
+            Integer failedA = lastFailureAge.get(a);
+            Integer failedB = lastFailureAge.get(b);
+            if (failedA != null && failedB == null) return -1;
+            if (failedA == null && failedB != null) return 1;
+            if (failedA != null && !failedA.equals(failedB)) return failedA - failedB;
+            return Double.compare(getExpectedSeconds(b), getExpectedSeconds(a));
+        }); // stable sort, ties keep the user given order
+        return ordered;
+    }
+
+    /**
+     * Estimates the makespan of the given item order by assigning each item to the
+     * worker that becomes free first.
+     * @param ordered Analysis IDs in execution order
+     * @param workers number of parallel analysis workers
+     * @return expected wall time in seconds
+     */
+    public double estimateMakespan(List<String> ordered, int workers) {
+        PriorityQueue<Double> load = new PriorityQueue<Double>();
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            load.add(0.0);
+        }
+        double makespan = 0;
+        for (String id : ordered) {
+            double finish = load.poll() + getExpectedSeconds(id);
+            makespan = Math.max(makespan, finish);
+            load.add(finish);
+        }
+        return makespan;
+    }
+
+    /**
+     * Checks if an item failed in one of the previous builds
+     * @param id Analysis ID
+     * @return true if the item failed within the history
+     */
+    public boolean failedRecently(String id) {
+        return lastFailureAge.containsKey(id);
+    }
+}
@@ -27,16 +27,28 @@
 package com.absint.a3;
 
 import hudson.FilePath;
+import hudson.Util;
 import hudson.model.TaskListener;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Vector;
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
@@ -53,6 +65,8 @@ public class XMLResultFileHandler {
     private Document xmldoc;
     private FilePath inputXMLFile;
     private int build;
+    private LinkedHashMap<String, AnalysisItemResult> itemResults = new LinkedHashMap<String, AnalysisItemResult>();
+    private boolean structureError = false;
 
     public static final String required_a3build = "Build: 7686572";
     public static final String required_a3version = "Version: 20.10";
@@ -150,6 +164,8 @@ public class XMLResultFileHandler {
                 String expectation = "ok"; // per default
                 String result = "";
                 StringBuffer result_buf;
+                Long cyclesValue = null;
+                LinkedHashMap<String, Long> stackMaxima = null;
 
                 Element node = (Element) resultsList.item(i);
 
@@ -213,15 +229,18 @@ public class XMLResultFileHandler {
                             result = (cycles.equals("-1")
                                     ? "unbounded/infeasible"
                                     : cycles + " " + tunit + " = " + time);
+                            cyclesValue = parseNumber(cycles);
                             break;
                         case "Stack":
                             NodeList maximaList = node.getElementsByTagName("maximum");
                             int maximaListLength = maximaList.getLength();
                             result_buf = new StringBuffer(result); // Use StringBuffer for String appending in loops
+                            stackMaxima = new LinkedHashMap<String, Long>();
                             for (int j = 0; j < maximaListLength; j++) {
                                 Element elem = (Element) maximaList.item(j);
                                 String svalue = elem.getTextContent();
                                 String name = elem.getAttribute("name");
+                                stackMaxima.put(name, parseNumber(svalue));
                                 result_buf.append(name + "=" + svalue);
                                 if (j != (maximaListLength - 1)) {
                                     result_buf.append(",");
@@ -294,15 +313,28 @@ public class XMLResultFileHandler {
                     failed_str = "><";
                     failed_items.add(currentID);
                 }
+                itemResults.put(
+                        currentID,
+                        new AnalysisItemResult(
+                                currentID,
+                                analysisType,
+                                analysisTime,
+                                result,
+                                expectation,
+                                parseCount(warning_count),
+                                parseCount(error_count),
+                                !failed_str.equals(""),
+                                cyclesValue,
+                                stackMaxima));
+
                 // Print Result Line!
 
                 // If there was originally a HTML report file specified in the APX for the current analysis ID, turn it
                 // into an hyperlink
                 if (id2htmlmap.containsKey(currentID)) {
                     try {
-                        String reportHTMLinWorkspace = "../ws/absint-a3-b" + this.build + "/" + "a3-" + currentID + "-b"
-                                + this.build + "-copy.html";
-                        listener.hyperlink(reportHTMLinWorkspace, currentID);
+                        // Served on demand by the A3ReportsAction of the build
+                        listener.hyperlink("a3-reports/" + Util.rawEncode(currentID), currentID);
                     } catch (IOException e) {
                         throw new XMLResultFileException(
                                 "[XML Result File Evaluation Error:] While generating HTML hyperlinks for analysis id "
@@ -330,6 +362,7 @@ public class XMLResultFileHandler {
 
         } catch (XMLResultFileException e) {
             listener.getLogger().println(e.getMessage());
+            structureError = true;
         }
 
         return (failed_items.size() > 0);
@@ -344,6 +377,57 @@ public class XMLResultFileHandler {
         listener.getLogger().print(sbuf.toString());
     }
 
+    /***
+     * Prints the analysis items stopped by the watchdog as side effect to the listener Logger
+     * and records them as failed items with result "timeout"
+     * @param  timed_out - IDs of the analysis items that exceeded their time budget
+     * @param  failed_items - A Container that collects the IDs of all analysis items which failed
+     * @return boolean
+     * 		   true  - if there was at least one timed out analysis
+     * 		   false - otherwise
+     */
+    public boolean printTimedOutItems(Collection<String> timed_out, Vector<String> failed_items) {
+        if (timed_out.isEmpty()) {
+            return false;
+        }
+        final int IDwidth = 35;
+        String formatString = "%-5s  %9s  %35s  %20s  %5s  %3s  %6s%n";
+
+        listener.getLogger().println("\n=========================");
+        listener.getLogger().println("Timed out Analysis Items");
+        listener.getLogger().println("=========================");
+
+        for (String currentID : timed_out) {
+            if (!failed_items.contains(currentID)) {
+                failed_items.add(currentID);
+            }
+            itemResults.put(currentID, new AnalysisItemResult(currentID, "", "", "timeout", "", 0, 0, true));
+
+            listener.getLogger().print(currentID);
+            fillIDwithBlanks(currentID, IDwidth + 2);
+            listener.getLogger().format(formatString, "", "", "TIMEOUT", "", "", "", "><");
+        }
+        listener.getLogger().println();
+        return true;
+    }
+
+    private static int parseCount(String count) {
+        try {
+            return Integer.parseInt(count);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /* Parses a numeric result value (e.g. cycles, stack maximum), null if it is not an integer */
+    private static Long parseNumber(String value) {
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     private String shortenAnalysisType(String type) {
         String analysisType;
         switch (type) {
@@ -377,6 +461,151 @@ public class XMLResultFileHandler {
         return analysisType;
     }
 
+    /**
+     * Returns the results of all analysis items evaluated by prettyPrintResultsAndCollectFailedItems
+     * @return LinkedHashMap of (AnalysisID, AnalysisItemResult) pairs in the order of the XML result file
+     */
+    public LinkedHashMap<String, AnalysisItemResult> getItemResults() {
+        return this.itemResults;
+    }
+
+    /**
+     * Determines the status of all analysis items in the XML result file without printing anything
+     * @return LinkedHashMap of (AnalysisID, status) where status is "success", "expectation" (failed expectation)
+     *         or "analysis" (failed analysis), empty if the XML result file could not be read
+     */
+    public LinkedHashMap<String, String> getItemStatus() {
+        LinkedHashMap<String, String> status = new LinkedHashMap<String, String>();
+        if (xmldoc == null) {
+            return status;
+        }
+        NodeList resultsList = xmldoc.getDocumentElement().getElementsByTagName("result");
+        for (int i = 0; i < resultsList.getLength(); i++) {
+            Element node = (Element) resultsList.item(i);
+            String currentStatus = "success";
+            if (!node.getAttribute("analysis_status").equals("success")) {
+                currentStatus = "analysis";
+            } else {
+                NodeList expectationList = node.getElementsByTagName("expectation");
+                if (expectationList.getLength() == 1
+                        && !expectationList.item(0).getTextContent().equals("success")) {
+                    currentStatus = "expectation";
+                }
+            }
+            status.put(node.getAttribute("id"), currentStatus);
+        }
+        return status;
+    }
+
+    /**
+     * Replaces the results in an XML result file by the results of a later a³ invocation (e.g. a retry).
+     * Results of items not contained in the XML result file yet are appended.
+     * @param base XML result file to be updated
+     * @param update XML result file of the later invocation
+     * @param listener TaskListener for Console Output
+     * @return true if the XML result file has been updated
+     */
+    public static boolean replaceResults(FilePath base, FilePath update, TaskListener listener) {
+        XMLResultFileHandler baseHandler = new XMLResultFileHandler(base, 0, listener);
+        XMLResultFileHandler updateHandler = new XMLResultFileHandler(update, 0, listener);
+        if (updateHandler.xmldoc == null) {
+            return false;
+        }
+        if (baseHandler.xmldoc == null) {
+            // Nothing to update, the later results are all there is
+            try {
+                update.copyTo(base);
+                return true;
+            } catch (IOException | InterruptedException e) {
+                listener.getLogger().println("[XML Result Merge Error:] XML result file " + base + " could not be written!");
+                return false;
+            }
+        }
+
+        Document baseDoc = baseHandler.xmldoc;
+        NodeList baseResults = baseDoc.getElementsByTagName("result");
+        HashMap<String, Node> byID = new HashMap<String, Node>();
+        for (int i = 0; i < baseResults.getLength(); i++) {
+            byID.put(((Element) baseResults.item(i)).getAttribute("id"), baseResults.item(i));
+        }
+        Node resultParent = (baseResults.getLength() > 0
+                ? baseResults.item(0).getParentNode()
+                : baseDoc.getDocumentElement());
+
+        NodeList updateResults = updateHandler.xmldoc.getElementsByTagName("result");
+        for (int i = 0; i < updateResults.getLength(); i++) {
+            Node imported = baseDoc.importNode(updateResults.item(i), true);
+            Node old = byID.get(((Element) imported).getAttribute("id"));
+            if (old != null) {
+                old.getParentNode().replaceChild(imported, old);
+            } else {
+                resultParent.appendChild(imported);
+            }
+        }
+        return writeDocument(baseDoc, base, listener);
+    }
+
+    private static boolean writeDocument(Document doc, FilePath file, TaskListener listener) {
+        try (OutputStream out = file.write()) {
+            TransformerFactory tfactory = TransformerFactory.newInstance();
+            tfactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            Transformer transformer = tfactory.newTransformer();
+            transformer.transform(new DOMSource(doc), new StreamResult(out));
+        } catch (IOException | InterruptedException | TransformerException e) {
+            listener.getLogger().println("[XML Result Merge Error:] XML result file " + file + " could not be written!");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Merges the XML result files of several a³ invocations into one XML result file.
+     * The 'result' entries of all parts are appended to the result list of the first part that could be read.
+     * Parts that have not been written (e.g. because the a³ invocation failed) are skipped.
+     * @param parts XML result files of the single invocations
+     * @param merged XML result file to be written
+     * @param listener TaskListener for Console Output
+     * @return true if a merged XML result file has been written
+     */
+    public static boolean mergeResultFiles(List<FilePath> parts, FilePath merged, TaskListener listener) {
+        Document mergedDoc = null;
+        Node resultParent = null;
+        int count = 0;
+
+        for (FilePath part : parts) {
+            XMLResultFileHandler partHandler = new XMLResultFileHandler(part, 0, listener);
+            if (partHandler.xmldoc == null) {
+                continue; // part was not written, error has already been reported
+            }
+            NodeList partResults = partHandler.xmldoc.getElementsByTagName("result");
+            if (mergedDoc == null) {
+                mergedDoc = partHandler.xmldoc;
+                resultParent = (partResults.getLength() > 0
+                        ? partResults.item(0).getParentNode()
+                        : mergedDoc.getDocumentElement());
+                count += partResults.getLength();
+                continue;
+            }
+            for (int i = 0; i < partResults.getLength(); i++) {
+                resultParent.appendChild(mergedDoc.importNode(partResults.item(i), true));
+                count++;
+            }
+        }
+
+        if (mergedDoc == null) {
+            listener.getLogger().println("[XML Result Merge Note:] None of the partial XML result files was written.");
+            return false;
+        }
+
+        if (!writeDocument(mergedDoc, merged, listener)) {
+            return false;
+        }
+        listener.getLogger()
+                .println("[XML Result Merge Note:] Merged " + count + " results of " + parts.size()
+                        + " a³ invocations into " + merged);
+        return true;
+    }
+
     /**
      * Returns XML Result File Object
      * @return File - XML Result File Object
@@ -384,4 +613,20 @@ public class XMLResultFileHandler {
     public FilePath getXMLResultFile() {
         return this.inputXMLFile;
     }
+
+    /**
+     * Checks if the XML result file could be read and parsed
+     * @return true if the results are available
+     */
+    public boolean isParsed() {
+        return (xmldoc != null);
+    }
+
+    /**
+     * Checks if the pretty printing found the structure of the XML result file invalid, i.e. the item results are incomplete
+     * @return true if the structure is invalid
+     */
+    public boolean hasStructureError() {
+        return structureError;
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.FilePath;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class A3ArchiveStoreTest {
+
+    @TempDir
+    File tmp;
+
+    private FilePath file(String name, String content) throws Exception {
+        File f = new File(tmp, name);
+        Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new FilePath(f);
+    }
+
+    private static String read(String digest) throws Exception {
+        try (InputStream in = A3ArchiveStore.open(digest)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static File blob(String digest) {
+        return new File(new File(A3ArchiveStore.getRoot(), digest.substring(0, 2)), digest + ".gz");
+    }
+
+    @Test
+    void storesEqualContentOnce(JenkinsRule r) throws Exception {
+        A3ArchiveStore.Entry first = A3ArchiveStore.archive(file("report-1.txt", "same report\n"), "job#1");
+        A3ArchiveStore.Entry second = A3ArchiveStore.archive(file("report-2.txt", "same report\n"), "job#2");
+        A3ArchiveStore.Entry other = A3ArchiveStore.archive(file("report-3.txt", "other report\n"), "job#2");
+
+        assertTrue(first.isNew());
+        assertFalse(second.isNew());
+        assertEquals(first.getDigest(), second.getDigest());
+        assertNotEquals(first.getDigest(), other.getDigest());
+        assertEquals(12, first.getSize());
+        assertEquals(A3ArchiveStore.fingerprint(file("report-4.txt", "same report\n")).getDigest(), first.getDigest());
+        assertEquals("same report\n", read(first.getDigest()));
+        assertEquals("other report\n", read(other.getDigest()));
+    }
+
+    @Test
+    void deletesContentWithLastReference(JenkinsRule r) throws Exception {
+        A3ArchiveStore.Entry entry = A3ArchiveStore.archive(file("results.xml", "<results/>\n"), "job#1");
+        A3ArchiveStore.archive(file("results-copy.xml", "<results/>\n"), "job#2");
+        String digest = entry.getDigest();
+
+        assertEquals(0, A3ArchiveStore.release("job#1", Collections.singletonList(digest)));
+        assertTrue(blob(digest).exists());
+        assertTrue(A3ArchiveStore.release("job#2", Collections.singletonList(digest)) > 0);
+        assertFalse(blob(digest).exists());
+    }
+
+    @Test
+    void followsRenamedAndDeletedItems(JenkinsRule r) throws Exception {
+        String inFolder = A3ArchiveStore.archive(file("a.txt", "in folder\n"), "folder/job#1").getDigest();
+        String shared = A3ArchiveStore.archive(file("b.txt", "shared\n"), "folder/job#1").getDigest();
+        A3ArchiveStore.archive(file("c.txt", "shared\n"), "folder2/job#1");
+
+        // Only the references of the folder are rewritten, not the ones of folder2
+        assertEquals(2, A3ArchiveStore.relocate("folder", "renamed"));
+        assertEquals(0, A3ArchiveStore.release("folder/job#1", Collections.singletonList(inFolder)));
+        assertTrue(blob(inFolder).exists());
+
+        assertTrue(A3ArchiveStore.releaseItem("renamed") > 0);
+        assertFalse(blob(inFolder).exists());
+        assertTrue(blob(shared).exists(), "still referenced by folder2");
+        assertTrue(A3ArchiveStore.releaseItem("folder2") > 0);
+        assertFalse(blob(shared).exists());
+    }
+
+    @Test
+    void matchesReferencesOfItem() {
+        assertTrue(A3ArchiveStore.belongsTo("job#1", "job"));
+        assertTrue(A3ArchiveStore.belongsTo("folder/job#1", "folder"));
+        assertFalse(A3ArchiveStore.belongsTo("job2#1", "job"));
+        assertFalse(A3ArchiveStore.belongsTo("job", "job"));
+    }
+}
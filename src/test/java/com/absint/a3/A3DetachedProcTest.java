@@ -0,0 +1,47 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class A3DetachedProcTest {
+
+    @Test
+    void quotesPathsForCmd() {
+        assertEquals("^\"C:\\a b\\x.apx^\"", A3DetachedProc.quoteForCmd("C:\\a b\\x.apx"));
+        // A trailing backslash must not escape the closing quote
+        assertEquals("^\"C:\\out\\\\^\"", A3DetachedProc.quoteForCmd("C:\\out\\"));
+    }
+
+    @Test
+    void escapesQuotesAndCmdCharacters() {
+        assertEquals("^\"a\\^\"b^\"", A3DetachedProc.quoteForCmd("a\"b"));
+        assertEquals("^\"a\\\\\\^\"b^\"", A3DetachedProc.quoteForCmd("a\\\"b"));
+        assertEquals("^\"x^&y^|z ^<^>^\"", A3DetachedProc.quoteForCmd("x&y|z <>"));
+        assertEquals("^\"100%%^\"", A3DetachedProc.quoteForCmd("100%"));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class A3DurableRunActionTest {
+
+    private static A3DurableRunAction.Entry entry(String cookie, long start) {
+        return new A3DurableRunAction.Entry(cookie, "/tmp/" + cookie + ".log", "/tmp/" + cookie + ".exit", start);
+    }
+
+    @Test
+    void countsLaunchesPerJournal(JenkinsRule r) throws Exception {
+        A3DurableRunAction action = new A3DurableRunAction();
+        A3DurableRunAction.Journal first = action.journal("step-1");
+        A3DurableRunAction.Journal parallel = action.journal("step-2");
+
+        assertEquals("cmd#1", first.nextKey("cmd"));
+        assertEquals("cmd#2", first.nextKey("cmd"));
+        assertEquals("other#1", first.nextKey("other"));
+        // The same command line in a parallel step is a different launch
+        assertEquals("cmd#1", parallel.nextKey("cmd"));
+
+        // A resumed execution counts from the start again and finds the launches of the previous one
+        FreeStyleProject p = r.createFreeStyleProject();
+        FreeStyleBuild b = r.buildAndAssertSuccess(p);
+        b.addAction(action);
+        first.record(b, "cmd#1", entry("c1", 2000));
+        A3DurableRunAction.Journal resumed = action.journal("step-1");
+        assertEquals("cmd#1", resumed.nextKey("cmd"));
+        assertEquals("c1", resumed.get("cmd#1").getCookie());
+        assertNull(resumed.get("cmd#2"));
+        assertNull(parallel.get("cmd#1"));
+    }
+
+    @Test
+    void clearKeepsOtherSteps(JenkinsRule r) throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        FreeStyleBuild b = r.buildAndAssertSuccess(p);
+        A3DurableRunAction action = new A3DurableRunAction();
+        b.addAction(action);
+
+        A3DurableRunAction.Journal first = action.journal("step-1");
+        A3DurableRunAction.Journal second = action.journal("step-2");
+        first.record(b, first.nextKey("cmd"), entry("c1", 3000));
+        first.record(b, first.nextKey("cmd"), entry("c2", 1000));
+        second.record(b, second.nextKey("cmd"), entry("c3", 2000));
+        assertEquals(1000, first.getFirstStartMillis());
+        assertEquals(2000, second.getFirstStartMillis());
+
+        first.clear(b);
+        assertNull(first.get("cmd#1"));
+        assertEquals(0, first.getFirstStartMillis());
+        assertEquals("cmd#1", first.nextKey("cmd"));
+        assertNotNull(second.get("cmd#1"));
+        assertEquals("c3", second.get("cmd#1").getCookie());
+        assertEquals("cmd#2", second.nextKey("cmd"));
+    }
+
+    @Test
+    void journalSurvivesReload(JenkinsRule r) throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        FreeStyleBuild b = r.buildAndAssertSuccess(p);
+        A3DurableRunAction action = new A3DurableRunAction();
+        b.addAction(action);
+        A3DurableRunAction.Journal journal = action.journal("step-1");
+        journal.record(b, journal.nextKey("cmd"), entry("c1", 1000));
+
+        p.doReload();
+        FreeStyleBuild reloaded = p.getBuildByNumber(b.getNumber());
+        A3DurableRunAction.Entry entry =
+                reloaded.getAction(A3DurableRunAction.class).journal("step-1").get("cmd#1");
+        assertNotNull(entry);
+        assertEquals("c1", entry.getCookie());
+        assertEquals("/tmp/c1.log", entry.getLogPath());
+        assertEquals("/tmp/c1.exit", entry.getExitPath());
+        assertEquals(1000, entry.getStartMillis());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Queue;
+import hudson.model.TaskListener;
+import hudson.model.queue.QueueTaskFuture;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class A3LicenseSeatsTest {
+
+    @TempDir
+    File tmp;
+
+    @Test
+    void parsesPools() {
+        Map<String, Integer> pools = A3LicenseSeats.parsePools("ppc=2\n arm = 1 ,tricore=3");
+        assertEquals(3, pools.size());
+        assertEquals(2, pools.get("ppc"));
+        assertEquals(1, pools.get("arm"));
+        assertEquals(3, pools.get("tricore"));
+        assertThrows(IllegalArgumentException.class, () -> A3LicenseSeats.parsePools("ppc=0"));
+        assertThrows(IllegalArgumentException.class, () -> A3LicenseSeats.parsePools("ppc"));
+    }
+
+    @Test
+    void reservationAdmitsOneBuildPerSeat(JenkinsRule r) throws Exception {
+        A3TestSupport.configure(new File(tmp, "alauncher"), 0, "reserve=1", 0);
+        List<String> pools = Collections.singletonList("reserve");
+
+        assertNull(A3LicenseSeats.reserve(pools, "queue:1"));
+        assertEquals(1, A3LicenseSeats.getReserved("reserve"));
+        assertEquals("reserve", A3LicenseSeats.reserve(pools, "queue:2"));
+        assertNull(A3LicenseSeats.reserve(pools, "queue:1"), "renewing a reservation");
+
+        // The admitted build takes its reserved seat without waiting, the seat stays unavailable
+        A3LicenseSeats.acquire("reserve", Arrays.asList("queue:1", "job/x#1"), TaskListener.NULL);
+        assertEquals(0, A3LicenseSeats.getReserved("reserve"));
+        assertEquals(1, A3LicenseSeats.getInUse("reserve"));
+        assertEquals("reserve", A3LicenseSeats.reserve(pools, "queue:2"));
+
+        A3LicenseSeats.release("reserve");
+        assertNull(A3LicenseSeats.reserve(pools, "queue:2"));
+        A3LicenseSeats.cancelReservations(Collections.singletonList("queue:2"));
+        assertTrue(A3LicenseSeats.isAvailable("reserve"));
+        assertEquals(0, A3LicenseSeats.getInUse("reserve"));
+    }
+
+    @Test
+    void unlimitedPoolsAreNotReserved(JenkinsRule r) throws Exception {
+        A3TestSupport.configure(new File(tmp, "alauncher"), 0, "limited=1", 0);
+        assertNull(A3LicenseSeats.reserve(Collections.singletonList("unlimited"), "queue:3"));
+        assertEquals(0, A3LicenseSeats.getReserved("unlimited"));
+        assertEquals(-1, A3LicenseSeats.getSeats("unlimited"));
+    }
+
+    @Test
+    void queueHoldsBackBuildWhilePoolIsExhausted(JenkinsRule r) throws Exception {
+        A3TestSupport.configure(new File(tmp, "alauncher"), 0, "held=1", 0);
+        FreeStyleProject p = r.createFreeStyleProject();
+        A3Builder builder = A3TestSupport.builder(new File(tmp, "held.apx"));
+        builder.setLicense_pool("held");
+        p.getBuildersList().add(builder);
+
+        A3LicenseSeats.acquire("held", Collections.emptyList(), TaskListener.NULL);
+        try {
+            p.scheduleBuild2(0);
+            Queue.Item item;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((item = r.jenkins.getQueue().getItem(p)) != null
+                    && (item.getCauseOfBlockage() == null || !item.isBlocked())
+                    && System.nanoTime() < deadline) {
+                r.jenkins.getQueue().maintain();
+                Thread.sleep(100);
+            }
+            assertTrue(item != null && item.isBlocked(), "the build waits in the queue");
+            assertTrue(item.getCauseOfBlockage().getShortDescription().contains("held"));
+            r.jenkins.getQueue().cancel(p);
+        } finally {
+            A3LicenseSeats.release("held");
+        }
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void sharedPoolRunsOneAnalysisAtATime(JenkinsRule r) throws Exception {
+        try (LicenseServerStandIn server = new LicenseServerStandIn(1, 0)) {
+            A3TestSupport.configure(StubA3.install(tmp), server.getPort(), "ppc=1", 0);
+            File apx = StubA3.project(tmp, "ppc", "a1", "a2");
+            r.jenkins.setNumExecutors(2);
+            FreeStyleProject first = r.createFreeStyleProject();
+            FreeStyleProject second = r.createFreeStyleProject();
+            first.getBuildersList().add(A3TestSupport.builder(apx));
+            second.getBuildersList().add(A3TestSupport.builder(apx));
+
+            // Both builds at once: the queue admits one, the other one waits for the seat
+            QueueTaskFuture<FreeStyleBuild> f1 = first.scheduleBuild2(0);
+            QueueTaskFuture<FreeStyleBuild> f2 = second.scheduleBuild2(0);
+            r.assertBuildStatusSuccess(f1);
+            r.assertBuildStatusSuccess(f2);
+            assertEquals(1, server.getMaxInUse());
+            assertEquals(0, server.getDenials());
+        }
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void queuedBuildDoesNotBlockFurtherStepsOfRunningBuild(JenkinsRule r) throws Exception {
+        A3TestSupport.configure(StubA3.install(tmp), 0, "steps=1", 0);
+        File apx = StubA3.project(tmp, "ppc", "a1");
+        r.jenkins.setNumExecutors(1);
+        FreeStyleProject first = r.createFreeStyleProject();
+        FreeStyleProject second = r.createFreeStyleProject();
+        for (FreeStyleProject p : Arrays.asList(first, second)) {
+            for (int i = 0; i < 2; i++) {
+                A3Builder step = A3TestSupport.builder(apx);
+                step.setLicense_pool("steps");
+                p.getBuildersList().add(step);
+            }
+        }
+
+        // While the first build runs, the second one waits for the executor without a reservation
+        QueueTaskFuture<FreeStyleBuild> f1 = first.scheduleBuild2(0);
+        f1.waitForStart();
+        QueueTaskFuture<FreeStyleBuild> f2 = second.scheduleBuild2(0);
+        r.assertBuildStatusSuccess(f1.get(60, TimeUnit.SECONDS));
+        r.assertBuildStatusSuccess(f2.get(60, TimeUnit.SECONDS));
+        assertEquals(0, A3LicenseSeats.getInUse("steps"));
+        assertEquals(0, A3LicenseSeats.getReserved("steps"));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void retriesLicenseCheckoutFailure(JenkinsRule r) throws Exception {
+        // Without delay, see the surefire configuration
+        try (LicenseServerStandIn server = new LicenseServerStandIn(1, 1)) {
+            A3TestSupport.configure(StubA3.install(tmp), server.getPort(), "", 2);
+            FreeStyleProject p = r.createFreeStyleProject();
+            p.getBuildersList().add(A3TestSupport.builder(StubA3.project(tmp, "arm", "a1")));
+
+            FreeStyleBuild b = r.buildAndAssertSuccess(p);
+            r.assertLogContains("License checkout failed", b);
+            assertEquals(1, server.getDenials());
+        }
+    }
+}
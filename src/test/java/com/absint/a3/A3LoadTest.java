@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.labels.LabelAtom;
+import hudson.model.queue.QueueTaskFuture;
+import hudson.slaves.EnvironmentVariablesNodeProperty;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+/**
+ * Runs concurrent builds with {@link StubA3} on local agents and reports the cost of the plugin on the controller,
+ * separately from the a³ runtime. The load is small by default, it can be raised with the system properties
+ * <tt>a3.load.builds</tt>, <tt>a3.load.agents</tt>, <tt>a3.load.items</tt> (analysis items per build),
+ * <tt>a3.load.itemMillis</tt> and <tt>a3.load.itemLines</tt> (output lines per item).
+ */
+@WithJenkins
+class A3LoadTest {
+
+    private static final Logger LOGGER = Logger.getLogger(A3LoadTest.class.getName());
+
+    @TempDir
+    File tmp;
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void concurrentBuildsOnAgents(JenkinsRule r) throws Exception {
+        int builds = Integer.getInteger("a3.load.builds", 4);
+        int agents = Integer.getInteger("a3.load.agents", 2);
+        int items = Integer.getInteger("a3.load.items", 5);
+        int itemMillis = Integer.getInteger("a3.load.itemMillis", 100);
+        int itemLines = Integer.getInteger("a3.load.itemLines", 200);
+
+        A3TestSupport.configure(StubA3.install(tmp), 0, "", 0);
+        EnvironmentVariablesNodeProperty stub = new EnvironmentVariablesNodeProperty();
+        stub.getEnvVars().put("STUB_A3_ITEM_MILLIS", String.valueOf(itemMillis));
+        stub.getEnvVars().put("STUB_A3_ITEM_LINES", String.valueOf(itemLines));
+        r.jenkins.getGlobalNodeProperties().add(stub);
+        LabelAtom label = new LabelAtom("a3-load");
+        for (int i = 0; i < agents; i++) {
+            r.waitOnline(r.createSlave(label));
+        }
+
+        String[] ids = new String[items];
+        for (int i = 0; i < items; i++) {
+            ids[i] = "item_" + i;
+        }
+        File apx = StubA3.project(tmp, "ppc", ids);
+        List<FreeStyleProject> projects = new ArrayList<FreeStyleProject>();
+        for (int i = 0; i < builds; i++) {
+            FreeStyleProject p = r.createFreeStyleProject("load-" + i);
+            p.setAssignedLabel(label);
+            p.getBuildersList().add(A3TestSupport.builder(apx));
+            projects.add(p);
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long cpuBefore = os.getProcessCpuTime();
+        long start = System.nanoTime();
+
+        List<QueueTaskFuture<FreeStyleBuild>> futures = new ArrayList<QueueTaskFuture<FreeStyleBuild>>();
+        for (FreeStyleProject p : projects) {
+            futures.add(p.scheduleBuild2(0));
+        }
+        long overhead = 0;
+        for (QueueTaskFuture<FreeStyleBuild> f : futures) {
+            FreeStyleBuild b = r.assertBuildStatusSuccess(f);
+            A3TimingAction timing = b.getAction(A3TimingAction.class);
+            assertNotNull(timing);
+            // Everything besides the a³ invocations (version check, analysis) is the cost of the plugin
+            overhead += b.getDuration()
+                    - Math.max(0, timing.getDurationMillis("Version check"))
+                    - Math.max(0, timing.getDurationMillis("Analysis"));
+            assertEquals(items, A3ResultsAction.combined(b).size());
+        }
+
+        long wallMillis = (System.nanoTime() - start) / 1000000;
+        long cpuMillis = (os.getProcessCpuTime() - cpuBefore) / 1000000;
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        LOGGER.info(String.format(
+                "%d builds on %d agents, %d items of %d ms and %d lines each: wall %d ms, controller CPU %d ms"
+                        + " (%d ms per build), heap %+d KB, plugin overhead %d ms per build",
+                builds,
+                agents,
+                items,
+                itemMillis,
+                itemLines,
+                wallMillis,
+                cpuMillis,
+                cpuMillis / builds,
+                (heapAfter - heapBefore) / 1024,
+                overhead / builds));
+    }
+}
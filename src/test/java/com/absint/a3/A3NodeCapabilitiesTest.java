@@ -0,0 +1,143 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.EnvVars;
+import hudson.model.Computer;
+import hudson.model.TaskListener;
+import hudson.model.labels.LabelAtom;
+import hudson.slaves.EnvironmentVariablesNodeProperty;
+import java.io.File;
+import java.util.Collections;
+import net.sf.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class A3NodeCapabilitiesTest {
+
+    @TempDir
+    File tmp;
+
+    @Test
+    void parsesInstallerPackageNames() {
+        A3ToolInstaller.PackageName name =
+                A3ToolInstaller.PackageName.parse("a3_arm_linux64_b277911_release.zip", A3ToolInstaller.OS.UNIX);
+        assertNotNull(name);
+        assertEquals("arm", name.getTarget());
+        assertEquals(277911, name.getBuild());
+        assertNull(A3ToolInstaller.PackageName.parse("a3_arm_win64_b277911_release.zip", A3ToolInstaller.OS.UNIX));
+        assertNull(A3ToolInstaller.PackageName.parse("a3_arm_linux64_bXYZ_release.zip", A3ToolInstaller.OS.UNIX));
+        assertNull(A3ToolInstaller.PackageName.parse("a3_arm_linux64_b277911_release.tgz", A3ToolInstaller.OS.UNIX));
+        assertNull(A3ToolInstaller.PackageName.parse("readme.txt", A3ToolInstaller.OS.UNIX));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void keepsProbedCapabilitiesInMemory(JenkinsRule r) throws Exception {
+        File packages = new File(tmp, "packages");
+        assertTrue(packages.mkdirs());
+        for (String name : new String[] {
+            "a3_arm_linux64_b100_release.zip", "a3_arm_linux64_b200_release.zip", "a3_ppc_win64_b300_release.zip"
+        }) {
+            assertTrue(new File(packages, name).createNewFile());
+        }
+        File alauncher = StubA3.install(tmp);
+
+        // ${VAR} references are expanded like by the build step, independent of the case of the name
+        EnvironmentVariablesNodeProperty global = new EnvironmentVariablesNodeProperty();
+        global.getEnvVars().put("A3_PACKAGES", packages.getAbsolutePath());
+        r.jenkins.getGlobalNodeProperties().add(global);
+        JSONObject form = new JSONObject();
+        form.put("alauncher", alauncher.getAbsolutePath());
+        form.put("a3packages", "${a3_packages}");
+        form.put("almserver", "");
+        form.put("almport", "");
+        r.jenkins.getDescriptorByType(A3Builder.DescriptorImpl.class).configure(null, form);
+
+        Computer computer = r.jenkins.toComputer();
+        A3NodeCapabilities caps = A3NodeProbe.probe(computer, TaskListener.NULL);
+        assertNotNull(caps);
+        assertSame(caps, A3NodeCapabilities.of(computer));
+        assertEquals(1, caps.getPackages().size());
+        assertEquals(200L, caps.getPackages().get("arm"));
+        assertEquals(alauncher.getAbsolutePath(), caps.getAlauncher());
+        assertTrue(r.jenkins.getAssignedLabels().contains(new LabelAtom("a3-arm-b200")));
+
+        // Not part of the node configuration
+        assertTrue(r.jenkins.getNodeProperties().isEmpty());
+
+        r.jenkins.getExtensionList(A3NodeProbe.class).get(0).onOffline(computer, null);
+        assertNull(A3NodeCapabilities.of(computer));
+        assertFalse(r.jenkins.getAssignedLabels().contains(new LabelAtom("a3-arm")));
+    }
+
+    @Test
+    void resourceBudgetFollowsProbedCapabilities(JenkinsRule r) throws Exception {
+        Computer computer = r.jenkins.toComputer();
+        A3NodeCapabilities.set(
+                computer,
+                new A3NodeCapabilities(A3ToolInstaller.OS.UNIX, "amd64", 2, 4096, Collections.emptyMap(), null));
+        A3NodeResourceGovernor.Reservation reservation =
+                A3NodeResourceGovernor.acquire(computer, "test", 8, 8192, TaskListener.NULL);
+        assertEquals(2, reservation.getWorkers());
+        assertEquals(4096, reservation.getMemoryMB());
+        assertEquals(2, A3NodeResourceGovernor.getBudget(computer.getName()).getWorkers());
+
+        // Reconnected with other hardware: the budget is dropped with the capabilities
+        r.jenkins.getExtensionList(A3NodeProbe.class).get(0).onOffline(computer, null);
+        assertNull(A3NodeResourceGovernor.getBudget(computer.getName()));
+        A3NodeResourceGovernor.release(reservation);
+        A3NodeCapabilities.set(
+                computer,
+                new A3NodeCapabilities(A3ToolInstaller.OS.UNIX, "amd64", 16, 65536, Collections.emptyMap(), null));
+        A3NodeResourceGovernor.release(A3NodeResourceGovernor.acquire(computer, "test", 8, 8192, TaskListener.NULL));
+        assertEquals(16, A3NodeResourceGovernor.getBudget(computer.getName()).getWorkers());
+        assertEquals(65536, A3NodeResourceGovernor.getBudget(computer.getName()).getMemoryMB());
+    }
+
+    @Test
+    void expandsVariablesCaseInsensitively() {
+        EnvVars env = new EnvVars();
+        env.put("A3_HOME", "/opt/a3");
+        assertEquals(
+                "/opt/a3/packages",
+                A3Builder.expandEnvironmentVarsHelper("${a3_home}\\packages", env, A3ToolInstaller.OS.UNIX));
+        assertEquals(
+                "C:\\a3\\packages",
+                A3Builder.expandEnvironmentVarsHelper("C:/a3/packages", env, A3ToolInstaller.OS.WINDOWS));
+    }
+}
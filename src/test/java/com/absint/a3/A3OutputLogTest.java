@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import hudson.FilePath;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class A3OutputLogTest {
+
+    @TempDir
+    File tmp;
+
+    private static String lines(int from, int to) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String gunzip(InputStream in) throws IOException {
+        try (InputStream gz = new GZIPInputStream(in)) {
+            return new String(gz.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void writesIndependentlyReadableSegments() throws IOException {
+        int count = 2 * A3OutputLog.LINES_PER_SEGMENT + 5;
+        File file = new File(tmp, "a3.log.gz");
+        A3OutputLog log = new A3OutputLog(Files.newOutputStream(file.toPath()));
+        for (String line : lines(0, count).split("(?<=\n)")) {
+            byte[] b = line.getBytes(StandardCharsets.UTF_8);
+            log.writeLine(b, b.length);
+        }
+        log.close();
+
+        assertEquals(count, log.getLineCount());
+        assertEquals(file.length(), log.getSize());
+        List<Long> offsets = log.getOffsets();
+        assertEquals(3, offsets.size());
+        assertEquals(0L, offsets.get(0));
+
+        // The whole file is a regular gzip stream
+        try (InputStream in = new FileInputStream(file)) {
+            assertEquals(lines(0, count), gunzip(in));
+        }
+
+        // A segment can be read on its own from its offset
+        byte[] content = Files.readAllBytes(file.toPath());
+        int start = offsets.get(1).intValue();
+        int end = offsets.get(2).intValue();
+        assertEquals(
+                lines(A3OutputLog.LINES_PER_SEGMENT, 2 * A3OutputLog.LINES_PER_SEGMENT),
+                gunzip(new ByteArrayInputStream(Arrays.copyOfRange(content, start, end))));
+        assertEquals(
+                lines(2 * A3OutputLog.LINES_PER_SEGMENT, count),
+                gunzip(new ByteArrayInputStream(Arrays.copyOfRange(content, end, content.length))));
+    }
+
+    @Test
+    void storesIndexOfLogWrittenOnNode() throws Exception {
+        FilePath file = new FilePath(new File(tmp, "a3-node.log.gz"));
+        try (OutputStream out = file.act(new A3OutputLog.Open())) {
+            out.write(lines(0, 3).getBytes(StandardCharsets.UTF_8));
+            out.write("incomplete".getBytes(StandardCharsets.UTF_8));
+        }
+
+        A3OutputLog.Index index = file.act(new A3OutputLog.ReadIndex());
+        assertEquals(4, index.getLineCount());
+        assertEquals(file.length(), index.getSize());
+        assertEquals(Arrays.asList(0L), index.getOffsets());
+        assertEquals(lines(0, 3) + "incomplete", gunzip(file.read()));
+
+        // The index is handed out once
+        assertNull(file.act(new A3OutputLog.ReadIndex()));
+
+        byte[] range = file.act(new A3OutputLog.ReadRange(0, (int) index.getSize()));
+        assertEquals(lines(0, 3) + "incomplete", gunzip(new ByteArrayInputStream(range)));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+
+class A3OutputMonitorTest {
+
+    private static void print(A3OutputMonitor monitor, String text) throws IOException {
+        monitor.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void forwardsAllLinesAndFlushesIncompleteLineOnClose() throws IOException {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        A3OutputMonitor monitor = new A3OutputMonitor(log);
+        print(monitor, "first line\nsecond line\nno line end");
+        assertEquals("first line\nsecond line\n", log.toString(StandardCharsets.UTF_8));
+        monitor.close();
+        assertEquals("first line\nsecond line\nno line end", log.toString(StandardCharsets.UTF_8));
+        assertFalse(monitor.isLicenseFailure());
+    }
+
+    @Test
+    void detectsLicenseFailures() throws IOException {
+        A3OutputMonitor monitor = new A3OutputMonitor(new ByteArrayOutputStream());
+        print(monitor, "Checking out license for a3 ppc\nLicense check succeeded\n");
+        assertFalse(monitor.isLicenseFailure());
+        // Ordinary messages mentioning licenses and failures are not license failures
+        print(monitor, "a1: warning: license_error() never returns\n"
+                + "Reading licence.c: failed to open source file\n"
+                + "Error in a1: routine check_license failed\n"
+                + "Note: the license expires in 10 days\n");
+        assertFalse(monitor.isLicenseFailure());
+        print(monitor, "Error: License checkout failed: no free license available\n");
+        assertTrue(monitor.isLicenseFailure());
+    }
+
+    @Test
+    void followsItemProgress() throws IOException {
+        A3OutputMonitor monitor = new A3OutputMonitor(new ByteArrayOutputStream(), Arrays.asList("a1", "a2", "a3"));
+        print(monitor, "Starting analysis a1\nStarting analysis a2\n");
+        assertEquals(new HashSet<String>(Arrays.asList("a1", "a2")), monitor.getRunningItems().keySet());
+
+        // Errors and warnings of an item do not change its state
+        print(monitor, "a1: warning: loop bound missing\nanalysis a2 finished\n");
+        assertFalse(monitor.isFinished("a1"));
+        assertTrue(monitor.isFinished("a2"));
+        assertEquals(Collections.singleton("a1"), monitor.getRunningItems().keySet());
+
+        // Finished items are not started again, unknown IDs and partial tokens are ignored
+        print(monitor, "Starting analysis a2\nStarting analysis a10\n");
+        assertEquals(Collections.singleton("a1"), monitor.getRunningItems().keySet());
+        assertFalse(monitor.isFinished("a3"));
+    }
+
+    @Test
+    void attributesInfrastructureErrorsToItems() throws IOException {
+        A3OutputMonitor monitor = new A3OutputMonitor(new ByteArrayOutputStream(), Arrays.asList("a1", "a2", "a3"));
+        print(monitor, "Error in a1: out of memory\n");
+        assertEquals(Collections.singleton("a1"), monitor.getInfrastructureErrorItems());
+
+        // Only error messages count, not other lines mentioning such words
+        print(monitor, "a2: loop in handle_out_of_memory not bounded\n"
+                + "Error: unresolved call to connection_reset()\n"
+                + "connection refused by license server\n");
+        assertEquals(Collections.singleton("a1"), monitor.getInfrastructureErrorItems());
+
+        // Not related to an item: all items are affected
+        print(monitor, "Error: connection to license server refused\n");
+        assertEquals(new HashSet<String>(Arrays.asList("a1", "a2", "a3")), monitor.getInfrastructureErrorItems());
+    }
+
+    @Test
+    void filtersBuildLogWithFullLog() throws IOException {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        A3OutputMonitor monitor = new A3OutputMonitor(log);
+        monitor.setFullLog(full);
+        String output = "Reading executable\nDecoding instructions\nError: unresolved call\n"
+                + "License server timed out\nAnalysis a1 finished\n";
+        print(monitor, output);
+        monitor.close();
+        assertEquals(output, full.toString(StandardCharsets.UTF_8));
+        assertEquals(
+                "Error: unresolved call\nLicense server timed out\nAnalysis a1 finished\n",
+                log.toString(StandardCharsets.UTF_8));
+        assertEquals(2, monitor.getSuppressedLines());
+        assertTrue(monitor.isLicenseFailure());
+    }
+}
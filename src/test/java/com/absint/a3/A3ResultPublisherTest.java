@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Result;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class A3ResultPublisherTest {
+
+    private static String results(String id, String status) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<results>\n  <result id=\"" + id
+                + "\" type=\"ValueAnalyzer\" analysis_time=\"1\" warning_count=\"0\" error_count=\"0\" analysis_status=\""
+                + status + "\"><expectation>success</expectation></result>\n</results>\n";
+    }
+
+    /** Writes files to the workspace, each one a minute newer than the previous one */
+    private static TestBuilder writing(String... namesAndContents) {
+        return new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                    throws InterruptedException, IOException {
+                long time = System.currentTimeMillis() - 3600_000L;
+                for (int i = 0; i < namesAndContents.length; i += 2) {
+                    FilePath file = build.getWorkspace().child(namesAndContents[i]);
+                    file.write(namesAndContents[i + 1], "UTF-8");
+                    file.touch(time += 60_000L);
+                }
+                return true;
+            }
+        };
+    }
+
+    @Test
+    void rerunShardOverridesFailedItem(JenkinsRule r) throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        // shard-b is the re-run of the failed item of shard-a
+        p.getBuildersList().add(writing(
+                "results/shard-b.xml", results("a1", "failure"),
+                "results/shard-a.xml", results("a2", "success"),
+                "results/shard-c.xml", results("a1", "success")));
+        p.getPublishersList().add(new A3ResultPublisher("results/*.xml"));
+
+        FreeStyleBuild b = r.buildAndAssertSuccess(p);
+        Map<String, AnalysisItemResult> items = A3ResultsAction.combined(b);
+        assertEquals(2, items.size());
+        assertFalse(items.get("a1").isFailed());
+        assertEquals(1, b.getActions(A3ResultsAction.class).size());
+    }
+
+    @Test
+    void failedAndUnreadableFilesFailTheBuild(JenkinsRule r) throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        p.getBuildersList().add(writing("results/a.xml", results("a1", "failure")));
+        p.getPublishersList().add(new A3ResultPublisher("results/*.xml"));
+        r.assertLogContains("Failed analysis items: a1", r.buildAndAssertStatus(Result.FAILURE, p));
+
+        FreeStyleProject q = r.createFreeStyleProject();
+        q.getBuildersList().add(writing("results/a.xml", results("a1", "success"), "results/b.xml", "no xml"));
+        q.getPublishersList().add(new A3ResultPublisher("results/*.xml"));
+        r.assertLogContains("Unreadable XML result files: results/b.xml", r.buildAndAssertStatus(Result.FAILURE, q));
+    }
+
+    @Test
+    void mergesResultsOfAllPrecedingSteps(JenkinsRule r) throws Exception {
+        FreeStyleProject p = r.createFreeStyleProject();
+        p.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) {
+                // Two a³ build steps, each one with its own results
+                build.addAction(new A3ResultsAction(Collections.singletonMap(
+                        "s1", new AnalysisItemResult("s1", "Value", "1", "", "ok", 0, 0, false))));
+                build.addAction(new A3ResultsAction(Collections.singletonMap(
+                        "s2", new AnalysisItemResult("s2", "Value", "1", "", "ok", 0, 0, false))));
+                return true;
+            }
+        });
+        p.getBuildersList().add(writing("results/a.xml", results("a1", "success")));
+        p.getPublishersList().add(new A3ResultPublisher("results/*.xml"));
+
+        FreeStyleBuild b = r.buildAndAssertSuccess(p);
+        assertEquals(1, b.getActions(A3ResultsAction.class).size());
+        assertEquals(3, A3ResultsAction.combined(b).size());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import java.io.File;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+
+/**
+ * Configuration helpers for the tests running builds with {@link StubA3}. They are kept apart from the stub,
+ * which runs without the Jenkins classes.
+ */
+final class A3TestSupport {
+
+    private A3TestSupport() {}
+
+    /**
+     * Configures the plugin to use the stub, optionally with a license server and seat pools
+     * @param alauncher script written by {@link StubA3#install(File)}
+     * @param licensePort port of the {@link LicenseServerStandIn}, 0 for none
+     * @param licenseSeats seat pool configuration, e.g. "ppc=1"
+     * @param licenseRetries license retries
+     * @throws Exception if the configuration is rejected
+     */
+    static void configure(File alauncher, int licensePort, String licenseSeats, int licenseRetries) throws Exception {
+        JSONObject form = new JSONObject();
+        form.put("alauncher", alauncher.getAbsolutePath());
+        form.put("a3packages", "");
+        form.put("almserver", (licensePort > 0 ? "127.0.0.1" : ""));
+        form.put("almport", String.valueOf(licensePort));
+        form.put("license_seats", licenseSeats);
+        form.put("license_retries", String.valueOf(licenseRetries));
+        Jenkins.get().getDescriptorByType(A3Builder.DescriptorImpl.class).configure(null, form);
+    }
+
+    /**
+     * Returns a build step analysing all items of a project file
+     * @param apx the project file
+     * @return the build step
+     */
+    static A3Builder builder(File apx) {
+        return new A3Builder(apx.getAbsolutePath(), "", "apx", "disabled", "default", false, false, false);
+    }
+}
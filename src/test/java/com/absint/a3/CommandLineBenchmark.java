@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import hudson.EnvVars;
+import hudson.util.ArgumentListBuilder;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Environment variable expansion and a³ command line building of the build step
+ */
+@State(Scope.Benchmark)
+public class CommandLineBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int items;
+
+    private EnvVars env;
+    private String path;
+    private A3CommandTemplate template;
+    private List<String> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        env = new EnvVars();
+        for (int i = 0; i < 100; i++) {
+            env.put("VAR_" + i, "/some/fairly/long/path/segment_" + i);
+        }
+        env.put("WORKSPACE", "/var/lib/jenkins/workspace/a3-project");
+        env.put("A3_HOME", "/opt/absint/a3");
+        path = "${WORKSPACE}/${var_7}/${A3_HOME}\\bin\\${VAR_42}/${UNDEFINED}/project.apx";
+        template = new A3CommandTemplate(
+                A3Builder.expandEnvironmentVarsHelper("${A3_HOME}/bin/alauncher", env, A3ToolInstaller.OS.UNIX),
+                A3Builder.expandEnvironmentVarsHelper(path, env, A3ToolInstaller.OS.UNIX),
+                "warning",
+                "4");
+        ids = SyntheticA3Files.ids(items);
+    }
+
+    @Benchmark
+    public String expandEnvironmentVars() {
+        return A3Builder.expandEnvironmentVarsHelper(path, env, A3ToolInstaller.OS.UNIX);
+    }
+
+    @Benchmark
+    public ArgumentListBuilder buildCommandLine() {
+        return template.build("report.txt", "results.xml", "workspace.apz", ids);
+    }
+
+    @Benchmark
+    public int windowsLength() {
+        return template.windowsLength("report.txt", "results.xml", "workspace.apz", ids);
+    }
+}
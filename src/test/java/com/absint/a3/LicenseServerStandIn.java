@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the AbsInt license server in the tests: grants a fixed number of seats to {@link StubA3}
+ * invocations, a seat is held as long as the connection is open.
+ */
+public class LicenseServerStandIn implements Closeable {
+
+    private final ServerSocket server;
+    private final int seats;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger maxInUse = new AtomicInteger();
+    private final AtomicInteger denials = new AtomicInteger();
+    private final AtomicInteger forcedDenials;
+
+    /**
+     * Starts the server on a free local port
+     * @param seats number of license seats
+     * @param forcedDenials number of first checkouts to deny regardless of free seats
+     * @throws IOException if the server socket cannot be opened
+     */
+    public LicenseServerStandIn(int seats, int forcedDenials) throws IOException {
+        this.seats = seats;
+        this.forcedDenials = new AtomicInteger(forcedDenials);
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::serve, "License server stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getMaxInUse() {
+        return maxInUse.get();
+    }
+
+    public int getDenials() {
+        return denials.get();
+    }
+
+    private void serve() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                Thread handler = new Thread(() -> handle(client), "License checkout");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    private void handle(Socket client) {
+        boolean granted = false;
+        try (Socket c = client) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(c.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(c.getOutputStream(), true);
+            if (!"CHECKOUT".equals(in.readLine())) return;
+            synchronized (this) {
+                if (forcedDenials.get() > 0) {
+                    forcedDenials.decrementAndGet();
+                } else if (inUse.get() < seats) {
+                    granted = true;
+                    maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                }
+                if (!granted) denials.incrementAndGet();
+            }
+            out.println(granted ? "GRANTED" : "DENIED");
+            while (in.read() >= 0) {
+                // the seat is held until the a³ process closes the connection
+            }
+        } catch (IOException e) {
+            // the a³ process ended
+        } finally {
+            if (granted) inUse.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+}
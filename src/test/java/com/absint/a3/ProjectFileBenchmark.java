@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Extraction of the analysis items and files from APX project files by {@link APXFileHandler}
+ */
+@State(Scope.Benchmark)
+public class ProjectFileBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int items;
+
+    private File dir;
+    private FilePath apx;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("a3-bench").toFile();
+        apx = new FilePath(SyntheticA3Files.project(dir, items));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Benchmark
+    public List<String> analysisIDs() throws IOException {
+        return new APXFileHandler(apx, TaskListener.NULL).getAnalysisIDs();
+    }
+
+    @Benchmark
+    public void extraction(Blackhole bh) throws IOException {
+        // Everything the build step takes from the project file
+        APXFileHandler handler = new APXFileHandler(apx, TaskListener.NULL);
+        HashMap<String, FilePath> id2html = new HashMap<String, FilePath>();
+        handler.fillIDtoHTMLReportMap(id2html);
+        bh.consume(id2html);
+        bh.consume(handler.getAnalysisIDs());
+        bh.consume(handler.getReportFile());
+        bh.consume(handler.getResultFile());
+        bh.consume(handler.getPedanticLevel());
+        bh.consume(handler.getTarget());
+    }
+}
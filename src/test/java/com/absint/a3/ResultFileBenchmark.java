@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Vector;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Parsing and pretty-printing of XML result files by {@link XMLResultFileHandler}
+ */
+@State(Scope.Benchmark)
+public class ResultFileBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int items;
+
+    private File dir;
+    private FilePath results;
+    private HashMap<String, FilePath> id2html;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("a3-bench").toFile();
+        results = new FilePath(SyntheticA3Files.results(dir, items));
+        id2html = new HashMap<String, FilePath>();
+        APXFileHandler apx = new APXFileHandler(new FilePath(SyntheticA3Files.project(dir, items)), TaskListener.NULL);
+        apx.fillIDtoHTMLReportMap(id2html);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Benchmark
+    public XMLResultFileHandler parse() {
+        return new XMLResultFileHandler(results, 1, TaskListener.NULL);
+    }
+
+    @Benchmark
+    public Vector<String> parseAndPrettyPrint() {
+        Vector<String> failed = new Vector<String>();
+        new XMLResultFileHandler(results, 1, TaskListener.NULL).prettyPrintResultsAndCollectFailedItems(failed, id2html);
+        return failed;
+    }
+}
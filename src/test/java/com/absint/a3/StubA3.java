@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for alauncher in the tests, started by the script written by {@link #install(File)}.
+ * <br>
+ * It understands the command lines of the plugin: <tt>-b target --version-file F</tt> writes a build number,
+ * <tt>project.apx -b [--report-file R] [--xml-result-file X] [-i id]...</tt> checks out a license from
+ * {@link LicenseServerStandIn} (AI_LICENSE=host@port, if set), "analyses" the items for
+ * <tt>STUB_A3_ITEM_MILLIS</tt> ms each, printing <tt>STUB_A3_ITEM_LINES</tt> progress lines per item,
+ * and writes a successful result per item.
+ */
+public class StubA3 {
+
+    private static final Pattern ANALYSIS_ID = Pattern.compile("<analysis\\s[^>]*id=\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String project = null;
+        String versionFile = null;
+        String reportFile = null;
+        String resultFile = null;
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-b":
+                    if (project == null && i + 1 < args.length && !args[i + 1].startsWith("-")) {
+                        i++; // target of the version check
+                    }
+                    break;
+                case "--version-file":
+                    versionFile = args[++i];
+                    break;
+                case "--report-file":
+                    reportFile = args[++i];
+                    break;
+                case "--xml-result-file":
+                    resultFile = args[++i];
+                    break;
+                case "-i":
+                    ids.add(args[++i]);
+                    break;
+                case "--pedantic-level":
+                case "--export-workspace":
+                case "-j":
+                    i++;
+                    break;
+                default:
+                    project = args[i];
+            }
+        }
+        if (versionFile != null) {
+            write(new File(versionFile), "Version: 99.99\nBuild: 9999999\n");
+            return;
+        }
+        if (ids.isEmpty()) {
+            Matcher m = ANALYSIS_ID.matcher(new String(Files.readAllBytes(new File(project).toPath()), StandardCharsets.UTF_8));
+            while (m.find()) ids.add(m.group(1));
+        }
+
+        String license = System.getenv("AI_LICENSE");
+        Socket seat = null;
+        if (license != null && license.contains("@")) {
+            seat = new Socket(license.substring(0, license.indexOf('@')), Integer.parseInt(license.substring(license.indexOf('@') + 1)));
+            PrintWriter out = new PrintWriter(seat.getOutputStream(), true);
+            out.println("CHECKOUT");
+            String answer = new BufferedReader(new InputStreamReader(seat.getInputStream(), StandardCharsets.UTF_8)).readLine();
+            if (!"GRANTED".equals(answer)) {
+                System.out.println("License checkout failed: no free license");
+                System.exit(1);
+            }
+        }
+
+        long millis = Long.parseLong(System.getenv().getOrDefault("STUB_A3_ITEM_MILLIS", "200"));
+        int lines = Integer.parseInt(System.getenv().getOrDefault("STUB_A3_ITEM_LINES", "0"));
+        StringBuilder report = new StringBuilder();
+        StringBuilder results = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<results>\n");
+        for (String id : ids) {
+            System.out.println("Starting analysis " + id);
+            for (int i = 0; i < lines; i++) {
+                System.out.println("  " + id + ": processing routine " + i + " of " + lines);
+            }
+            Thread.sleep(millis);
+            System.out.println("Analysis " + id + " finished");
+            report.append("Analysis ").append(id).append(": success\n");
+            results.append("  <result id=\"").append(id).append("\" type=\"ValueAnalyzer\" analysis_time=\"1\"")
+                    .append(" warning_count=\"0\" error_count=\"0\" analysis_status=\"success\">")
+                    .append("<expectation>success</expectation></result>\n");
+        }
+        results.append("</results>\n");
+        if (reportFile != null) write(new File(reportFile), report.toString());
+        if (resultFile != null) write(new File(resultFile), results.toString());
+        if (seat != null) seat.close();
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes an <tt>alauncher</tt> script starting this class
+     * @param dir directory for the script
+     * @return the script
+     * @throws IOException if the script cannot be written
+     */
+    public static File install(File dir) throws IOException {
+        File script = new File(dir, "alauncher");
+        String java = new File(System.getProperty("java.home"), "bin/java").getAbsolutePath();
+        String classes;
+        try {
+            classes = new File(StubA3.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        write(script, "#!/bin/sh\nexec \"" + java + "\" -cp \"" + classes + "\" " + StubA3.class.getName() + " \"$@\"\n");
+        if (!script.setExecutable(true)) {
+            throw new IOException("Cannot make " + script + " executable");
+        }
+        return script;
+    }
+
+    /**
+     * Writes an APX project file with the given analysis items
+     * @param dir directory for the project file
+     * @param target a³ target
+     * @param ids analysis IDs
+     * @return the project file
+     * @throws IOException if the file cannot be written
+     */
+    public static File project(File dir, String target, String... ids) throws IOException {
+        StringBuilder apx = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project target=\"")
+                .append(target).append("\">\n  <files></files>\n  <analyses>\n");
+        for (String id : ids) {
+            apx.append("    <analysis id=\"").append(id).append("\" type=\"value_analysis\" enabled=\"true\"/>\n");
+        }
+        apx.append("  </analyses>\n</project>\n");
+        File file = new File(dir, target + ".apx");
+        write(file, apx.toString());
+        return file;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2025, AbsInt Angewandte Informatik GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.absint.a3;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes synthetic a³ project, result and report files of a given number of analysis items for the benchmarks.
+ * The item IDs are <tt>item_0</tt>, <tt>item_1</tt>, ..., the analysis types cycle through the a³ tools.
+ */
+final class SyntheticA3Files {
+
+    private static final String[] TYPES = {"aiT", "StackAnalyzer", "TimingProfiler", "ValueAnalyzer"};
+
+    private SyntheticA3Files() {}
+
+    /**
+     * Returns the IDs of the analysis items
+     * @param items number of analysis items
+     * @return the IDs
+     */
+    static List<String> ids(int items) {
+        List<String> ids = new ArrayList<String>(items);
+        for (int i = 0; i < items; i++) {
+            ids.add("item_" + i);
+        }
+        return ids;
+    }
+
+    /**
+     * Writes an APX project file with a report, a result and a HTML report file per item
+     * @param dir   directory of the project file
+     * @param items number of analysis items
+     * @return the project file
+     * @throws IOException if the file cannot be written
+     */
+    static File project(File dir, int items) throws IOException {
+        File apx = new File(dir, "project-" + items + ".apx");
+        try (BufferedWriter out = Files.newBufferedWriter(apx.toPath(), StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project target=\"ppc\" version=\"24.04\">\n");
+            out.write("  <files>\n    <executables>app.elf</executables>\n    <report>report.txt</report>\n");
+            out.write("    <xml_results>results.xml</xml_results>\n  </files>\n");
+            out.write("  <options>\n    <analyses_options>\n      <pedantic_level>warning</pedantic_level>\n");
+            out.write("    </analyses_options>\n  </options>\n  <analyses>\n");
+            for (int i = 0; i < items; i++) {
+                out.write("    <analysis id=\"item_" + i + "\" type=\"" + TYPES[i % TYPES.length]
+                        + "\" enabled=\"true\">\n      <analysis_start>task_" + i + "</analysis_start>\n"
+                        + "      <html_report>html/item_" + i + ".html</html_report>\n    </analysis>\n");
+            }
+            out.write("  </analyses>\n</project>\n");
+        }
+        return apx;
+    }
+
+    /**
+     * Writes an XML result file, every tenth item missing its expectation
+     * @param dir   directory of the result file
+     * @param items number of analysis items
+     * @return the result file
+     * @throws IOException if the file cannot be written
+     */
+    static File results(File dir, int items) throws IOException {
+        File xml = new File(dir, "results-" + items + ".xml");
+        try (BufferedWriter out = Files.newBufferedWriter(xml.toPath(), StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<results>\n");
+            for (int i = 0; i < items; i++) {
+                out.write("  <result id=\"item_" + i + "\" type=\"" + TYPES[i % TYPES.length] + "\" analysis_time=\""
+                        + (i % 97) + "\" warning_count=\"" + (i % 3) + "\" error_count=\"0\""
+                        + " analysis_status=\"success\">");
+                if (i % 10 != 0) {
+                    out.write("<expectation>success</expectation>");
+                }
+                out.write("</result>\n");
+            }
+            out.write("</results>\n");
+        }
+        return xml;
+    }
+
+    /**
+     * Writes a text report with a few lines per item
+     * @param dir   directory of the report file
+     * @param items number of analysis items
+     * @return the report file
+     * @throws IOException if the file cannot be written
+     */
+    static File report(File dir, int items) throws IOException {
+        File txt = new File(dir, "report-" + items + ".txt");
+        try (BufferedWriter out = Files.newBufferedWriter(txt.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < items; i++) {
+                out.write("Analysis item_" + i + " (" + TYPES[i % TYPES.length] + "): success\n");
+                out.write("  Worst-case execution time of task_" + i + ": " + (1000 + i) + " cycles\n");
+                out.write("  Warnings: " + (i % 3) + ", errors: 0\n");
+            }
+        }
+        return txt;
+    }
+}